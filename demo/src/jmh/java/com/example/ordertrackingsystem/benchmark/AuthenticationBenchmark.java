@@ -0,0 +1,67 @@
+package com.example.ordertrackingsystem.benchmark;
+
+import com.example.ordertrackingsystem.service.DatabaseUserDetailsService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Compares a full credential check (user lookup plus password hash verification) with the cached path
+ * taken by repeat HTTP Basic requests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthenticationBenchmark {
+
+    private static final String USERNAME = "admin";
+    private static final String PASSWORD = "admin123";
+
+    private DatabaseUserDetailsService userDetailsService;
+    private PasswordEncoder passwordEncoder;
+    private AuthenticationProvider authenticationProvider;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ConfigurableApplicationContext context = BenchmarkContext.get();
+        userDetailsService = context.getBean(DatabaseUserDetailsService.class);
+        passwordEncoder = context.getBean(PasswordEncoder.class);
+        authenticationProvider = context.getBean(AuthenticationProvider.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkContext.close();
+    }
+
+    @Benchmark
+    public boolean loadUserAndVerifyPassword() {
+        UserDetails user = userDetailsService.loadUserByUsername(USERNAME);
+        return passwordEncoder.matches(PASSWORD, user.getPassword());
+    }
+
+    @Benchmark
+    public Authentication cachedAuthentication() {
+        return authenticationProvider.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated(USERNAME, PASSWORD));
+    }
+}
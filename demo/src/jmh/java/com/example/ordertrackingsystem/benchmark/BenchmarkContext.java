@@ -0,0 +1,38 @@
+package com.example.ordertrackingsystem.benchmark;
+
+import com.example.ordertrackingsystem.OrderTrackingSystemApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the application once per benchmark JVM against the in-memory H2 database from the test resources.
+ */
+public final class BenchmarkContext {
+
+    private static ConfigurableApplicationContext context;
+
+    private BenchmarkContext() {
+    }
+
+    public static synchronized ConfigurableApplicationContext get() {
+        if (context == null) {
+            context = new SpringApplicationBuilder(OrderTrackingSystemApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .properties(
+                            "spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                            "spring.jpa.hibernate.ddl-auto=create-drop",
+                            "spring.devtools.restart.enabled=false",
+                            "logging.level.root=WARN")
+                    .run();
+        }
+        return context;
+    }
+
+    public static synchronized void close() {
+        if (context != null) {
+            context.close();
+            context = null;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.ordertrackingsystem.benchmark;
+
+import com.example.ordertrackingsystem.model.Order;
+import com.example.ordertrackingsystem.model.OrderStatus;
+import com.example.ordertrackingsystem.model.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures Jackson serialization of order and product lists with the settings Spring Boot applies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private List<Order> orders;
+    private List<Product> products;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        LocalDateTime now = LocalDateTime.now();
+        orders = new ArrayList<>(size);
+        products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            orders.add(new Order((long) i, "Customer " + i, "Product " + (i % 50), 1 + i % 4, 24.99,
+                    OrderStatus.PENDING, now.minusMinutes(i), "user" + (i % 100)));
+            products.add(new Product((long) i, "Product " + i, "Description for product " + i,
+                    BigDecimal.valueOf(1999 + i, 2), now.minusHours(i), i % 2 == 0,
+                    "https://example.com/images/" + i + ".jpg"));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeOrders() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(orders);
+    }
+
+    @Benchmark
+    public byte[] serializeProducts() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(products);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.ordertrackingsystem.benchmark;
+
+import com.example.ordertrackingsystem.model.Order;
+import com.example.ordertrackingsystem.model.OrderStatus;
+import com.example.ordertrackingsystem.service.OrderFilter;
+import com.example.ordertrackingsystem.service.OrderPage;
+import com.example.ordertrackingsystem.service.OrderService;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures order creation and the listing paths of {@link OrderService} against H2.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+    private static final String OWNER = "bench-user";
+    private static final int SEEDED_ORDERS = 1_000;
+
+    private OrderService orderService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        orderService = BenchmarkContext.get().getBean(OrderService.class);
+        for (int batch = 0; batch < SEEDED_ORDERS / OrderService.MAX_BATCH_SIZE; batch++) {
+            List<Order> orders = new ArrayList<>(OrderService.MAX_BATCH_SIZE);
+            for (int i = 0; i < OrderService.MAX_BATCH_SIZE; i++) {
+                orders.add(newOrder(batch * OrderService.MAX_BATCH_SIZE + i));
+            }
+            orderService.createOrders(orders, OWNER);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkContext.close();
+    }
+
+    @Benchmark
+    public Order createOrder() {
+        return orderService.createOrder(newOrder(0), "bench-writer");
+    }
+
+    @Benchmark
+    public List<Order> getOrdersAccessibleByUser() {
+        return orderService.getOrdersAccessibleBy(OWNER, false);
+    }
+
+    @Benchmark
+    public OrderPage getFirstOrderPage() {
+        return orderService.getOrderPage(OWNER, false, new OrderFilter(null, null, null, null), false, null, 50);
+    }
+
+    private static Order newOrder(int index) {
+        return new Order(null, "Customer " + index, "Product " + (index % 25), 1 + index % 3, 19.99,
+                OrderStatus.PENDING, LocalDateTime.now().minusMinutes(index));
+    }
+}
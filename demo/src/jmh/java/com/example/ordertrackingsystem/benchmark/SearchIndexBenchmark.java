@@ -0,0 +1,60 @@
+package com.example.ordertrackingsystem.benchmark;
+
+import com.example.ordertrackingsystem.search.TextIndex;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures order search queries against an index of 100k orders built from random customer and product names.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchIndexBenchmark {
+
+    private static final String[] FIRST_NAMES = {"Jane", "John", "Maria", "Ahmed", "Wei", "Olivia", "Lucas", "Priya",
+            "Noah", "Emma", "Kenji", "Fatima", "Diego", "Sofia", "Ivan", "Amara"};
+    private static final String[] LAST_NAMES = {"Doe", "Smith", "Garcia", "Khan", "Chen", "Johnson", "Silva",
+            "Patel", "Brown", "Muller", "Tanaka", "Hassan", "Lopez", "Rossi", "Petrov", "Okafor"};
+    private static final String[] PRODUCTS = {"Wireless Mouse", "Mechanical Keyboard", "USB-C Laptop Hub",
+            "Portable Bluetooth Speaker", "Smart Fitness Watch", "Wireless Earbuds", "Gaming Chair", "4K Monitor"};
+
+    @Param({"100000"})
+    public int orders;
+
+    @Param({"patel", "jan gar", "smiht keyboard", "wireless"})
+    public String query;
+
+    private TextIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new TextIndex();
+        for (long id = 1; id <= orders; id++) {
+            String customer = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                    + LAST_NAMES[random.nextInt(LAST_NAMES.length)] + " " + Long.toString(id, 36);
+            index.put(id, customer, PRODUCTS[random.nextInt(PRODUCTS.length)]);
+        }
+    }
+
+    @Benchmark
+    public List<Long> search() {
+        return index.search(query, 20, id -> true);
+    }
+}
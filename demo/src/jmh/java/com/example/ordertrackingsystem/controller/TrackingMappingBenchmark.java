@@ -0,0 +1,43 @@
+package com.example.ordertrackingsystem.controller;
+
+import com.example.ordertrackingsystem.controller.OrderTrackingController.OrderTrackingResponse;
+import com.example.ordertrackingsystem.model.Order;
+import com.example.ordertrackingsystem.model.OrderStatus;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures building the public tracking view of an order; lives in the controller package to reach
+ * {@link OrderTrackingController#mapToResponse(Order)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrackingMappingBenchmark {
+
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        order = new Order(42L, "Jane Doe", "Wireless Mouse", 2, 24.99, OrderStatus.SHIPPED,
+                LocalDateTime.of(2025, 1, 15, 10, 30), "user");
+    }
+
+    @Benchmark
+    public OrderTrackingResponse mapToResponse() {
+        return OrderTrackingController.mapToResponse(order);
+    }
+}
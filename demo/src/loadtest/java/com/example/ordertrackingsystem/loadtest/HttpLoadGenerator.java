@@ -0,0 +1,133 @@
+package com.example.ordertrackingsystem.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop HTTP load generator used to compare the platform-thread and virtual-thread servlet modes.
+ * Only built under the {@code loadtest} profile; run it against a started application:
+ *
+ * <pre>
+ * ./mvnw -Ploadtest test-compile exec:exec \
+ *     -Dloadtest.args="http://localhost:8080 /track/1 400 30 admin:admin123"
+ * </pre>
+ *
+ * Arguments: base URL, path, concurrent clients, duration in seconds, and optional {@code user:password}
+ * for HTTP Basic. Prints throughput and latency percentiles for successful (2xx/304) responses.
+ */
+public final class HttpLoadGenerator {
+
+    private HttpLoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.err.println("usage: HttpLoadGenerator <baseUrl> <path> <concurrency> <seconds> [user:password]");
+            System.exit(2);
+        }
+        URI target = URI.create(args[0] + args[1]);
+        int concurrency = Integer.parseInt(args[2]);
+        long durationNanos = Duration.ofSeconds(Long.parseLong(args[3])).toNanos();
+        String authorization = args.length > 4
+                ? "Basic " + Base64.getEncoder().encodeToString(args[4].getBytes(StandardCharsets.UTF_8))
+                : null;
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        HttpRequest.Builder requestBuilder = HttpRequest.newBuilder(target).timeout(Duration.ofSeconds(30)).GET();
+        if (authorization != null) {
+            requestBuilder.header("Authorization", authorization);
+        }
+        HttpRequest request = requestBuilder.build();
+
+        // Warm up connections, JIT and caches before measuring.
+        runClients(client, request, concurrency, Duration.ofSeconds(5).toNanos());
+        Result result = runClients(client, request, concurrency, durationNanos);
+
+        long[] latencies = result.latenciesNanos();
+        Arrays.sort(latencies);
+        double seconds = durationNanos / 1_000_000_000.0;
+        System.out.printf("target=%s concurrency=%d duration=%.0fs%n", target, concurrency, seconds);
+        System.out.printf("requests=%d errors=%d throughput=%.1f req/s%n",
+                latencies.length, result.errors(), latencies.length / seconds);
+        System.out.printf("latency ms: p50=%.2f p90=%.2f p99=%.2f max=%.2f%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.90),
+                percentile(latencies, 0.99), latencies.length == 0 ? 0.0 : latencies[latencies.length - 1] / 1e6);
+    }
+
+    private static Result runClients(HttpClient client, HttpRequest request, int concurrency, long durationNanos)
+            throws Exception {
+        long deadline = System.nanoTime() + durationNanos;
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<Result>> futures = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(pool.submit(() -> runClient(client, request, deadline)));
+            }
+            long errors = 0;
+            List<long[]> samples = new ArrayList<>(concurrency);
+            for (Future<Result> future : futures) {
+                Result clientResult = future.get();
+                errors += clientResult.errors();
+                samples.add(clientResult.latenciesNanos());
+            }
+            long[] merged = new long[samples.stream().mapToInt(sample -> sample.length).sum()];
+            int offset = 0;
+            for (long[] sample : samples) {
+                System.arraycopy(sample, 0, merged, offset, sample.length);
+                offset += sample.length;
+            }
+            return new Result(merged, errors);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Result runClient(HttpClient client, HttpRequest request, long deadline) {
+        long[] latencies = new long[1024];
+        int count = 0;
+        long errors = 0;
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                int status = response.statusCode();
+                if ((status >= 200 && status < 300) || status == 304) {
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - start;
+                } else {
+                    errors++;
+                }
+            } catch (Exception ex) {
+                errors++;
+            }
+        }
+        return new Result(Arrays.copyOf(latencies, count), errors);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    private record Result(long[] latenciesNanos, long errors) {
+    }
+}
@@ -2,11 +2,13 @@ package com.example.ordertrackingsystem;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Bootstraps the Order Tracking System Spring Boot application.
  */
 @SpringBootApplication
+@EnableScheduling
 public class OrderTrackingSystemApplication {
 
 	/**
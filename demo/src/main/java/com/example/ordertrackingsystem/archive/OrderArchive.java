@@ -0,0 +1,89 @@
+package com.example.ordertrackingsystem.archive;
+
+import com.example.ordertrackingsystem.model.ArchivedOrder;
+import com.example.ordertrackingsystem.model.Order;
+import com.example.ordertrackingsystem.repository.ArchivedOrderRepository;
+import com.example.ordertrackingsystem.service.OrderCursor;
+import com.example.ordertrackingsystem.service.OrderFilter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+/**
+ * Converts orders to and from their archived form and looks them up. Archived orders come back as unmanaged
+ * {@link Order} instances and must never be saved again.
+ */
+@Component
+public class OrderArchive {
+
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    public OrderArchive(ArchivedOrderRepository archivedOrderRepository, ObjectMapper objectMapper,
+                        EntityManager entityManager) {
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Returns the archived order with this id, if any.
+     */
+    public Optional<Order> find(Long id) {
+        return archivedOrderRepository.findById(id).map(this::toOrder);
+    }
+
+    /**
+     * Returns up to {@code limit} archived orders matching {@code filter}, newest first, starting after
+     * {@code after}, or with the newest when it is {@code null}.
+     */
+    public List<Order> findPage(OrderFilter filter, OrderCursor after, int limit) {
+        PageRequest page = PageRequest.ofSize(limit);
+        List<ArchivedOrder> rows = after == null
+                ? archivedOrderRepository.findFirstPage(filter.createdBy(), filter.status(), filter.from(), filter.to(), page)
+                : archivedOrderRepository.findPageAfter(filter.createdBy(), filter.status(), filter.from(), filter.to(),
+                        after.orderDate(), after.id(), page);
+        return rows.stream().map(this::toOrder).toList();
+    }
+
+    /**
+     * Streams the archived orders matching {@code filter}, oldest first. Like
+     * {@link com.example.ordertrackingsystem.repository.OrderRepository#streamAll}, the stream must be consumed
+     * inside a transaction; each row is detached once converted, so memory stays constant.
+     */
+    public Stream<Order> stream(OrderFilter filter) {
+        return archivedOrderRepository.streamAll(filter.createdBy(), filter.status(), filter.from(), filter.to())
+                .map(archived -> {
+                    Order order = toOrder(archived);
+                    entityManager.detach(archived);
+                    return order;
+                });
+    }
+
+    public void delete(Long id) {
+        archivedOrderRepository.deleteById(id);
+    }
+
+    ArchivedOrder toArchived(Order order, Instant archivedAt) {
+        try {
+            return new ArchivedOrder(order, objectMapper.writeValueAsString(order), archivedAt);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize order " + order.getId() + " for the archive", ex);
+        }
+    }
+
+    private Order toOrder(ArchivedOrder archived) {
+        try {
+            return objectMapper.readValue(archived.getPayload(), Order.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Archived order " + archived.getId() + " is unreadable", ex);
+        }
+    }
+}
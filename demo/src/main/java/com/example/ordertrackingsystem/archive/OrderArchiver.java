@@ -0,0 +1,114 @@
+package com.example.ordertrackingsystem.archive;
+
+import com.example.ordertrackingsystem.model.ArchivedOrder;
+import com.example.ordertrackingsystem.model.Order;
+import com.example.ordertrackingsystem.model.OrderStatus;
+import com.example.ordertrackingsystem.repository.ArchivedOrderRepository;
+import com.example.ordertrackingsystem.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves finished orders (Delivered or Cancelled) whose order date is older than {@code orders.archive.after}
+ * from {@code orders} to {@code archived_orders}, so the hot table and its indexes only hold recent and
+ * open orders. Each batch is copied and deleted in one transaction; the rows are locked while that happens,
+ * so several instances may run the job at once.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.archive.enabled", havingValue = "true")
+public class OrderArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiver.class);
+
+    /**
+     * Statuses an order can never leave, so archived orders never need to change.
+     */
+    private static final Set<OrderStatus> FINISHED = Arrays.stream(OrderStatus.values())
+            .filter(status -> status.nextStatuses().isEmpty())
+            .collect(Collectors.toUnmodifiableSet());
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final OrderArchive orderArchive;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Clock clock;
+    private final Duration after;
+    private final int batchSize;
+    private final Counter archived;
+
+    public OrderArchiver(OrderRepository orderRepository,
+                         ArchivedOrderRepository archivedOrderRepository,
+                         OrderArchive orderArchive,
+                         ApplicationEventPublisher eventPublisher,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${orders.archive.after:P90D}") Duration after,
+                         @Value("${orders.archive.batch-size:500}") int batchSize) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.orderArchive = orderArchive;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.clock = Clock.systemDefaultZone();
+        this.after = after;
+        this.batchSize = batchSize;
+        this.archived = Counter.builder("orders.archived")
+                .description("Orders moved to the archive table")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Archives every eligible order, one batch per transaction, and returns how many were moved.
+     */
+    @Scheduled(initialDelayString = "${orders.archive.initial-delay:PT5M}",
+            fixedDelayString = "${orders.archive.interval:PT1H}")
+    public int archiveFinishedOrders() {
+        LocalDateTime cutoff = LocalDateTime.now(clock).minus(after);
+        long started = System.nanoTime();
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            total += moved;
+        } while (moved == batchSize);
+        if (total > 0) {
+            log.info("Archived {} orders dated before {} in {} ms", total, cutoff, (System.nanoTime() - started) / 1_000_000);
+        }
+        return total;
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<Order> orders = orderRepository.findArchivable(FINISHED, cutoff, PageRequest.ofSize(batchSize));
+        if (orders.isEmpty()) {
+            return 0;
+        }
+        Instant now = clock.instant();
+        List<ArchivedOrder> rows = orders.stream().map(order -> orderArchive.toArchived(order, now)).toList();
+        List<Long> ids = orders.stream().map(Order::getId).toList();
+        archivedOrderRepository.saveAll(rows);
+        orderRepository.deleteLinesOf(ids);
+        orderRepository.deleteAllByIdIn(ids);
+        archived.increment(ids.size());
+        eventPublisher.publishEvent(new OrdersArchivedEvent(ids));
+        return ids.size();
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.ordertrackingsystem.archive;
+
+import java.util.List;
+
+/**
+ * Published when orders move from the {@code orders} table to the archive. Their content is unchanged, so only
+ * state that covers live orders alone (such as the search index) needs to drop them.
+ *
+ * @param orderIds identifiers of the archived orders
+ */
+public record OrdersArchivedEvent(List<Long> orderIds) {
+}
@@ -0,0 +1,122 @@
+package com.example.ordertrackingsystem.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+
+/**
+ * Small thread-safe cache bounded both by entry count (least recently used entries are evicted first)
+ * and by a fixed time-to-live per entry. Hit and miss counts are tracked for metrics.
+ */
+public class ExpiringLruCache<K, V> {
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ExpiringLruCache(int maxEntries, Duration ttl) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive.");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > ExpiringLruCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value or {@code null} when absent or expired.
+     */
+    public V get(K key) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAt - now > 0) {
+                hits.increment();
+                return entry.value;
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Whether a fresh value is cached for {@code key}, without counting a hit or miss.
+     */
+    public boolean contains(K key) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            return entry != null && entry.expiresAt - now > 0;
+        }
+    }
+
+    /**
+     * Stores a value, replacing any previous mapping and restarting its time-to-live.
+     */
+    public void put(K key, V value) {
+        Entry<V> entry = new Entry<>(value, System.nanoTime() + ttlNanos);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    /**
+     * Removes the mapping for {@code key}, if any.
+     */
+    public void invalidate(K key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Removes every mapping accepted by {@code predicate}.
+     */
+    public void invalidateIf(BiPredicate<K, V> predicate) {
+        synchronized (entries) {
+            Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<K, Entry<V>> next = iterator.next();
+                if (predicate.test(next.getKey(), next.getValue().value)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
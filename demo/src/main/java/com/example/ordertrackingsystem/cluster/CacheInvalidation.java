@@ -0,0 +1,18 @@
+package com.example.ordertrackingsystem.cluster;
+
+/**
+ * Tells other instances that cached state derived from an entity is stale. Received invalidations are
+ * republished as application events; caches on the sending instance are already evicted by the local change
+ * events.
+ *
+ * @param region which kind of entity changed
+ * @param key    the order id or username, or {@code null} for the whole catalog
+ */
+public record CacheInvalidation(Region region, String key) {
+
+    public enum Region {
+        ORDER,
+        CATALOG,
+        USER
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.ordertrackingsystem.cluster;
+
+import com.example.ordertrackingsystem.model.CacheInvalidationRecord;
+import com.example.ordertrackingsystem.repository.CacheInvalidationRecordRepository;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Channel that posts invalidations to the shared {@code cache_invalidations} table and polls it for those of
+ * other instances. Sequence ids are allocated in blocks per instance, so rows are read by time rather than by
+ * id: each poll re-reads a {@code lookback} window, which absorbs late commits and modest clock skew, and
+ * skips the ids it has already applied. Outgoing invalidations are queued and written every
+ * {@code flush-interval} in one transaction, so a burst of changes costs one commit instead of one each.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.cluster.channel", havingValue = "database")
+public class DatabaseInvalidationChannel extends RemoteInvalidationChannel {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseInvalidationChannel.class);
+
+    private final CacheInvalidationRecordRepository repository;
+    private final Queue<CacheInvalidation> outgoing = new ConcurrentLinkedQueue<>();
+    private final Duration lookback;
+    private final Duration retention;
+    private Instant lastPoll = Instant.now();
+    private Set<Long> applied = Set.of();
+
+    public DatabaseInvalidationChannel(CacheInvalidationRecordRepository repository,
+                                       ApplicationEventPublisher eventPublisher,
+                                       @Value("${orders.cluster.database.lookback:PT30S}") Duration lookback,
+                                       @Value("${orders.cluster.database.retention:PT10M}") Duration retention) {
+        super(eventPublisher);
+        this.repository = repository;
+        this.lookback = lookback;
+        this.retention = retention;
+    }
+
+    /**
+     * Queues the invalidation for the next {@link #flush}; called after the originating transaction committed.
+     */
+    @Override
+    public void broadcast(CacheInvalidation invalidation) {
+        outgoing.add(invalidation);
+    }
+
+    /**
+     * Writes every queued invalidation, duplicates collapsed, with one {@code saveAll} and thus one transaction.
+     */
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${orders.cluster.database.flush-interval:PT0.1S}")
+    public void flush() {
+        Set<CacheInvalidation> batch = new LinkedHashSet<>();
+        for (CacheInvalidation invalidation = outgoing.poll(); invalidation != null; invalidation = outgoing.poll()) {
+            batch.add(invalidation);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        try {
+            repository.saveAll(batch.stream()
+                    .map(invalidation -> new CacheInvalidationRecord(nodeId, invalidation.region().name(),
+                            invalidation.key(), now))
+                    .toList());
+        } catch (RuntimeException ex) {
+            log.warn("Could not publish {} cache invalidations; other instances rely on cache TTLs: {}",
+                    batch.size(), ex.toString());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${orders.cluster.database.poll-interval:PT1S}")
+    public synchronized void poll() {
+        Instant pollStart = Instant.now();
+        List<CacheInvalidationRecord> records =
+                repository.findByCreatedAtGreaterThanEqualOrderByCreatedAtAsc(lastPoll.minus(lookback));
+        Set<Long> seen = new HashSet<>();
+        for (CacheInvalidationRecord record : records) {
+            seen.add(record.getId());
+            if (!applied.contains(record.getId())) {
+                receive(record.getNodeId(), new CacheInvalidation(
+                        CacheInvalidation.Region.valueOf(record.getRegion()), record.getKey()));
+            }
+        }
+        applied = seen;
+        lastPoll = pollStart;
+    }
+
+    @Scheduled(fixedDelayString = "${orders.cluster.database.purge-interval:PT1M}")
+    public void purge() {
+        repository.deleteOlderThan(Instant.now().minus(retention));
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.ordertrackingsystem.cluster;
+
+import com.example.ordertrackingsystem.archive.OrdersArchivedEvent;
+import com.example.ordertrackingsystem.service.OrderChangedEvent;
+import com.example.ordertrackingsystem.service.OrdersChangedEvent;
+import com.example.ordertrackingsystem.service.ProductCatalogChangedEvent;
+import com.example.ordertrackingsystem.service.UserAccountChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Forwards committed local changes to the other instances through the {@link InvalidationChannel}.
+ */
+@Component
+public class InvalidationBroadcaster {
+
+    private final InvalidationChannel channel;
+
+    public InvalidationBroadcaster(InvalidationChannel channel) {
+        this.channel = channel;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (event.orderId() != null) {
+            channel.broadcast(new CacheInvalidation(CacheInvalidation.Region.ORDER, event.orderId().toString()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrdersChanged(OrdersChangedEvent event) {
+        event.changes().forEach(this::onOrderChanged);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrdersArchived(OrdersArchivedEvent event) {
+        event.orderIds().forEach(id -> channel.broadcast(new CacheInvalidation(CacheInvalidation.Region.ORDER, id.toString())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(ProductCatalogChangedEvent event) {
+        channel.broadcast(new CacheInvalidation(CacheInvalidation.Region.CATALOG, null));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountChanged(UserAccountChangedEvent event) {
+        channel.broadcast(new CacheInvalidation(CacheInvalidation.Region.USER, event.username()));
+    }
+}
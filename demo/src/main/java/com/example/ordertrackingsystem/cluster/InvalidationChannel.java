@@ -0,0 +1,15 @@
+package com.example.ordertrackingsystem.cluster;
+
+/**
+ * Carries {@link CacheInvalidation}s between application instances. The transport is chosen with
+ * {@code orders.cluster.channel}: {@code none} (single instance, the default), {@code database} or
+ * {@code multicast}.
+ */
+public interface InvalidationChannel {
+
+    /**
+     * Sends an invalidation to every other instance. Delivery is best effort; cache TTLs bound staleness if a
+     * message is lost.
+     */
+    void broadcast(CacheInvalidation invalidation);
+}
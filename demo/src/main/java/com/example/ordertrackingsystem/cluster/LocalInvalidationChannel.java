@@ -0,0 +1,16 @@
+package com.example.ordertrackingsystem.cluster;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Channel for a single instance: there is nobody to tell.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.cluster.channel", havingValue = "none", matchIfMissing = true)
+public class LocalInvalidationChannel implements InvalidationChannel {
+
+    @Override
+    public void broadcast(CacheInvalidation invalidation) {
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.ordertrackingsystem.cluster;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Channel that sends each invalidation as one UDP datagram to a multicast group, for instances on the same
+ * network segment (or several JVMs on one machine, with {@code interface=lo}). Datagrams are small and
+ * unacknowledged; a lost one leaves an entry stale until its TTL expires.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.cluster.channel", havingValue = "multicast")
+public class MulticastInvalidationChannel extends RemoteInvalidationChannel {
+
+    private static final Logger log = LoggerFactory.getLogger(MulticastInvalidationChannel.class);
+    private static final int MAX_DATAGRAM = 1024;
+    private static final char SEPARATOR = '\t';
+
+    private final MulticastSocket socket;
+    private final InetSocketAddress group;
+    private final Thread receiver;
+    private volatile boolean running = true;
+
+    public MulticastInvalidationChannel(ApplicationEventPublisher eventPublisher,
+                                        @Value("${orders.cluster.multicast.group:239.255.42.99}") String groupAddress,
+                                        @Value("${orders.cluster.multicast.port:45699}") int port,
+                                        @Value("${orders.cluster.multicast.interface:}") String interfaceName,
+                                        @Value("${orders.cluster.multicast.ttl:1}") int timeToLive) throws IOException {
+        super(eventPublisher);
+        this.group = new InetSocketAddress(InetAddress.getByName(groupAddress), port);
+        NetworkInterface networkInterface = interfaceName.isBlank() ? null : NetworkInterface.getByName(interfaceName);
+        if (!interfaceName.isBlank() && networkInterface == null) {
+            throw new IllegalStateException("Unknown network interface '" + interfaceName + "'.");
+        }
+        this.socket = new MulticastSocket(port);
+        socket.setTimeToLive(timeToLive);
+        if (networkInterface != null) {
+            socket.setNetworkInterface(networkInterface);
+        }
+        socket.joinGroup(group, networkInterface);
+        this.receiver = new Thread(this::receiveLoop, "cache-invalidation-receiver");
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    @Override
+    public void broadcast(CacheInvalidation invalidation) {
+        String message = nodeId + SEPARATOR + invalidation.region().name() + SEPARATOR
+                + (invalidation.key() == null ? "" : invalidation.key());
+        byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_DATAGRAM) {
+            log.warn("Cache invalidation too large to multicast: {}", invalidation);
+            return;
+        }
+        try {
+            socket.send(new DatagramPacket(bytes, bytes.length, group));
+        } catch (IOException ex) {
+            log.warn("Failed to multicast cache invalidation {}", invalidation, ex);
+        }
+    }
+
+    private void receiveLoop() {
+        byte[] buffer = new byte[MAX_DATAGRAM];
+        while (running) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                socket.receive(packet);
+            } catch (SocketException ex) {
+                if (running) {
+                    log.warn("Cache invalidation receiver stopped", ex);
+                }
+                return;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            String[] parts = new String(packet.getData(), 0, packet.getLength(), StandardCharsets.UTF_8)
+                    .split(String.valueOf(SEPARATOR), -1);
+            if (parts.length != 3) {
+                continue;
+            }
+            CacheInvalidation.Region region;
+            try {
+                region = CacheInvalidation.Region.valueOf(parts[1]);
+            } catch (IllegalArgumentException ex) {
+                continue;
+            }
+            receive(parts[0], new CacheInvalidation(region, parts[2].isEmpty() ? null : parts[2]));
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        running = false;
+        socket.close();
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.ordertrackingsystem.cluster;
+
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * Base for channels that reach other processes: tags outgoing messages with this instance's id and republishes
+ * incoming ones from other instances as application events.
+ */
+abstract class RemoteInvalidationChannel implements InvalidationChannel {
+
+    private static final Logger log = LoggerFactory.getLogger(RemoteInvalidationChannel.class);
+
+    protected final String nodeId = UUID.randomUUID().toString();
+    private final ApplicationEventPublisher eventPublisher;
+
+    protected RemoteInvalidationChannel(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Applies an invalidation received from the channel, ignoring this instance's own messages.
+     */
+    protected void receive(String origin, CacheInvalidation invalidation) {
+        if (nodeId.equals(origin)) {
+            return;
+        }
+        try {
+            eventPublisher.publishEvent(invalidation);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to apply cache invalidation {}", invalidation, ex);
+        }
+    }
+}
@@ -1,43 +1,87 @@
 package com.example.ordertrackingsystem.config;
 
 import com.example.ordertrackingsystem.model.Order;
+import com.example.ordertrackingsystem.model.OrderLine;
+import com.example.ordertrackingsystem.model.OrderStatus;
 import com.example.ordertrackingsystem.model.Product;
 import com.example.ordertrackingsystem.model.UserAccount;
 import com.example.ordertrackingsystem.repository.OrderRepository;
 import com.example.ordertrackingsystem.repository.ProductRepository;
 import com.example.ordertrackingsystem.repository.UserAccountRepository;
+import com.example.ordertrackingsystem.service.OrderChangedEvent;
+import com.example.ordertrackingsystem.service.OrderChangedEvent.ChangeType;
+import com.example.ordertrackingsystem.service.ProductCatalogChangedEvent;
+import com.example.ordertrackingsystem.service.UserAccountChangedEvent;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
- * Seeds the database with sample orders so the UI has data right after startup.
+ * Seeds empty tables with a demo admin, sample orders and products so the UI has data right after startup.
+ * {@code orders.seed.mode} runs the seeding before the application reports ready ({@code startup}, the default),
+ * on a background thread so it does not delay serving ({@code background}), or not at all ({@code off}, used by
+ * the {@code prod} profile). Seeded rows are written in one transaction and announced like any other write, so
+ * caches and indexes built meanwhile pick them up.
  */
 @Component
 public class DataInitializer implements CommandLineRunner {
 
+    private static final Logger log = LoggerFactory.getLogger(DataInitializer.class);
+
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
     private final UserAccountRepository userAccountRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaction;
+    private final SeedMode mode;
 
     public DataInitializer(OrderRepository orderRepository,
                            ProductRepository productRepository,
                            UserAccountRepository userAccountRepository,
-                           PasswordEncoder passwordEncoder) {
+                           PasswordEncoder passwordEncoder,
+                           ApplicationEventPublisher eventPublisher,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${orders.seed.mode:startup}") SeedMode mode) {
         this.orderRepository = orderRepository;
         this.productRepository = productRepository;
         this.userAccountRepository = userAccountRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.mode = mode;
     }
 
     @Override
     public void run(String... args) {
-        seedUsers();
-        seedOrders();
-        seedProducts();
+        switch (mode) {
+            case STARTUP -> seed();
+            case BACKGROUND -> CompletableFuture.runAsync(this::seed).exceptionally(ex -> {
+                log.warn("Could not seed demo data in the background.", ex);
+                return null;
+            });
+            case OFF -> log.debug("Demo data seeding is off.");
+        }
+    }
+
+    private void seed() {
+        long started = System.nanoTime();
+        transaction.executeWithoutResult(status -> {
+            seedUsers();
+            seedOrders();
+            seedProducts();
+        });
+        log.debug("Checked demo data in {} ms", (System.nanoTime() - started) / 1_000_000);
     }
 
     private void seedUsers() {
@@ -45,11 +89,12 @@ public class DataInitializer implements CommandLineRunner {
             return;
         }
 
-    List<UserAccount> demoUsers = List.of(
-        new UserAccount(null, "admin", passwordEncoder.encode("admin123"), "ADMIN", true)
-    );
+        List<UserAccount> demoUsers = List.of(
+                new UserAccount(null, "admin", passwordEncoder.encode("admin123"), "ADMIN", true)
+        );
 
-        userAccountRepository.saveAll(demoUsers);
+        userAccountRepository.saveAll(demoUsers)
+                .forEach(user -> eventPublisher.publishEvent(new UserAccountChangedEvent(user.getUsername())));
     }
 
     private void seedOrders() {
@@ -58,12 +103,20 @@ public class DataInitializer implements CommandLineRunner {
         }
 
         List<Order> demoOrders = List.of(
-                new Order(null, "Jane Doe", "Wireless Mouse", 2, 24.99, "Pending", LocalDateTime.now().minusDays(1), "user"),
-                new Order(null, "John Smith", "Mechanical Keyboard", 1, 89.99, "Shipped", LocalDateTime.now().minusHours(6), "admin"),
-                new Order(null, "Alice Johnson", "USB-C Hub", 3, 39.5, "Delivered", LocalDateTime.now().minusDays(2), "user")
+                new Order(null, "Jane Doe", "Wireless Mouse", 2, 24.99, OrderStatus.PENDING, LocalDateTime.now().minusDays(1), "user"),
+                new Order(null, "John Smith", "Mechanical Keyboard", 1, 89.99, OrderStatus.SHIPPED, LocalDateTime.now().minusHours(6), "admin"),
+                new Order(null, "Alice Johnson", "USB-C Hub", 3, 39.5, OrderStatus.DELIVERED, LocalDateTime.now().minusDays(2), "user")
         );
 
-        orderRepository.saveAll(demoOrders);
+        demoOrders.forEach(DataInitializer::addSingleLine);
+        orderRepository.saveAll(demoOrders).forEach(order -> eventPublisher.publishEvent(
+                new OrderChangedEvent(ChangeType.CREATED, order.getId(), order, null)));
+    }
+
+    private static void addSingleLine(Order order) {
+        BigDecimal unitPrice = BigDecimal.valueOf(order.getPrice());
+        order.addLine(new OrderLine(null, order.getProductName(), order.getQuantity(), unitPrice));
+        order.setTotalAmount(unitPrice.multiply(BigDecimal.valueOf(order.getQuantity())));
     }
 
     private void seedProducts() {
@@ -86,6 +139,16 @@ public class DataInitializer implements CommandLineRunner {
                         "https://images.unsplash.com/photo-1517336714731-489689fd1ca8?auto=format&fit=crop&w=640&q=80")
         );
 
-        productRepository.saveAll(demoProducts);
+        productRepository.saveAll(demoProducts)
+                .forEach(product -> eventPublisher.publishEvent(new ProductCatalogChangedEvent(product)));
+    }
+
+    /**
+     * When {@link DataInitializer} seeds empty tables.
+     */
+    public enum SeedMode {
+        STARTUP,
+        BACKGROUND,
+        OFF
     }
 }
@@ -0,0 +1,85 @@
+package com.example.ordertrackingsystem.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Thread-bound routing keys for {@link RoutingDataSource}. Read-only transactions go to the replica only while one
+ * was requested, by {@link ReadFromReplica} or {@link #onReplica}. Callers can also force read-only transactions
+ * onto the primary, e.g. when rebuilding a cache right after a write that a lagging replica may not have applied
+ * yet; that wins over a request for the replica. Large scans marked {@link StreamingRead} use the streaming pool,
+ * which reads the primary. Each key has no effect while its pool is not configured.
+ */
+public final class DataSourceRouting {
+
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = ThreadLocal.withInitial(() -> Boolean.FALSE);
+    private static final ThreadLocal<Boolean> REPLICA_REQUESTED = ThreadLocal.withInitial(() -> Boolean.FALSE);
+    private static final ThreadLocal<Boolean> STREAMING_REQUESTED = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private DataSourceRouting() {
+    }
+
+    /**
+     * Runs {@code work} with every transaction it starts routed to the primary.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        boolean previous = PRIMARY_PINNED.get();
+        PRIMARY_PINNED.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            PRIMARY_PINNED.set(previous);
+        }
+    }
+
+    /**
+     * Runs {@code work} with the read-only transactions it starts allowed onto the replica.
+     */
+    public static <T> T onReplica(Supplier<T> work) {
+        boolean previous = requestReplica();
+        try {
+            return work.get();
+        } finally {
+            restoreReplicaRequest(previous);
+        }
+    }
+
+    static boolean isPrimaryPinned() {
+        return PRIMARY_PINNED.get();
+    }
+
+    static boolean isReplicaRequested() {
+        return REPLICA_REQUESTED.get();
+    }
+
+    /**
+     * Requests the replica for the current thread and returns the previous setting for
+     * {@link #restoreReplicaRequest}.
+     */
+    static boolean requestReplica() {
+        boolean previous = REPLICA_REQUESTED.get();
+        REPLICA_REQUESTED.set(Boolean.TRUE);
+        return previous;
+    }
+
+    static void restoreReplicaRequest(boolean previous) {
+        REPLICA_REQUESTED.set(previous);
+    }
+
+    static boolean isStreamingRequested() {
+        return STREAMING_REQUESTED.get();
+    }
+
+    /**
+     * Requests the streaming pool for the current thread and returns the previous setting for
+     * {@link #restoreStreamingRequest}.
+     */
+    static boolean requestStreaming() {
+        boolean previous = STREAMING_REQUESTED.get();
+        STREAMING_REQUESTED.set(Boolean.TRUE);
+        return previous;
+    }
+
+    static void restoreStreamingRequest(boolean previous) {
+        STREAMING_REQUESTED.set(previous);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.ordertrackingsystem.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies {@link ReadFromReplica} and {@link StreamingRead}. Ordered ahead of the transaction interceptor, so the
+ * routing key is in place before the method's transaction acquires its connection.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DataSourceRoutingAspect {
+
+    @Around("@annotation(com.example.ordertrackingsystem.config.ReadFromReplica)")
+    public Object routeToReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean previous = DataSourceRouting.requestReplica();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            DataSourceRouting.restoreReplicaRequest(previous);
+        }
+    }
+
+    @Around("@annotation(com.example.ordertrackingsystem.config.StreamingRead)")
+    public Object routeToStreamingPool(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean previous = DataSourceRouting.requestStreaming();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            DataSourceRouting.restoreStreamingRequest(previous);
+        }
+    }
+}
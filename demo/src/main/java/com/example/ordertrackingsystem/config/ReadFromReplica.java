@@ -0,0 +1,18 @@
+package com.example.ordertrackingsystem.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service method whose read-only transactions may be served by the read replica. Only read-only
+ * transactions are affected; writes, and reads pinned with {@link DataSourceRouting#onPrimary}, stay on the primary.
+ * Applied by {@link DataSourceRoutingAspect} when the method is called through its Spring proxy.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReadFromReplica {
+}
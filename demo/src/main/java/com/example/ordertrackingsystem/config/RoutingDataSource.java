@@ -0,0 +1,52 @@
+package com.example.ordertrackingsystem.config;
+
+import com.example.ordertrackingsystem.service.RecentWrites;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends connections for read-only transactions to the streaming pool while {@link DataSourceRouting} says it was
+ * requested (see {@link StreamingRead}), to the replica while the replica was requested (see
+ * {@link ReadFromReplica}), and everything else to the primary. Spring Data repository methods
+ * called outside such a method are read-only too, but they back logins, seeding and background jobs that need
+ * current data, so they stay on the primary. A user who wrote within the replica's tolerated lag keeps reading
+ * from the primary, so they see their own changes. Must sit behind a lazy connection proxy so the transaction's
+ * read-only flag is known when routing.
+ */
+class RoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+    static final String STREAMING = "streaming";
+
+    private final RecentWrites recentWrites;
+    private final boolean hasReplica;
+    private final boolean hasStreaming;
+
+    RoutingDataSource(RecentWrites recentWrites, boolean hasReplica, boolean hasStreaming) {
+        this.recentWrites = recentWrites;
+        this.hasReplica = hasReplica;
+        this.hasStreaming = hasStreaming;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        // The streaming pool reads the primary, so it also serves scans pinned to the primary.
+        if (hasStreaming && DataSourceRouting.isStreamingRequested()) {
+            return STREAMING;
+        }
+        if (!hasReplica || DataSourceRouting.isPrimaryPinned() || !DataSourceRouting.isReplicaRequested()) {
+            return PRIMARY;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && recentWrites.userWroteRecently(authentication.getName())) {
+            return PRIMARY;
+        }
+        return REPLICA;
+    }
+}
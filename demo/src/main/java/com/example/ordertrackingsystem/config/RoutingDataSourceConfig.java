@@ -0,0 +1,84 @@
+package com.example.ordertrackingsystem.config;
+
+import com.example.ordertrackingsystem.service.RecentWrites;
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.HashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Splits the datasource into pools when a read replica ({@code orders.datasource.replica.jdbc-url}) or the
+ * streaming pool ({@code orders.datasource.streaming.enabled}) is configured. The primary pool keeps using the
+ * {@code spring.datasource.*} settings; the others take Hikari settings from {@code orders.datasource.replica.*}
+ * and {@code orders.datasource.streaming.*}. Read-only transactions marked {@link ReadFromReplica} go to the
+ * replica and those marked {@link StreamingRead} to the streaming pool; everything else (writes, schema
+ * management, lazy loading outside transactions) to the primary.
+ */
+@Configuration
+@ConditionalOnExpression("'${orders.datasource.replica.jdbc-url:}' != '' or '${orders.datasource.streaming.enabled:false}' == 'true'")
+public class RoutingDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(RoutingDataSource.PRIMARY);
+        return dataSource;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "orders.datasource.replica.jdbc-url")
+    @ConfigurationProperties("orders.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(RoutingDataSource.REPLICA);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * Connects to the primary database like the primary pool, adding {@code useCursorFetch=true} to MySQL URLs;
+     * {@code orders.datasource.streaming.jdbc-url} overrides the URL.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "orders.datasource.streaming.enabled", havingValue = "true")
+    @ConfigurationProperties("orders.datasource.streaming")
+    public HikariDataSource streamingDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        String url = properties.determineUrl();
+        if (url != null && url.startsWith("jdbc:mysql:")) {
+            dataSource.setJdbcUrl(url + (url.contains("?") ? "&" : "?") + "useCursorFetch=true");
+        }
+        dataSource.setPoolName(RoutingDataSource.STREAMING);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") ObjectProvider<DataSource> replica,
+                                 @Qualifier("streamingDataSource") ObjectProvider<DataSource> streaming,
+                                 RecentWrites recentWrites) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(RoutingDataSource.PRIMARY, primary);
+        replica.ifAvailable(dataSource -> targets.put(RoutingDataSource.REPLICA, dataSource));
+        streaming.ifAvailable(dataSource -> targets.put(RoutingDataSource.STREAMING, dataSource));
+        RoutingDataSource routing = new RoutingDataSource(recentWrites, targets.containsKey(RoutingDataSource.REPLICA),
+                targets.containsKey(RoutingDataSource.STREAMING));
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -1,8 +1,21 @@
 package com.example.ordertrackingsystem.config;
 
+import com.example.ordertrackingsystem.ratelimit.CredentialRateLimitFilter;
+import com.example.ordertrackingsystem.ratelimit.RateLimitFilter;
+import com.example.ordertrackingsystem.ratelimit.RateLimitProperties;
+import com.example.ordertrackingsystem.ratelimit.RateLimiter;
+import com.example.ordertrackingsystem.service.AuthTokenService;
+import com.example.ordertrackingsystem.service.AuthenticationCache;
+import com.example.ordertrackingsystem.service.DatabaseUserDetailsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -10,12 +23,17 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.factory.PasswordEncoderFactories;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.logout.LogoutFilter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.security.web.context.RequestAttributeSecurityContextRepository;
+import org.springframework.security.web.savedrequest.NullRequestCache;
 
 /**
  * Basic authentication setup with role-based rules for the API endpoints.
  */
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class SecurityConfig {
 
     /**
@@ -26,24 +44,50 @@ public class SecurityConfig {
         return PasswordEncoderFactories.createDelegatingPasswordEncoder();
     }
 
+    /**
+     * Verifies credentials against the database, short-circuiting repeat checks through the authentication cache.
+     */
+    @Bean
+    public AuthenticationProvider authenticationProvider(DatabaseUserDetailsService userDetailsService,
+                                                         PasswordEncoder passwordEncoder,
+                                                         AuthenticationCache authenticationCache) {
+        DaoAuthenticationProvider databaseProvider = new DaoAuthenticationProvider(userDetailsService);
+        databaseProvider.setPasswordEncoder(passwordEncoder);
+        return new CachingAuthenticationProvider(databaseProvider, authenticationCache);
+    }
+
     /**
      * Configures HTTP Basic security along with role-based authorization for each HTTP method.
+     * With {@code security.auth.mode=token} no HTTP session is used: form login issues a signed access token
+     * instead, so any instance behind a load balancer can serve any request. Password checks are rate limited per
+     * client IP before any hashing; all other limits apply per user once the caller is authenticated.
      */
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   RateLimiter rateLimiter,
+                                                   AuthenticationCache authenticationCache,
+                                                   AuthTokenService tokenService,
+                                                   ObjectMapper objectMapper,
+                                                   @Value("${security.auth.mode:session}") String authMode) throws Exception {
+    boolean stateless = "token".equalsIgnoreCase(authMode);
     http
         .csrf(csrf -> csrf.disable())
-        .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.IF_REQUIRED))
+        .sessionManagement(session -> session.sessionCreationPolicy(
+            stateless ? SessionCreationPolicy.STATELESS : SessionCreationPolicy.IF_REQUIRED))
         .authorizeHttpRequests(auth -> auth
+            .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
             .requestMatchers("/error").permitAll()
             .requestMatchers("/login", "/login.html", "/login.css", "/login.js").permitAll()
             .requestMatchers("/register", "/register.html", "/register.css", "/register.js").permitAll()
             .requestMatchers("/favicon.ico", "/assets/**").permitAll()
+            .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+            .requestMatchers("/actuator/**").hasRole("ADMIN")
             .requestMatchers(HttpMethod.POST, "/api/products/**").hasRole("ADMIN")
             .requestMatchers(HttpMethod.PUT, "/api/orders/**").hasRole("ADMIN")
             .requestMatchers(HttpMethod.PATCH, "/api/orders/*/cancel").hasAnyRole("ADMIN", "USER")
             .requestMatchers(HttpMethod.PATCH, "/api/orders/**").hasRole("ADMIN")
             .requestMatchers(HttpMethod.DELETE, "/api/orders/**").hasRole("ADMIN")
+            .requestMatchers(HttpMethod.POST, "/api/orders/batch/delete").hasRole("ADMIN")
             .requestMatchers(HttpMethod.POST, "/api/orders/**").hasAnyRole("ADMIN", "USER")
             .requestMatchers(HttpMethod.GET, "/api/orders/**").hasAnyRole("ADMIN", "USER")
             .requestMatchers(HttpMethod.GET, "/api/products/**").hasAnyRole("ADMIN", "USER")
@@ -64,6 +108,27 @@ public class SecurityConfig {
         )
         .httpBasic(Customizer.withDefaults());
 
+    if (stateless) {
+        http
+            .securityContext(context -> context.securityContextRepository(new RequestAttributeSecurityContextRepository()))
+            .requestCache(cache -> cache.requestCache(new NullRequestCache()))
+            .formLogin(form -> form.successHandler(new TokenLoginSuccessHandler(tokenService, objectMapper)))
+            .logout(logout -> logout
+                .deleteCookies(TokenAuthenticationFilter.TOKEN_COOKIE)
+                .addLogoutHandler((request, response, authentication) -> {
+                    if (authentication != null) {
+                        tokenService.revoke(authentication.getName());
+                    }
+                }))
+            // Ahead of logout, so logging out knows whose tokens to revoke.
+            .addFilterBefore(new TokenAuthenticationFilter(tokenService), LogoutFilter.class);
+    }
+
+    // Password checks are limited per address before they are hashed; everything else is limited after
+    // authentication, so HTTP Basic, session and token callers all get per-user buckets.
+    http.addFilterBefore(new CredentialRateLimitFilter(rateLimiter, authenticationCache), LogoutFilter.class);
+    http.addFilterAfter(new RateLimitFilter(rateLimiter), BasicAuthenticationFilter.class);
+
         return http.build();
     }
 }
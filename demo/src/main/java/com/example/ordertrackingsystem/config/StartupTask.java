@@ -0,0 +1,20 @@
+package com.example.ordertrackingsystem.config;
+
+/**
+ * Work that loads an in-memory structure (an index, a cache, a rollup) from the database once the application is
+ * ready. {@link StartupTasks} runs every task and reports the application ready only after the {@link #inline}
+ * ones have finished.
+ */
+public interface StartupTask {
+
+    void runAtStartup();
+
+    /**
+     * Whether the application needs the task finished before it serves: such tasks run on the startup thread
+     * unless startup tasks run in the background, and hold readiness either way. Tasks that nothing waits for
+     * return {@code false}; they always run in the background and do not affect readiness.
+     */
+    default boolean inline() {
+        return true;
+    }
+}
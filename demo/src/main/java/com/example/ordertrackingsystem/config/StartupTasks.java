@@ -0,0 +1,100 @@
+package com.example.ordertrackingsystem.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Runs the {@link StartupTask}s once the application is ready. By default they run one after another on the
+ * startup thread, so the first request finds every index loaded. With {@code orders.startup.background} they run
+ * on {@code orders.startup.threads} background threads instead, and startup does not wait for them. Tasks that
+ * are not {@linkplain StartupTask#inline inline} always run in the background.
+ *
+ * <p>Either way, this health indicator ({@code startupTasks}) reports {@code OUT_OF_SERVICE} until every inline
+ * task has finished, failed ones included; the {@code prod} profile adds it to the readiness group, so a load balancer
+ * polling {@code /actuator/health/readiness} only sends traffic once the indexes are loaded.
+ */
+@Component
+public class StartupTasks implements HealthIndicator {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTasks.class);
+
+    private final ObjectProvider<StartupTask> tasks;
+    private final boolean background;
+    private final int threads;
+
+    /**
+     * Inline tasks not finished yet; -1 until the application is ready.
+     */
+    private final AtomicInteger pending = new AtomicInteger(-1);
+
+    private volatile long startedAt;
+
+    public StartupTasks(ObjectProvider<StartupTask> tasks,
+                        @Value("${orders.startup.background:false}") boolean background,
+                        @Value("${orders.startup.threads:4}") int threads) {
+        this.tasks = tasks;
+        this.background = background;
+        this.threads = threads;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        List<StartupTask> all = tasks.orderedStream().toList();
+        startedAt = System.nanoTime();
+        pending.set((int) all.stream().filter(StartupTask::inline).count());
+        List<StartupTask> deferred = new ArrayList<>();
+        for (StartupTask task : all) {
+            if (background || !task.inline()) {
+                deferred.add(task);
+            } else {
+                run(task);
+            }
+        }
+        if (deferred.isEmpty()) {
+            return;
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, deferred.size())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "startup-task-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        deferred.forEach(task -> executor.execute(() -> run(task)));
+        executor.shutdown();
+    }
+
+    @Override
+    public Health health() {
+        int left = pending.get();
+        return left == 0 ? Health.up().build() : Health.outOfService().withDetail("pending", Math.max(left, 0)).build();
+    }
+
+    private void run(StartupTask task) {
+        String name = ClassUtils.getUserClass(task).getSimpleName();
+        long started = System.nanoTime();
+        try {
+            task.runAtStartup();
+        } catch (RuntimeException ex) {
+            log.warn("Startup task {} failed", name, ex);
+        }
+        log.debug("Startup task {} took {} ms", name, (System.nanoTime() - started) / 1_000_000);
+        if (task.inline() && pending.decrementAndGet() == 0) {
+            log.info("Startup tasks finished {} ms after the application was ready",
+                    (System.nanoTime() - startedAt) / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.ordertrackingsystem.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service method whose read-only transaction streams a large result. When the streaming pool is
+ * enabled ({@code orders.datasource.streaming.enabled}), its connection comes from that pool, whose MySQL
+ * connections fetch rows through a server-side cursor ({@code useCursorFetch}) in chunks of the query's fetch
+ * size instead of buffering the whole result. Other connections keep client-side prepared statements.
+ * Applied by {@link DataSourceRoutingAspect} when the method is called through its Spring proxy.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface StreamingRead {
+}
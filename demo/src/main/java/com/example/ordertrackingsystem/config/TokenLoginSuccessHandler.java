@@ -0,0 +1,53 @@
+package com.example.ordertrackingsystem.config;
+
+import com.example.ordertrackingsystem.service.AuthTokenService;
+import com.example.ordertrackingsystem.service.AuthTokenService.IssuedToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
+
+/**
+ * Completes a stateless form login by issuing an access token. Browsers get it as an HTTP-only cookie and are
+ * redirected to the storefront; clients that accept JSON also get it in the response body, to send as a bearer
+ * token.
+ */
+public class TokenLoginSuccessHandler implements AuthenticationSuccessHandler {
+
+    private final AuthTokenService tokenService;
+    private final ObjectMapper objectMapper;
+
+    public TokenLoginSuccessHandler(AuthTokenService tokenService, ObjectMapper objectMapper) {
+        this.tokenService = tokenService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response,
+                                        Authentication authentication) throws IOException {
+        IssuedToken issued = tokenService.issue(authentication);
+        ResponseCookie cookie = ResponseCookie.from(TokenAuthenticationFilter.TOKEN_COOKIE, issued.token())
+                .httpOnly(true)
+                .secure(request.isSecure())
+                .sameSite("Lax")
+                .path("/")
+                .maxAge(tokenService.ttl())
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept != null && accept.contains(MediaType.APPLICATION_JSON_VALUE)) {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    Map.of("token", issued.token(), "expiresAt", issued.expiresAt().toString()));
+            return;
+        }
+        response.sendRedirect(request.getContextPath() + "/index.html");
+    }
+}
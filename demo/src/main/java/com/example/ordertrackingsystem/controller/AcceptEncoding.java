@@ -0,0 +1,57 @@
+package com.example.ordertrackingsystem.controller;
+
+import java.util.Locale;
+
+/**
+ * Reads an {@code Accept-Encoding} header the way RFC 9110 defines it, including quality values, so
+ * {@code gzip;q=0} counts as a refusal rather than a match.
+ */
+final class AcceptEncoding {
+
+    private AcceptEncoding() {
+    }
+
+    /**
+     * Returns whether a response may be gzip-encoded for a request carrying {@code header}. An explicit
+     * {@code gzip} (or {@code x-gzip}) entry decides; otherwise a {@code *} entry does.
+     */
+    static boolean acceptsGzip(String header) {
+        if (header == null || header.isBlank()) {
+            return false;
+        }
+        Double gzip = null;
+        Double wildcard = null;
+        for (String entry : header.split(",")) {
+            String[] parts = entry.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = quality(parts);
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = gzip == null ? quality : Math.max(gzip, quality);
+            } else if (coding.equals("*")) {
+                wildcard = quality;
+            }
+        }
+        if (gzip != null) {
+            return gzip > 0;
+        }
+        return wildcard != null && wildcard > 0;
+    }
+
+    /**
+     * Returns the entry's {@code q} parameter, 1 when it has none and 0 when it is malformed.
+     */
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim().toLowerCase(Locale.ROOT);
+            if (parameter.startsWith("q=")) {
+                try {
+                    double quality = Double.parseDouble(parameter.substring(2).trim());
+                    return quality >= 0 && quality <= 1 ? quality : 0;
+                } catch (NumberFormatException ex) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -4,6 +4,8 @@ import com.example.ordertrackingsystem.service.UserAccountService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -28,22 +30,20 @@ public class AuthController {
         return "redirect:/index.html";
     }
 
+    /**
+     * Registers an account. The request thread is released while the password is hashed.
+     */
     @PostMapping("/register")
-    public String register(@RequestParam("email") String email,
-                           @RequestParam("password") String password,
-                           RedirectAttributes redirectAttributes) {
+    public CompletableFuture<String> register(@RequestParam("email") String email,
+                                              @RequestParam("password") String password,
+                                              RedirectAttributes redirectAttributes) {
         try {
-            userAccountService.registerUser(email, password);
-            return "redirect:/login.html?registered=true";
-        } catch (ResponseStatusException ex) {
-            String reason = ex.getReason() != null ? ex.getReason() : "Registration failed.";
-            redirectAttributes.addAttribute("error", true);
-            redirectAttributes.addAttribute("message", encode(reason));
-            return "redirect:/register.html";
+            return userAccountService.registerUser(email, password)
+                    .handle((account, ex) -> ex == null
+                            ? "redirect:/login.html?registered=true"
+                            : registrationFailed(ex instanceof CompletionException ? ex.getCause() : ex, redirectAttributes));
         } catch (Exception ex) {
-            redirectAttributes.addAttribute("error", true);
-            redirectAttributes.addAttribute("message", encode("Registration failed."));
-            return "redirect:/register.html";
+            return CompletableFuture.completedFuture(registrationFailed(ex, redirectAttributes));
         }
     }
 
@@ -52,6 +52,15 @@ public class AuthController {
         return "redirect:/login.html?logout=true";
     }
 
+    private String registrationFailed(Throwable ex, RedirectAttributes redirectAttributes) {
+        String reason = ex instanceof ResponseStatusException statusException && statusException.getReason() != null
+                ? statusException.getReason()
+                : "Registration failed.";
+        redirectAttributes.addAttribute("error", true);
+        redirectAttributes.addAttribute("message", encode(reason));
+        return "redirect:/register.html";
+    }
+
     private String encode(String value) {
         return java.net.URLEncoder.encode(value, StandardCharsets.UTF_8);
     }
@@ -1,14 +1,30 @@
 package com.example.ordertrackingsystem.controller;
 
+import com.example.ordertrackingsystem.idempotency.IdempotentRequestHandler;
 import com.example.ordertrackingsystem.model.Order;
+import com.example.ordertrackingsystem.model.OrderStatus;
+import com.example.ordertrackingsystem.search.OrderSearchHit;
+import com.example.ordertrackingsystem.search.OrderSearchIndex;
+import com.example.ordertrackingsystem.service.BulkResult;
+import com.example.ordertrackingsystem.service.OrderFilter;
+import com.example.ordertrackingsystem.service.OrderPage;
 import com.example.ordertrackingsystem.service.OrderService;
+import com.example.ordertrackingsystem.service.OrderStatistics;
+import com.example.ordertrackingsystem.service.OrderStats;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * REST entry point that exposes CRUD endpoints for orders.
@@ -17,10 +33,26 @@ import org.springframework.web.bind.annotation.*;
 @RequestMapping("/api/orders")
 public class OrderController {
 
+    private static final int MAX_TOP_PRODUCTS = 100;
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final int MAX_SEARCH_LIMIT = 200;
+
     private final OrderService orderService;
+    private final OrderStatusStreamHub streamHub;
+    private final OrderStatistics orderStatistics;
+    private final ObjectMapper objectMapper;
+    private final IdempotentRequestHandler idempotentRequests;
+    private final OrderSearchIndex searchIndex;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderStatusStreamHub streamHub,
+                           OrderStatistics orderStatistics, ObjectMapper objectMapper,
+                           IdempotentRequestHandler idempotentRequests, OrderSearchIndex searchIndex) {
         this.orderService = orderService;
+        this.streamHub = streamHub;
+        this.orderStatistics = orderStatistics;
+        this.objectMapper = objectMapper;
+        this.idempotentRequests = idempotentRequests;
+        this.searchIndex = searchIndex;
     }
 
     private boolean isAdmin(Authentication authentication) {
@@ -28,31 +60,192 @@ public class OrderController {
                 .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
     }
 
+    private String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private OrderFilter toFilter(String status, String createdBy, LocalDateTime from, LocalDateTime to) {
+        String statusLabel = blankToNull(status);
+        return new OrderFilter(statusLabel != null ? OrderStatus.fromLabel(statusLabel) : null,
+                blankToNull(createdBy), from, to);
+    }
+
     /**
      * Creates a new order using the provided request body.
+     * With an {@code Idempotency-Key} header, retries of the same request return the original response.
      */
     @PostMapping
-    public ResponseEntity<Order> createOrder(Authentication authentication, @RequestBody Order order) {
+    public ResponseEntity<?> createOrder(Authentication authentication, @RequestBody Order order,
+                                         @RequestHeader(value = IdempotentRequestHandler.HEADER, required = false)
+                                         String idempotencyKey) {
         String principal = authentication.getName();
         boolean admin = isAdmin(authentication);
 
-        String owner = principal;
-        if (admin && order.getCreatedBy() != null && !order.getCreatedBy().isBlank()) {
-            owner = order.getCreatedBy();
-        }
+        String owner = admin && order.getCreatedBy() != null && !order.getCreatedBy().isBlank()
+                ? order.getCreatedBy()
+                : principal;
 
+        if (idempotencyKey != null) {
+            return idempotentRequests.execute("create-order", principal, idempotencyKey, order, HttpStatus.CREATED,
+                    () -> orderService.createOrder(order, owner));
+        }
         Order createdOrder = orderService.createOrder(order, owner);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdOrder);
     }
 
     /**
-     * Returns all orders currently stored.
+     * Creates every order line of a checkout in one request and one transaction, owned by the caller.
+     * With an {@code Idempotency-Key} header, retries of the same checkout return the original response.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<?> createOrders(Authentication authentication, @RequestBody List<Order> orders,
+                                          @RequestHeader(value = IdempotentRequestHandler.HEADER, required = false)
+                                          String idempotencyKey) {
+        String owner = authentication.getName();
+        if (idempotencyKey != null) {
+            return idempotentRequests.execute("create-orders", owner, idempotencyKey, orders, HttpStatus.CREATED,
+                    () -> orderService.createOrders(orders, owner));
+        }
+        List<Order> createdOrders = orderService.createOrders(orders, owner);
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdOrders);
+    }
+
+    /**
+     * Returns one page of the orders visible to the caller, newest first; archived orders are included with
+     * {@code includeArchived=true}. Pass the returned {@code nextCursor} back as {@code cursor} to fetch the
+     * following page.
      */
     @GetMapping
-    public ResponseEntity<List<Order>> getAllOrders(Authentication authentication) {
+    public ResponseEntity<OrderPage> getOrders(Authentication authentication,
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer size,
+                                               @RequestParam(required = false) String status,
+                                               @RequestParam(required = false) String createdBy,
+                                               @RequestParam(required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                               @RequestParam(required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                               @RequestParam(defaultValue = "false") boolean includeArchived) {
+        try {
+            OrderFilter filter = toFilter(status, createdBy, from, to);
+            OrderPage page = orderService.getOrderPage(authentication.getName(), isAdmin(authentication),
+                    filter, includeArchived, cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Searches orders by customer and product name; every word of {@code q} must match by prefix or with one typo.
+     * Users only find their own orders; archived orders are included with {@code includeArchived=true}.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<OrderSearchHit>> searchOrders(Authentication authentication,
+                                                             @RequestParam("q") String query,
+                                                             @RequestParam(required = false) Integer limit,
+                                                             @RequestParam(defaultValue = "false") boolean includeArchived) {
+        if (query.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        int size = limit == null ? DEFAULT_SEARCH_LIMIT : Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT));
+        return ResponseEntity.ok(searchIndex.search(query, authentication.getName(), isAdmin(authentication),
+                includeArchived, size));
+    }
+
+    /**
+     * Returns order counts and revenue by status, by product and per day or hour over an optional date range,
+     * answered from the in-memory rollup rather than by loading orders.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<OrderStats> getOrderStats(Authentication authentication,
+                                                    @RequestParam(required = false)
+                                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                    @RequestParam(required = false)
+                                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                    @RequestParam(defaultValue = "day") String granularity,
+                                                    @RequestParam(defaultValue = "10") int top) {
+        if (!isAdmin(authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            OrderStats stats = orderStatistics.summarize(from, to, OrderStats.Granularity.fromParameter(granularity),
+                    Math.max(0, Math.min(top, MAX_TOP_PRODUCTS)));
+            return ResponseEntity.ok(stats);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Exports every order visible to the caller as CSV ({@code format=csv}, the default) or NDJSON, oldest first.
+     * Rows are streamed from a database cursor straight to the response, gzipped on the fly when the client
+     * accepts it, and take the same filters as the listing, {@code includeArchived} included.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(Authentication authentication,
+                                                              @RequestParam(defaultValue = "csv") String format,
+                                                              @RequestParam(required = false) String status,
+                                                              @RequestParam(required = false) String createdBy,
+                                                              @RequestParam(required = false)
+                                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                              @RequestParam(required = false)
+                                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                              @RequestParam(defaultValue = "false") boolean includeArchived,
+                                                              @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                                              String acceptEncoding) {
+        OrderExportWriter.Format exportFormat;
+        OrderFilter filter;
+        try {
+            exportFormat = OrderExportWriter.Format.fromParameter(format);
+            filter = toFilter(status, createdBy, from, to);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String username = authentication.getName();
         boolean admin = isAdmin(authentication);
-        List<Order> orders = orderService.getOrdersAccessibleBy(authentication.getName(), admin);
-        return ResponseEntity.ok(orders);
+        boolean gzip = AcceptEncoding.acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = out -> {
+            OrderExportWriter writer = new OrderExportWriter(exportFormat, out, gzip, objectMapper);
+            orderService.exportOrders(username, admin, filter, includeArchived, writer::write);
+            writer.finish();
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("orders." + exportFormat.extension()).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Streams committed order changes as Server-Sent Events. Customers subscribe to one of their orders;
+     * admins may omit {@code orderId} to follow every order. Reconnecting clients resume via Last-Event-ID.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamOrderChanges(Authentication authentication,
+                                                         @RequestParam(required = false) Long orderId,
+                                                         @RequestHeader(value = "Last-Event-ID", required = false)
+                                                         Long lastEventId) {
+        boolean admin = isAdmin(authentication);
+        if (orderId == null) {
+            return admin
+                    ? ResponseEntity.ok(streamHub.subscribeToAll(lastEventId))
+                    : ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            orderService.getOrderForUser(orderId, authentication.getName(), admin);
+            return ResponseEntity.ok(streamHub.subscribeToOrder(orderId, lastEventId));
+        } catch (AccessDeniedException ex) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.notFound().build();
+        }
     }
 
     /**
@@ -71,12 +264,19 @@ public class OrderController {
     }
 
     /**
-     * Replaces all mutable fields on an order with new values.
+     * Replaces all mutable fields on an order with new values. Include the order's {@code version}
+     * to be rejected with 409 if someone else changed it in the meantime.
      */
     @PutMapping("/{id}")
     public ResponseEntity<Order> updateOrder(@PathVariable Long id, @RequestBody Order updatedOrder) {
-        Order order = orderService.updateOrder(id, updatedOrder);
-        return ResponseEntity.ok(order);
+        try {
+            Order order = orderService.updateOrder(id, updatedOrder);
+            return ResponseEntity.ok(order);
+        } catch (IllegalStateException ex) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.notFound().build();
+        }
     }
 
     /**
@@ -89,16 +289,50 @@ public class OrderController {
     }
 
     /**
-     * Partially updates an order by changing only the status.
+     * Partially updates an order by changing only the status. Answers 409 when the transition is not
+     * allowed or when the optional {@code version} no longer matches.
      */
     @PatchMapping("/{id}/status")
-    public ResponseEntity<Order> updateOrderStatus(@PathVariable Long id, @RequestBody Map<String, String> payload) {
-        String status = payload.get("status");
-        if (status == null || status.isBlank()) {
+    public ResponseEntity<Order> updateOrderStatus(@PathVariable Long id, @RequestBody StatusUpdateRequest payload) {
+        if (payload.status() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            Order order = orderService.updateOrderStatus(id, payload.status(), payload.version());
+            return ResponseEntity.ok(order);
+        } catch (IllegalStateException ex) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Moves the listed orders, or those matching {@code filter}, to one status with set-based updates.
+     * Returns an outcome per order; orders whose transition is not allowed are reported and left alone.
+     */
+    @PatchMapping("/batch/status")
+    public ResponseEntity<BulkResult> updateOrderStatuses(@RequestBody BulkStatusRequest payload) {
+        if (payload.status() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(orderService.updateOrderStatuses(payload.ids(), payload.filter(), payload.status()));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Deletes the listed orders, or those matching {@code filter}, and returns an outcome per order.
+     */
+    @PostMapping("/batch/delete")
+    public ResponseEntity<BulkResult> deleteOrders(@RequestBody BulkDeleteRequest payload) {
+        try {
+            return ResponseEntity.ok(orderService.deleteOrders(payload.ids(), payload.filter()));
+        } catch (IllegalArgumentException ex) {
             return ResponseEntity.badRequest().build();
         }
-        Order order = orderService.updateOrderStatus(id, status);
-        return ResponseEntity.ok(order);
     }
 
     /**
@@ -117,4 +351,23 @@ public class OrderController {
             return ResponseEntity.notFound().build();
         }
     }
+
+    /**
+     * Body of a status change; {@code version} is optional.
+     */
+    public record StatusUpdateRequest(OrderStatus status, Long version) {
+    }
+
+    /**
+     * Body of a bulk status change: either {@code ids} (at most {@value OrderService#MAX_BULK_SIZE}) or a
+     * {@code filter}.
+     */
+    public record BulkStatusRequest(List<Long> ids, OrderFilter filter, OrderStatus status) {
+    }
+
+    /**
+     * Body of a bulk delete: either {@code ids} or a {@code filter}.
+     */
+    public record BulkDeleteRequest(List<Long> ids, OrderFilter filter) {
+    }
 }
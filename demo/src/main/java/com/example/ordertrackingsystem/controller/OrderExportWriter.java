@@ -0,0 +1,165 @@
+package com.example.ordertrackingsystem.controller;
+
+import com.example.ordertrackingsystem.model.Order;
+import com.example.ordertrackingsystem.model.OrderStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.http.MediaType;
+
+/**
+ * Writes exported orders one row at a time to a response stream, optionally gzipped, so an export of any
+ * size only ever holds a single row and the output buffers in memory.
+ */
+class OrderExportWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "id,customerName,productId,productName,quantity,price,totalAmount,status,orderDate,createdBy,version";
+
+    /**
+     * Supported export encodings.
+     */
+    enum Format {
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv"),
+        NDJSON(new MediaType("application", "x-ndjson", StandardCharsets.UTF_8), "ndjson");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        MediaType mediaType() {
+            return mediaType;
+        }
+
+        String extension() {
+            return extension;
+        }
+
+        static Format fromParameter(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final Format format;
+    private final ObjectMapper objectMapper;
+    private final GZIPOutputStream gzip;
+    private final Writer writer;
+
+    OrderExportWriter(Format format, OutputStream out, boolean gzipped, ObjectMapper objectMapper) throws IOException {
+        this.format = format;
+        this.objectMapper = objectMapper;
+        this.gzip = gzipped ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+        this.writer = new BufferedWriter(new OutputStreamWriter(gzipped ? gzip : out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * Appends one order; I/O failures (typically a disconnected client) are rethrown unchecked so they abort
+     * the database cursor that is feeding this writer.
+     */
+    void write(Order order) {
+        try {
+            if (format == Format.NDJSON) {
+                writer.write(objectMapper.writeValueAsString(ExportRow.of(order)));
+            } else {
+                writeCsvRow(order);
+            }
+            writer.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Flushes buffered rows and writes the gzip trailer; the response stream itself is left open for the container.
+     */
+    void finish() throws IOException {
+        writer.flush();
+        if (gzip != null) {
+            gzip.finish();
+        }
+    }
+
+    private void writeCsvRow(Order order) throws IOException {
+        writer.write(String.valueOf(order.getId()));
+        writer.write(',');
+        writeCsvField(order.getCustomerName());
+        writer.write(',');
+        writer.write(order.getProductId() != null ? order.getProductId().toString() : "");
+        writer.write(',');
+        writeCsvField(order.getProductName());
+        writer.write(',');
+        writer.write(Integer.toString(order.getQuantity()));
+        writer.write(',');
+        writer.write(Double.toString(order.getPrice()));
+        writer.write(',');
+        writer.write(order.getTotalAmount() != null ? order.getTotalAmount().toPlainString() : "");
+        writer.write(',');
+        writeCsvField(order.getStatus() != null ? order.getStatus().label() : null);
+        writer.write(',');
+        writeCsvField(order.getOrderDate() != null ? order.getOrderDate().toString() : null);
+        writer.write(',');
+        writeCsvField(order.getCreatedBy());
+        writer.write(',');
+        writer.write(order.getVersion() != null ? order.getVersion().toString() : "");
+    }
+
+    /**
+     * Writes a text field per RFC 4180, quoting it only when it contains a separator, quote or line break. Text that
+     * a spreadsheet would evaluate as a formula (leading {@code =}, {@code +}, {@code -}, {@code @}, tab or carriage
+     * return) is prefixed with {@code '} so customer-supplied names open as plain text.
+     */
+    private void writeCsvField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (startsFormula(value)) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static boolean startsFormula(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        char first = value.charAt(0);
+        return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+    }
+
+    /**
+     * Flat NDJSON row: the order's summary fields only, so serializing it never touches the lazily loaded lines.
+     */
+    private record ExportRow(Long id, String customerName, Long productId, String productName, int quantity,
+                             double price, BigDecimal totalAmount, OrderStatus status, LocalDateTime orderDate,
+                             String createdBy, Long version) {
+
+        static ExportRow of(Order order) {
+            return new ExportRow(order.getId(), order.getCustomerName(), order.getProductId(), order.getProductName(),
+                    order.getQuantity(), order.getPrice(), order.getTotalAmount(), order.getStatus(),
+                    order.getOrderDate(), order.getCreatedBy(), order.getVersion());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.ordertrackingsystem.controller;
+
+import com.example.ordertrackingsystem.journal.JournalEntry;
+import com.example.ordertrackingsystem.journal.OrderJournal;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Admin endpoints that answer audit questions from the {@link OrderJournal}; only present when the journal is
+ * enabled.
+ */
+@RestController
+@RequestMapping("/api/orders")
+@ConditionalOnProperty(name = "orders.journal.directory")
+public class OrderHistoryController {
+
+    private final OrderJournal orderJournal;
+
+    public OrderHistoryController(OrderJournal orderJournal) {
+        this.orderJournal = orderJournal;
+    }
+
+    /**
+     * Returns every recorded change of an order, oldest first, including deleted and archived orders.
+     */
+    @GetMapping("/{id}/history")
+    public ResponseEntity<List<JournalEntry>> getHistory(Authentication authentication, @PathVariable Long id) {
+        if (!isAdmin(authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        List<JournalEntry> history = orderJournal.history(id);
+        return history.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(history);
+    }
+
+    /**
+     * Returns the change that gave an order its state at {@code at}; its {@code status} is {@code null} if the
+     * order had been deleted by then.
+     */
+    @GetMapping("/{id}/status-at")
+    public ResponseEntity<JournalEntry> getStatusAt(Authentication authentication, @PathVariable Long id,
+                                                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at) {
+        if (!isAdmin(authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return orderJournal.entryAt(id, at)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private boolean isAdmin(Authentication authentication) {
+        return authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+}
@@ -0,0 +1,378 @@
+package com.example.ordertrackingsystem.controller;
+
+import com.example.ordertrackingsystem.model.Order;
+import com.example.ordertrackingsystem.model.OrderStatus;
+import com.example.ordertrackingsystem.service.OrderChangedEvent;
+import com.example.ordertrackingsystem.service.OrdersChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Fans committed order changes out to Server-Sent Events subscribers. Connections are held by the
+ * async servlet machinery, so an idle subscriber costs a socket and a small object, not a thread.
+ * Each subscriber has a bounded queue drained by a small sender pool, so a slow client only delays itself;
+ * one that falls {@code orders.stream.queue-capacity} events behind is disconnected.
+ * Recent events are kept in a bounded ring so reconnecting clients can resume from Last-Event-ID.
+ */
+@Component
+public class OrderStatusStreamHub {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStatusStreamHub.class);
+    private static final String EVENT_NAME = "order-status";
+
+    private final long timeoutMillis;
+    private final int maxSubscribers;
+    private final int queueCapacity;
+    private final EventRing ring;
+    private final Set<Subscriber> allOrdersSubscribers = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Subscriber>> orderSubscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    /**
+     * Single dispatcher keeps every subscriber's queue in commit order; it never writes to a socket. Event ids are
+     * assigned and subscribers join on this thread, so ids reach subscribers in increasing order and a replay
+     * never races a live event.
+     */
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-stream-dispatch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Performs the blocking socket writes; at most one task per subscriber runs at a time.
+     */
+    private final ExecutorService senders;
+
+    public OrderStatusStreamHub(@Value("${orders.stream.timeout:PT30M}") Duration timeout,
+                                @Value("${orders.stream.max-subscribers:50000}") int maxSubscribers,
+                                @Value("${orders.stream.replay-capacity:1024}") int replayCapacity,
+                                @Value("${orders.stream.queue-capacity:256}") int queueCapacity,
+                                @Value("${orders.stream.send-threads:4}") int sendThreads,
+                                MeterRegistry meterRegistry) {
+        this.timeoutMillis = timeout.toMillis();
+        this.maxSubscribers = maxSubscribers;
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.ring = new EventRing(replayCapacity);
+        AtomicInteger senderNumber = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(Math.max(1, sendThreads), runnable -> {
+            Thread thread = new Thread(runnable, "order-stream-send-" + senderNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("orders.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream of changes to a single order, replaying anything after {@code lastEventId}.
+     */
+    public SseEmitter subscribeToOrder(long orderId, Long lastEventId) {
+        Subscriber subscriber = register(orderId);
+        join(subscriber, lastEventId, () ->
+                // compute() runs under the map's lock for this key, like the removal in remove(), so a subscriber
+                // is never added to a set that is being dropped for being empty.
+                orderSubscribers.compute(orderId, (id, subscribers) -> {
+                    Set<Subscriber> target = subscribers != null
+                            ? subscribers : ConcurrentHashMap.<Subscriber>newKeySet();
+                    target.add(subscriber);
+                    return target;
+                }));
+        return subscriber.emitter;
+    }
+
+    /**
+     * Opens a stream of changes to every order, replaying anything after {@code lastEventId}.
+     */
+    public SseEmitter subscribeToAll(Long lastEventId) {
+        Subscriber subscriber = register(null);
+        join(subscriber, lastEventId, () -> allOrdersSubscribers.add(subscriber));
+        return subscriber.emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (event.orderId() == null) {
+            return;
+        }
+        Change change = Change.of(event);
+        dispatcher.execute(() -> deliver(ring.append(change)));
+    }
+
+    /**
+     * Hands the whole chunk to the dispatcher as one task, which numbers and delivers its changes in order.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrdersChanged(OrdersChangedEvent event) {
+        List<Change> changes = new ArrayList<>(event.changes().size());
+        for (OrderChangedEvent change : event.changes()) {
+            if (change.orderId() != null) {
+                changes.add(Change.of(change));
+            }
+        }
+        if (!changes.isEmpty()) {
+            dispatcher.execute(() -> changes.forEach(change -> deliver(ring.append(change))));
+        }
+    }
+
+    /**
+     * Sends an SSE comment to every idle subscriber so proxies keep idle connections open and dead ones are
+     * detected; subscribers with queued events get those instead.
+     */
+    @Scheduled(fixedDelayString = "${orders.stream.heartbeat:PT15S}")
+    public void sendHeartbeats() {
+        dispatcher.execute(() -> {
+            allOrdersSubscribers.forEach(this::heartbeat);
+            orderSubscribers.values().forEach(subscribers -> subscribers.forEach(this::heartbeat));
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        allOrdersSubscribers.forEach(subscriber -> subscriber.emitter.complete());
+        orderSubscribers.values().forEach(subscribers -> subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    private Subscriber register(Long orderId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many open order streams.");
+        }
+        Subscriber subscriber = new Subscriber(newEmitter(timeoutMillis), orderId, queueCapacity);
+        subscriber.emitter.onCompletion(() -> remove(subscriber));
+        subscriber.emitter.onTimeout(() -> remove(subscriber));
+        subscriber.emitter.onError(error -> remove(subscriber));
+        return subscriber;
+    }
+
+    SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    /**
+     * Adds the subscriber to its set and queues the updates it missed in one dispatcher task, so no live update
+     * is delivered between the two. A subscriber whose connection closed before the task ran is removed again.
+     */
+    private void join(Subscriber subscriber, Long lastEventId, Runnable add) {
+        dispatcher.execute(() -> {
+            add.run();
+            if (subscriber.closed) {
+                remove(subscriber);
+                return;
+            }
+            if (lastEventId != null) {
+                ring.since(lastEventId).stream()
+                        .filter(subscriber::accepts)
+                        .forEach(update -> sendUpdate(subscriber, update));
+            }
+        });
+    }
+
+    private void deliver(OrderStatusUpdate update) {
+        allOrdersSubscribers.forEach(subscriber -> sendUpdate(subscriber, update));
+        Set<Subscriber> subscribers = orderSubscribers.get(update.orderId());
+        if (subscribers != null) {
+            subscribers.forEach(subscriber -> sendUpdate(subscriber, update));
+        }
+    }
+
+    /**
+     * Queues an update unless the subscriber already received it through replay.
+     */
+    private void sendUpdate(Subscriber subscriber, OrderStatusUpdate update) {
+        if (update.eventId() <= subscriber.lastDeliveredId) {
+            return;
+        }
+        subscriber.lastDeliveredId = update.eventId();
+        enqueue(subscriber, toSse(update));
+    }
+
+    private void heartbeat(Subscriber subscriber) {
+        if (subscriber.pending.isEmpty()) {
+            enqueue(subscriber, SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    /**
+     * Hands an event to the subscriber's queue and makes sure a sender drains it. A full queue means the client
+     * cannot keep up; it is disconnected and can resume from its Last-Event-ID.
+     */
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (!subscriber.pending.offer(event)) {
+            drop(subscriber, new IllegalStateException("Order stream subscriber is too slow"));
+            return;
+        }
+        scheduleDrain(subscriber);
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        SseEmitter.SseEventBuilder event;
+        while ((event = subscriber.pending.poll()) != null) {
+            try {
+                subscriber.emitter.send(event);
+            } catch (IOException | IllegalStateException ex) {
+                drop(subscriber, ex);
+                return;
+            }
+        }
+        subscriber.draining.set(false);
+        // An event queued after the last poll but before the flag was cleared found a drain still running.
+        if (!subscriber.pending.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private void drop(Subscriber subscriber, Exception cause) {
+        log.debug("Dropping order stream subscriber: {}", cause.getMessage());
+        remove(subscriber);
+        subscriber.pending.clear();
+        subscriber.emitter.completeWithError(cause);
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscriber.closed = true;
+        boolean[] removed = {false};
+        if (subscriber.orderId == null) {
+            removed[0] = allOrdersSubscribers.remove(subscriber);
+        } else {
+            orderSubscribers.computeIfPresent(subscriber.orderId, (id, subscribers) -> {
+                removed[0] = subscribers.remove(subscriber);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+        }
+        if (removed[0]) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(OrderStatusUpdate update) {
+        return SseEmitter.event()
+                .id(Long.toString(update.eventId()))
+                .name(EVENT_NAME)
+                .data(update);
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Long orderId;
+        private final Queue<SseEmitter.SseEventBuilder> pending;
+
+        /**
+         * Set while a sender task owns the emitter, so writes to one subscriber never overlap or reorder.
+         */
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        /**
+         * Highest event id queued for this subscriber; only touched on the dispatcher thread.
+         */
+        private long lastDeliveredId;
+
+        /**
+         * Set once the subscriber is removed, possibly before the dispatcher has added it.
+         */
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter, Long orderId, int queueCapacity) {
+            this.emitter = emitter;
+            this.orderId = orderId;
+            this.pending = new ArrayBlockingQueue<>(queueCapacity);
+        }
+
+        boolean accepts(OrderStatusUpdate update) {
+            return orderId == null || orderId.equals(update.orderId());
+        }
+    }
+
+    /**
+     * Payload pushed to subscribers for each committed change.
+     */
+    public record OrderStatusUpdate(long eventId, Long orderId, OrderChangedEvent.ChangeType type, OrderStatus status,
+                                    Long version, Instant occurredAt) {
+    }
+
+    /**
+     * A committed change as captured by the listener, before the dispatcher numbers it.
+     */
+    private record Change(Long orderId, OrderChangedEvent.ChangeType type, OrderStatus status, Long version,
+                          Instant occurredAt) {
+
+        static Change of(OrderChangedEvent event) {
+            Order order = event.order();
+            return new Change(event.orderId(), event.type(), order != null ? order.getStatus() : null,
+                    order != null ? order.getVersion() : null, Instant.now());
+        }
+    }
+
+    /**
+     * Fixed-size ring of the most recent updates, numbered with a monotonically increasing event id.
+     */
+    static final class EventRing {
+
+        private final OrderStatusUpdate[] slots;
+        private final long firstEventId;
+        private long nextEventId;
+
+        /**
+         * Ids start from the wall clock so they keep increasing across restarts and a stale
+         * Last-Event-ID from a previous process never hides newer events.
+         */
+        EventRing(int capacity) {
+            this.slots = new OrderStatusUpdate[Math.max(1, capacity)];
+            this.firstEventId = System.currentTimeMillis() * 1000;
+            this.nextEventId = firstEventId;
+        }
+
+        synchronized OrderStatusUpdate append(Change change) {
+            long eventId = nextEventId++;
+            OrderStatusUpdate update = new OrderStatusUpdate(eventId, change.orderId(), change.type(), change.status(),
+                    change.version(), change.occurredAt());
+            slots[(int) (eventId % slots.length)] = update;
+            return update;
+        }
+
+        /**
+         * Returns the retained updates newer than {@code lastEventId}, oldest first.
+         */
+        synchronized List<OrderStatusUpdate> since(long lastEventId) {
+            long oldestRetained = Math.max(firstEventId, nextEventId - slots.length);
+            List<OrderStatusUpdate> missed = new ArrayList<>();
+            for (long eventId = Math.max(lastEventId + 1, oldestRetained); eventId < nextEventId; eventId++) {
+                missed.add(slots[(int) (eventId % slots.length)]);
+            }
+            return missed;
+        }
+    }
+}
@@ -1,15 +1,21 @@
 package com.example.ordertrackingsystem.controller;
 
+import com.example.ordertrackingsystem.config.DataSourceRouting;
+import com.example.ordertrackingsystem.controller.TrackingResponseCache.TrackingSnapshot;
 import com.example.ordertrackingsystem.model.Order;
 import com.example.ordertrackingsystem.service.OrderService;
+import com.example.ordertrackingsystem.service.RecentWrites;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * Provides a lightweight public endpoint that surfaces read-only order tracking details.
@@ -20,13 +26,22 @@ public class OrderTrackingController {
 
     private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
     private final OrderService orderService;
+    private final TrackingResponseCache trackingResponseCache;
+    private final RecentWrites recentWrites;
 
-    public OrderTrackingController(OrderService orderService) {
+    public OrderTrackingController(OrderService orderService, TrackingResponseCache trackingResponseCache,
+                                   RecentWrites recentWrites) {
         this.orderService = orderService;
+        this.trackingResponseCache = trackingResponseCache;
+        this.recentWrites = recentWrites;
     }
 
+    /**
+     * Returns the tracking view of an order, answering 304 when the client's ETag or
+     * Last-Modified validator still matches the cached response.
+     */
     @GetMapping("/{orderId}")
-    public ResponseEntity<OrderTrackingResponse> trackOrder(@PathVariable String orderId) {
+    public ResponseEntity<OrderTrackingResponse> trackOrder(@PathVariable String orderId, WebRequest request) {
         Long numericId;
         try {
             numericId = Long.valueOf(orderId);
@@ -35,20 +50,44 @@ public class OrderTrackingController {
         }
 
         try {
-            Order order = orderService.getOrderById(numericId);
-            return ResponseEntity.ok(mapToResponse(order));
+            TrackingSnapshot snapshot = trackingResponseCache.get(numericId, this::loadTracking);
+            Instant lastModified = snapshot.lastModifiedAt(Instant.now());
+            if (request.checkNotModified(snapshot.etag(), lastModified != null ? lastModified.toEpochMilli() : -1)) {
+                return null;
+            }
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .eTag(snapshot.etag());
+            if (lastModified != null) {
+                response.lastModified(lastModified);
+            }
+            return response.body(snapshot.response());
         } catch (IllegalArgumentException ex) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
     }
 
-    private OrderTrackingResponse mapToResponse(Order order) {
+    /**
+     * Loads an order on a cache miss. An order written within the replica's tolerated lag is read from the
+     * primary, since caching a replica's older copy would pin it until the entry expires.
+     */
+    private Order loadTracking(long orderId) {
+        if (recentWrites.orderChangedRecently(orderId)) {
+            return DataSourceRouting.onPrimary(() -> orderService.getOrderById(orderId));
+        }
+        return orderService.getOrderById(orderId);
+    }
+
+    /**
+     * Builds the public tracking view of an order. Package-private so the JMH benchmarks can measure it.
+     */
+    static OrderTrackingResponse mapToResponse(Order order) {
         LocalDateTime orderDate = order.getOrderDate();
         LocalDateTime estimatedDelivery = orderDate != null ? orderDate.plusDays(5) : null;
         return new OrderTrackingResponse(
                 order.getId() != null ? order.getId().toString() : null,
                 order.getCustomerName(),
-                order.getStatus(),
+                order.getStatus() != null ? order.getStatus().label() : null,
                 estimatedDelivery != null ? ISO_FORMATTER.format(estimatedDelivery) : null
         );
     }
@@ -0,0 +1,128 @@
+package com.example.ordertrackingsystem.controller;
+
+import com.example.ordertrackingsystem.cluster.CacheInvalidation;
+import com.example.ordertrackingsystem.config.DataSourceRouting;
+import com.example.ordertrackingsystem.config.StartupTask;
+import com.example.ordertrackingsystem.model.Product;
+import com.example.ordertrackingsystem.service.ProductCatalogChangedEvent;
+import com.example.ordertrackingsystem.service.ProductService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Holds the product catalog as pre-serialized (and pre-gzipped) JSON so storefront page loads
+ * neither query the database nor re-serialize the catalog. The snapshot is rebuilt after each
+ * catalog write commits.
+ */
+@Component
+public class ProductCatalogCache implements StartupTask {
+
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private volatile CatalogSnapshot snapshot;
+
+    public ProductCatalogCache(ProductService productService, ObjectMapper objectMapper) {
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns the current snapshot, building it on first use.
+     */
+    public CatalogSnapshot snapshot() {
+        CatalogSnapshot current = snapshot;
+        return current != null ? current : rebuild();
+    }
+
+    /**
+     * Warms the snapshot once startup tasks (including seeding, which bypasses the service) have run.
+     */
+    @Override
+    public void runAtStartup() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(ProductCatalogChangedEvent event) {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the snapshot after another instance changed the catalog.
+     */
+    @EventListener
+    public void onRemoteInvalidation(CacheInvalidation invalidation) {
+        if (invalidation.region() == CacheInvalidation.Region.CATALOG) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Serializes the catalog into a fresh snapshot and publishes it. Reads from the primary, since a rebuild
+     * usually follows a write that a replica may not have applied yet.
+     */
+    public synchronized CatalogSnapshot rebuild() {
+        List<Product> products = List.copyOf(DataSourceRouting.onPrimary(productService::getAllProducts));
+        CatalogSnapshot rebuilt = new CatalogSnapshot(
+                view(products),
+                view(products.stream().filter(Product::isFeatured).toList()),
+                view(products.stream().filter(product -> !product.isFeatured()).toList()));
+        snapshot = rebuilt;
+        return rebuilt;
+    }
+
+    /**
+     * Serializes an arbitrary slice of the catalog, for paginated requests.
+     */
+    public byte[] serialize(List<Product> products) {
+        try {
+            return objectMapper.writeValueAsBytes(products);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unable to serialize products.", ex);
+        }
+    }
+
+    private CatalogView view(List<Product> products) {
+        byte[] json = serialize(products);
+        String hash = DigestUtils.md5DigestAsHex(json);
+        return new CatalogView(products, json, gzip(json), hash);
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(json);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Immutable catalog state split into the views the API serves.
+     */
+    public record CatalogSnapshot(CatalogView all, CatalogView featured, CatalogView notFeatured) {
+
+        public CatalogView select(Boolean featuredFilter) {
+            if (featuredFilter == null) {
+                return all;
+            }
+            return featuredFilter ? featured : notFeatured;
+        }
+    }
+
+    /**
+     * One filtered view of the catalog with its serialized forms and a content hash used for ETags.
+     */
+    public record CatalogView(List<Product> products, byte[] json, byte[] gzipJson, String contentHash) {
+    }
+}
@@ -1,14 +1,22 @@
 package com.example.ordertrackingsystem.controller;
 
+import com.example.ordertrackingsystem.controller.ProductCatalogCache.CatalogView;
 import com.example.ordertrackingsystem.model.Product;
+import com.example.ordertrackingsystem.search.ProductSearchIndex;
 import com.example.ordertrackingsystem.service.ProductService;
 import java.util.List;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * Exposes endpoints for listing and creating products.
@@ -17,15 +25,78 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/products")
 public class ProductController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+
     private final ProductService productService;
+    private final ProductCatalogCache catalogCache;
+    private final ProductSearchIndex searchIndex;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductCatalogCache catalogCache,
+                             ProductSearchIndex searchIndex) {
         this.productService = productService;
+        this.catalogCache = catalogCache;
+        this.searchIndex = searchIndex;
     }
 
+    /**
+     * Serves the catalog from the precomputed snapshot, optionally filtered by {@code featured}
+     * and paginated with {@code page}/{@code size}. Unchanged catalogs are answered with 304.
+     */
     @GetMapping
-    public ResponseEntity<List<Product>> getProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<byte[]> getProducts(@RequestParam(required = false) Boolean featured,
+                                              @RequestParam(required = false) Integer page,
+                                              @RequestParam(required = false) Integer size,
+                                              @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                              String acceptEncoding,
+                                              WebRequest request) {
+        CatalogView view = catalogCache.snapshot().select(featured);
+
+        if (page == null && size == null) {
+            boolean gzip = AcceptEncoding.acceptsGzip(acceptEncoding);
+            String etag = "\"" + view.contentHash() + (gzip ? "-gz" : "") + "\"";
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .cacheControl(CacheControl.noCache())
+                    .eTag(etag)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .header("X-Total-Count", Integer.toString(view.products().size()));
+            return gzip
+                    ? response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(view.gzipJson())
+                    : response.body(view.json());
+        }
+
+        int pageNumber = page == null ? 0 : Math.max(0, page);
+        int pageSize = size == null ? MAX_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String etag = "\"%s-p%d-s%d\"".formatted(view.contentHash(), pageNumber, pageSize);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        List<Product> products = view.products();
+        int from = (int) Math.min((long) pageNumber * pageSize, products.size());
+        int to = Math.min(from + pageSize, products.size());
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag)
+                .header("X-Total-Count", Integer.toString(products.size()))
+                .body(catalogCache.serialize(products.subList(from, to)));
+    }
+
+    /**
+     * Searches product names and descriptions; every word of {@code q} must match by prefix or with one typo.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<Product>> searchProducts(@RequestParam("q") String query,
+                                                        @RequestParam(required = false) Integer limit) {
+        if (query.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        int size = limit == null ? DEFAULT_SEARCH_LIMIT : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok(searchIndex.search(query, size));
     }
 
     @PostMapping
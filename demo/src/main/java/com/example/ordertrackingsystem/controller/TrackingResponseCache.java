@@ -0,0 +1,144 @@
+package com.example.ordertrackingsystem.controller;
+
+import com.example.ordertrackingsystem.cache.ExpiringLruCache;
+import com.example.ordertrackingsystem.cluster.CacheInvalidation;
+import com.example.ordertrackingsystem.controller.OrderTrackingController.OrderTrackingResponse;
+import com.example.ordertrackingsystem.model.Order;
+import com.example.ordertrackingsystem.service.OrderChangedEvent;
+import com.example.ordertrackingsystem.service.OrdersChangedEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongFunction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Keeps ready-to-send tracking responses, with their validators, for recently requested orders.
+ * Entries are evicted as soon as a write to the order commits.
+ */
+@Component
+public class TrackingResponseCache {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final ExpiringLruCache<Long, TrackingSnapshot> cache;
+
+    /**
+     * Eviction counters, one per stripe of order ids. A load that overlapped an eviction in its stripe is not
+     * cached, so a reader holding pre-commit data can never reinstate a stale entry, while writes to other orders
+     * rarely cost a load its cache slot.
+     */
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public TrackingResponseCache(@Value("${tracking.cache.max-entries:50000}") int maxEntries,
+                                 @Value("${tracking.cache.ttl:PT10M}") Duration ttl,
+                                 MeterRegistry meterRegistry) {
+        this.cache = new ExpiringLruCache<>(maxEntries, ttl);
+        FunctionCounter.builder("tracking.cache.requests", cache, ExpiringLruCache::hitCount)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("tracking.cache.requests", cache, ExpiringLruCache::missCount)
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the cached snapshot for {@code orderId}, building it with {@code loader} on a miss.
+     */
+    public TrackingSnapshot get(long orderId, LongFunction<Order> loader) {
+        TrackingSnapshot snapshot = cache.get(orderId);
+        if (snapshot != null) {
+            return snapshot;
+        }
+
+        int stripe = stripe(orderId);
+        long observedGeneration = generations.get(stripe);
+        snapshot = TrackingSnapshot.of(loader.apply(orderId));
+        if (generations.get(stripe) == observedGeneration) {
+            cache.put(orderId, snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Drops the cached response for {@code orderId}.
+     */
+    public void evict(long orderId) {
+        generations.incrementAndGet(stripe(orderId));
+        cache.invalidate(orderId);
+    }
+
+    private static int stripe(long orderId) {
+        return Long.hashCode(orderId) & (GENERATION_STRIPES - 1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (event.orderId() != null) {
+            evict(event.orderId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrdersChanged(OrdersChangedEvent event) {
+        event.changes().forEach(this::onOrderChanged);
+    }
+
+    /**
+     * Evicts orders changed on another instance.
+     */
+    @EventListener
+    public void onRemoteInvalidation(CacheInvalidation invalidation) {
+        if (invalidation.region() == CacheInvalidation.Region.ORDER) {
+            evict(Long.parseLong(invalidation.key()));
+        }
+    }
+
+    /**
+     * A tracking response together with validators taken from the order itself: a strong ETag from its id and
+     * version, and the time it was last written, or {@code null} when that is unknown.
+     */
+    public record TrackingSnapshot(OrderTrackingResponse response, String etag, Instant lastModified) {
+
+        static TrackingSnapshot of(Order order) {
+            OrderTrackingResponse response = OrderTrackingController.mapToResponse(order);
+            Instant lastModified = order.getUpdatedAt() != null
+                    ? order.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant()
+                    : null;
+            return new TrackingSnapshot(response, etag(order, response), lastModified);
+        }
+
+        /**
+         * Last-Modified to send at {@code now}. HTTP dates have one-second resolution, so a change less than a
+         * second old is not announced: another write in the same second would otherwise look unmodified to
+         * If-Modified-Since. Such responses are validated by ETag alone.
+         */
+        public Instant lastModifiedAt(Instant now) {
+            if (lastModified == null || lastModified.isAfter(now.minusSeconds(1))) {
+                return null;
+            }
+            return lastModified.truncatedTo(ChronoUnit.SECONDS);
+        }
+
+        private static String etag(Order order, OrderTrackingResponse response) {
+            if (order.getVersion() != null) {
+                return "\"" + order.getId() + "-" + order.getVersion() + "\"";
+            }
+            String fingerprint = String.join("\u0000",
+                    String.valueOf(response.orderId()),
+                    String.valueOf(response.customerName()),
+                    String.valueOf(response.status()),
+                    String.valueOf(response.estimatedDelivery()));
+            return "\"" + DigestUtils.md5DigestAsHex(fingerprint.getBytes(StandardCharsets.UTF_8)) + "\"";
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.ordertrackingsystem.idempotency;
+
+import com.example.ordertrackingsystem.model.IdempotencyRecord;
+import com.example.ordertrackingsystem.repository.IdempotencyRecordRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Store shared by every node through the {@code idempotency_keys} table. The primary key makes claims atomic:
+ * the first insert wins and concurrent claimers see its row. A claim left unfinished for longer than
+ * {@code lease} (its node died mid-request) may be taken over. Expired rows are purged periodically.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.idempotency.store", havingValue = "database")
+public class DatabaseIdempotencyStore implements IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseIdempotencyStore.class);
+
+    private final IdempotencyRecordRepository repository;
+    private final Duration ttl;
+    private final Duration lease;
+
+    public DatabaseIdempotencyStore(IdempotencyRecordRepository repository,
+                                    @Value("${orders.idempotency.ttl:PT24H}") Duration ttl,
+                                    @Value("${orders.idempotency.lease:PT1M}") Duration lease) {
+        this.repository = repository;
+        this.ttl = ttl;
+        this.lease = lease;
+    }
+
+    @Override
+    public Optional<IdempotencyEntry> claim(String key, String requestHash) {
+        Instant now = Instant.now();
+        Optional<IdempotencyRecord> existing = repository.findById(key);
+        if (existing.isPresent()) {
+            IdempotencyRecord record = existing.get();
+            if (record.getExpiresAt().isBefore(now)) {
+                repository.deleteById(key);
+            } else if (record.getStatus() == null
+                    && repository.takeOver(key, requestHash, now, now.minus(lease)) == 1) {
+                return Optional.empty();
+            } else {
+                return Optional.of(toEntry(record));
+            }
+        }
+        try {
+            repository.save(new IdempotencyRecord(key, requestHash, now, now.plus(ttl)));
+            return Optional.empty();
+        } catch (DataIntegrityViolationException ex) {
+            // Another node claimed the key first; if it already released it, report it as busy and let the client retry.
+            return Optional.of(repository.findById(key)
+                    .map(DatabaseIdempotencyStore::toEntry)
+                    .orElse(IdempotencyEntry.inProgress(requestHash)));
+        }
+    }
+
+    @Override
+    public void complete(String key, IdempotencyEntry response) {
+        repository.complete(key, response.status(), response.body());
+    }
+
+    @Override
+    public void release(String key) {
+        repository.deleteById(key);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.idempotency.purge-interval:PT10M}")
+    public void purgeExpired() {
+        int purged = repository.deleteExpired(Instant.now());
+        if (purged > 0) {
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private static IdempotencyEntry toEntry(IdempotencyRecord record) {
+        return new IdempotencyEntry(record.getRequestHash(), record.getStatus(), record.getBody());
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.ordertrackingsystem.idempotency;
+
+/**
+ * What an {@link IdempotencyStore} holds for one key: the hash of the request that claimed it and, once that
+ * request finished, the HTTP status and JSON body it answered with.
+ */
+public record IdempotencyEntry(String requestHash, Integer status, String body) {
+
+    public static IdempotencyEntry inProgress(String requestHash) {
+        return new IdempotencyEntry(requestHash, null, null);
+    }
+
+    public boolean completed() {
+        return status != null;
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.ordertrackingsystem.idempotency;
+
+import java.util.Optional;
+
+/**
+ * Bounded, expiring record of responses keyed by {@code Idempotency-Key}.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Atomically claims {@code key} for a new request unless something is already recorded under it.
+     *
+     * @return empty when the caller now owns the key and must {@link #complete} or {@link #release} it,
+     * otherwise the existing entry, which may still be in progress
+     */
+    Optional<IdempotencyEntry> claim(String key, String requestHash);
+
+    /**
+     * Records the final response of a claimed key so that retries replay it. Called inside the transaction that
+     * performed the request's writes; a transactional store must join it so the response commits or rolls back
+     * with them. If that transaction fails the key is {@link #release released} afterwards.
+     */
+    void complete(String key, IdempotencyEntry response);
+
+    /**
+     * Drops a claim whose request failed, so the client may retry it.
+     */
+    void release(String key);
+}
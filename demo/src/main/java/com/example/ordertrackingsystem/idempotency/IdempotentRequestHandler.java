@@ -0,0 +1,175 @@
+package com.example.ordertrackingsystem.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Runs a request at most once per {@code Idempotency-Key}. The first request claims the key in the
+ * {@link IdempotencyStore} and records its response; retries replay that response without running the action
+ * again. The action and the recording of its response share one transaction, so with the database store a
+ * response exists exactly when the action's writes were committed. Duplicates arriving on the same node while
+ * the first is still running wait for its outcome instead of racing it. Failed requests are not recorded, so
+ * they can be retried with the same key.
+ */
+@Component
+public class IdempotentRequestHandler {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Duration waitTimeout;
+    private final TransactionTemplate transaction;
+    private final Map<String, CompletableFuture<IdempotencyEntry>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotentRequestHandler(IdempotencyStore store,
+                                    ObjectMapper objectMapper,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${orders.idempotency.wait-timeout:PT30S}") Duration waitTimeout,
+                                    PlatformTransactionManager transactionManager) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.waitTimeout = waitTimeout;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Executes {@code action} once for {@code key} within the given operation and user, answering with
+     * {@code status} and the action's result as JSON.
+     *
+     * @param request the parsed request body; a retry must send an equivalent body
+     */
+    public ResponseEntity<byte[]> execute(String operation, String username, String key, Object request,
+                                          HttpStatus status, Supplier<?> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters.");
+        }
+        String scopedKey = operation + ':' + username + ':' + key;
+        String requestHash = hash(request);
+
+        CompletableFuture<IdempotencyEntry> mine = new CompletableFuture<>();
+        CompletableFuture<IdempotencyEntry> running = inFlight.putIfAbsent(scopedKey, mine);
+        if (running != null) {
+            record("coalesced");
+            return replay(await(running), requestHash);
+        }
+        try {
+            Optional<IdempotencyEntry> existing = store.claim(scopedKey, requestHash);
+            if (existing.isPresent()) {
+                mine.complete(existing.get());
+                return replay(existing.get(), requestHash);
+            }
+            IdempotencyEntry response;
+            try {
+                response = transaction.execute(tx -> {
+                    IdempotencyEntry entry = new IdempotencyEntry(requestHash, status.value(), toJson(action.get()));
+                    store.complete(scopedKey, entry);
+                    return entry;
+                });
+            } catch (RuntimeException ex) {
+                store.release(scopedKey);
+                throw ex;
+            }
+            mine.complete(response);
+            record("executed");
+            return respond(response, false);
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(scopedKey, mine);
+        }
+    }
+
+    private IdempotencyEntry await(CompletableFuture<IdempotencyEntry> running) {
+        try {
+            return running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw conflict();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw conflict();
+        }
+    }
+
+    private ResponseEntity<byte[]> replay(IdempotencyEntry entry, String requestHash) {
+        if (!entry.requestHash().equals(requestHash)) {
+            record("mismatch");
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    HEADER + " was already used for a different request.");
+        }
+        if (!entry.completed()) {
+            record("conflict");
+            throw conflict();
+        }
+        record("replayed");
+        return respond(entry, true);
+    }
+
+    private static ResponseStatusException conflict() {
+        return new ResponseStatusException(HttpStatus.CONFLICT,
+                "A request with this " + HEADER + " is still being processed.");
+    }
+
+    private static ResponseEntity<byte[]> respond(IdempotencyEntry entry, boolean replayed) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(entry.status())
+                .contentType(MediaType.APPLICATION_JSON);
+        if (replayed) {
+            builder.header(REPLAYED_HEADER, "true");
+        }
+        return builder.body(entry.body().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize response.", ex);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Could not hash request.", ex);
+        }
+    }
+
+    private void record(String outcome) {
+        meterRegistry.counter("orders.idempotency.requests", "outcome", outcome).increment();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.ordertrackingsystem.idempotency;
+
+import com.example.ordertrackingsystem.cache.ExpiringLruCache;
+import java.time.Duration;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-node store holding at most {@code max-entries} keys for {@code ttl}. Retries routed to another node are
+ * not recognised; use the database store when running more than one instance.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final ExpiringLruCache<String, IdempotencyEntry> entries;
+
+    public InMemoryIdempotencyStore(@Value("${orders.idempotency.max-entries:10000}") int maxEntries,
+                                    @Value("${orders.idempotency.ttl:PT24H}") Duration ttl) {
+        this.entries = new ExpiringLruCache<>(maxEntries, ttl);
+    }
+
+    @Override
+    public synchronized Optional<IdempotencyEntry> claim(String key, String requestHash) {
+        IdempotencyEntry existing = entries.get(key);
+        if (existing != null) {
+            return Optional.of(existing);
+        }
+        entries.put(key, IdempotencyEntry.inProgress(requestHash));
+        return Optional.empty();
+    }
+
+    @Override
+    public void complete(String key, IdempotencyEntry response) {
+        entries.put(key, response);
+    }
+
+    @Override
+    public void release(String key) {
+        entries.invalidate(key);
+    }
+}
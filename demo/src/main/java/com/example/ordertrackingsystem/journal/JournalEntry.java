@@ -0,0 +1,25 @@
+package com.example.ordertrackingsystem.journal;
+
+import com.example.ordertrackingsystem.model.OrderStatus;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import java.time.Instant;
+
+/**
+ * One recorded change of an order.
+ *
+ * @param sequence   position in the journal, increasing across all orders
+ * @param recordedAt when the change was committed
+ * @param orderId    identifier of the changed order
+ * @param type       the change ({@code CREATED}, {@code STATUS_CHANGED}, ...), {@code BASELINE} for the state an
+ *                   order had when journaling started, or {@code RECOVERED} for a state (or deletion) found in the
+ *                   table at startup that the journal had missed
+ * @param status     status after the change, or {@code null} when the order was deleted
+ * @param order      the order as JSON: its state after the change, or before it for a deletion
+ */
+public record JournalEntry(long sequence, Instant recordedAt, long orderId, String type, OrderStatus status,
+                           @JsonRawValue String order) {
+
+    public static final String BASELINE = "BASELINE";
+
+    public static final String RECOVERED = "RECOVERED";
+}
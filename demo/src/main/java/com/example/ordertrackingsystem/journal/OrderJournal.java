@@ -0,0 +1,690 @@
+package com.example.ordertrackingsystem.journal;
+
+import com.example.ordertrackingsystem.config.StartupTask;
+import com.example.ordertrackingsystem.model.Order;
+import com.example.ordertrackingsystem.model.OrderStatus;
+import com.example.ordertrackingsystem.repository.ArchivedOrderRepository;
+import com.example.ordertrackingsystem.repository.OrderRepository;
+import com.example.ordertrackingsystem.repository.OrderRepository.OrderVersion;
+import com.example.ordertrackingsystem.service.OrderChangedEvent;
+import com.example.ordertrackingsystem.service.OrdersChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Append-only history of every committed order change, kept in memory-mapped files under
+ * {@code orders.journal.directory} rather than in the database. In memory it holds, per order, the journal
+ * addresses of its changes, which answers full histories and "status as of" queries without scanning. That index
+ * is snapshotted periodically, so a restart loads the snapshot and replays only the records appended after it.
+ *
+ * <p>Records are written after commit and forced to disk every {@code orders.journal.flush-interval}, so a crash
+ * between a commit and its append, or before the next flush, loses those records (never the orders themselves).
+ * Once the application is ready, a background {@link StartupTask} therefore compares the journal with the
+ * table: orders never journaled get a {@code BASELINE} entry, orders whose latest entry is behind the stored
+ * version get a {@code RECOVERED} entry with their current state, and orders that vanished get a
+ * {@code RECOVERED} deletion.
+ * The intermediate states lost in the window stay lost, and recovered entries carry the time of the recovery.
+ *
+ * <p>With {@code orders.journal.retention}, whole segments whose records are all older than the retention are
+ * deleted, together with their entries in the index.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.journal.directory")
+public class OrderJournal implements StartupTask {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderJournal.class);
+
+    private static final int SNAPSHOT_MAGIC = 0x4F4A534E;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    /**
+     * Byte offsets of the fixed fields at the start of each record.
+     */
+    private static final int SEQUENCE_OFFSET = 0;
+    private static final int TIMESTAMP_OFFSET = 8;
+    private static final int ORDER_ID_OFFSET = 16;
+
+    private static final int RECOVERY_PAGE_SIZE = 1000;
+
+    /**
+     * Passed to {@link #append} when the order must not have been journaled yet.
+     */
+    private static final long NO_ADDRESS = -1;
+
+    private final SegmentedJournal journal;
+    private final Path snapshotPath;
+    private final Duration retention;
+    private final ObjectMapper objectMapper;
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Journal addresses of each order's records in append order. Guarded by {@link #lock}.
+     */
+    private final Map<Long, Timeline> timelines = new HashMap<>();
+
+    /**
+     * Guarded by the write lock.
+     */
+    private long lastSequence;
+    private long lastTimestamp;
+
+    private volatile long snapshotSequence = -1;
+
+    public OrderJournal(@Value("${orders.journal.directory}") Path directory,
+                        @Value("${orders.journal.segment-size:64MB}") DataSize segmentSize,
+                        @Value("${orders.journal.retention:}") Duration retention,
+                        ObjectMapper objectMapper,
+                        OrderRepository orderRepository,
+                        ArchivedOrderRepository archivedOrderRepository,
+                        PlatformTransactionManager transactionManager) throws IOException {
+        this.journal = new SegmentedJournal(directory, Math.toIntExact(segmentSize.toBytes()));
+        this.snapshotPath = directory.resolve("snapshot.bin");
+        this.retention = retention;
+        this.objectMapper = objectMapper;
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        long started = System.nanoTime();
+        long resumeAt = loadSnapshot();
+        int[] replayed = {0};
+        journal.scan(resumeAt, (address, record) -> {
+            timelines.computeIfAbsent(record.getLong(ORDER_ID_OFFSET), id -> new Timeline()).add(address);
+            lastSequence = record.getLong(SEQUENCE_OFFSET);
+            lastTimestamp = record.getLong(TIMESTAMP_OFFSET);
+            replayed[0]++;
+        });
+        log.info("Opened order journal in {}: {} orders, {} records replayed after the snapshot, {} ms", directory,
+                timelines.size(), replayed[0], (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Serializes the change while the transaction (and any lazy lines) is still open, and appends it once the
+     * transaction has committed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        capture(List.of(event));
+    }
+
+    /**
+     * Like {@link #onOrderChanged}, appending the whole chunk after one commit.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onOrdersChanged(OrdersChangedEvent event) {
+        capture(event.changes());
+    }
+
+    private void capture(List<OrderChangedEvent> events) {
+        List<Runnable> appends = new ArrayList<>(events.size());
+        for (OrderChangedEvent event : events) {
+            if (event.orderId() == null) {
+                continue;
+            }
+            Order state = event.order() != null ? event.order() : event.previous();
+            OrderStatus status = event.order() != null ? event.order().getStatus() : null;
+            String json = toJson(state);
+            appends.add(() -> append(event.orderId(), event.type().name(), status, json));
+        }
+        if (appends.isEmpty()) {
+            return;
+        }
+        Runnable append = () -> appends.forEach(Runnable::run);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append.run();
+                }
+            });
+        } else {
+            append.run();
+        }
+    }
+
+    @Override
+    public void runAtStartup() {
+        recover();
+    }
+
+    /**
+     * The {@linkplain #recover recovery pass} only adds history entries, so neither startup nor readiness waits
+     * for it.
+     */
+    @Override
+    public boolean inline() {
+        return false;
+    }
+
+    /**
+     * Walks the table's ids and versions in pages of {@value #RECOVERY_PAGE_SIZE}, each in a short read-only
+     * transaction, and records what the journal is missing: a {@code BASELINE} for orders never journaled, a
+     * {@code RECOVERED} state for orders whose latest entry has another version, and a {@code RECOVERED} deletion
+     * for journaled orders that are neither in the table nor archived. Only the rows that need an entry are read
+     * in full. An order that changes meanwhile keeps its real change instead.
+     */
+    public void recover() {
+        long started = System.nanoTime();
+        long[] journaled = journaledIds();
+        int next = 0;
+        long recorded = 0;
+        long afterId = Long.MIN_VALUE;
+        List<OrderVersion> page;
+        do {
+            long from = afterId;
+            page = readOnlyTransaction.execute(status ->
+                    orderRepository.findVersionsAfter(from, PageRequest.ofSize(RECOVERY_PAGE_SIZE)));
+            Map<Long, Long> stale = new HashMap<>();
+            List<Long> vanished = new ArrayList<>();
+            for (OrderVersion row : page) {
+                while (next < journaled.length && journaled[next] < row.getId()) {
+                    vanished.add(journaled[next++]);
+                }
+                boolean known = next < journaled.length && journaled[next] == row.getId();
+                if (known) {
+                    next++;
+                }
+                long latest = latestAddress(row.getId());
+                if (latest == NO_ADDRESS || !Objects.equals(versionAt(latest), row.getVersion())) {
+                    stale.put(row.getId(), latest);
+                }
+                afterId = row.getId();
+            }
+            if (page.size() < RECOVERY_PAGE_SIZE) {
+                while (next < journaled.length) {
+                    vanished.add(journaled[next++]);
+                }
+            }
+            recorded += recordCurrentState(stale) + recordVanished(vanished);
+        } while (page.size() == RECOVERY_PAGE_SIZE);
+        log.info("Reconciled the order journal with the orders table in {} ms: {} entries recorded",
+                (System.nanoTime() - started) / 1_000_000, recorded);
+    }
+
+    /**
+     * Returns the latest recorded state of an order, or {@code null} if it has no entry or its latest entry is a
+     * deletion.
+     */
+    public Order latestState(long orderId) {
+        JournalEntry entry;
+        lock.readLock().lock();
+        try {
+            Timeline timeline = timelines.get(orderId);
+            if (timeline == null) {
+                return null;
+            }
+            entry = decode(journal.read(timeline.last()));
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (entry.status() == null) {
+            return null;
+        }
+        try {
+            // The recorded JSON also carries derived properties such as line totals.
+            return objectMapper.readerFor(Order.class)
+                    .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                    .readValue(entry.order());
+        } catch (JsonProcessingException ex) {
+            log.warn("Unreadable journal entry {} of order {}", entry.sequence(), orderId, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Returns every recorded change of an order, oldest first; empty if the order was never journaled.
+     */
+    public List<JournalEntry> history(long orderId) {
+        lock.readLock().lock();
+        try {
+            long[] addresses = addressesOf(orderId);
+            List<JournalEntry> entries = new ArrayList<>(addresses.length);
+            for (long address : addresses) {
+                entries.add(decode(journal.read(address)));
+            }
+            return entries;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the latest change of an order recorded at or before {@code at}, which carries the order's state
+     * at that time, or nothing if the order had no recorded state yet.
+     */
+    public Optional<JournalEntry> entryAt(long orderId, Instant at) {
+        lock.readLock().lock();
+        try {
+            long[] addresses = addressesOf(orderId);
+            long target = at.toEpochMilli();
+            int low = 0;
+            int high = addresses.length - 1;
+            int found = -1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                if (journal.read(addresses[middle]).getLong(TIMESTAMP_OFFSET) <= target) {
+                    found = middle;
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return found < 0 ? Optional.empty() : Optional.of(decode(journal.read(addresses[found])));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${orders.journal.flush-interval:PT1S}")
+    public void flush() {
+        journal.force();
+    }
+
+    /**
+     * Deletes the oldest segments while every record in them is older than {@code orders.journal.retention}.
+     * A segment holds only records older than the first record of the next one; the segment being appended to
+     * is always kept.
+     */
+    @Scheduled(initialDelayString = "${orders.journal.retention-check-interval:PT1H}",
+            fixedDelayString = "${orders.journal.retention-check-interval:PT1H}")
+    public void applyRetention() {
+        if (retention == null) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - retention.toMillis();
+        lock.writeLock().lock();
+        try {
+            int first = (int) (journal.startAddress() >>> 32);
+            int keepFrom = first;
+            while (keepFrom < journal.writeSegment()) {
+                long next = SegmentedJournal.address(keepFrom + 1, 0);
+                // A crash right after a segment was created leaves it without records until the next append.
+                if (!journal.hasRecord(next) || journal.read(next).getLong(TIMESTAMP_OFFSET) >= cutoff) {
+                    break;
+                }
+                keepFrom++;
+            }
+            if (keepFrom == first) {
+                return;
+            }
+            long keepAddress = SegmentedJournal.address(keepFrom, 0);
+            timelines.values().removeIf(timeline -> timeline.dropBefore(keepAddress));
+            journal.dropSegmentsBefore(keepFrom);
+            // The snapshot still lists addresses in the dropped segments.
+            snapshotSequence = -1;
+            log.info("Dropped {} journal segments older than {}", keepFrom - first, retention);
+        } catch (IOException ex) {
+            log.warn("Could not delete expired journal segments", ex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the per-order index to {@code snapshot.bin} (via a temporary file and an atomic rename) if anything
+     * was appended since the last snapshot.
+     */
+    @Scheduled(initialDelayString = "${orders.journal.snapshot-interval:PT10M}",
+            fixedDelayString = "${orders.journal.snapshot-interval:PT10M}")
+    public synchronized void snapshot() {
+        Map<Long, long[]> index = new HashMap<>();
+        long sequence;
+        long resumeAt;
+        lock.readLock().lock();
+        try {
+            if (lastSequence == snapshotSequence) {
+                return;
+            }
+            timelines.forEach((orderId, timeline) -> index.put(orderId, timeline.toArray()));
+            sequence = lastSequence;
+            resumeAt = journal.endAddress();
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        long started = System.nanoTime();
+        Path temporary = snapshotPath.resolveSibling("snapshot.tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(sequence);
+                out.writeLong(resumeAt);
+                out.writeInt(index.size());
+                for (Map.Entry<Long, long[]> entry : index.entrySet()) {
+                    out.writeLong(entry.getKey());
+                    out.writeInt(entry.getValue().length);
+                    for (long address : entry.getValue()) {
+                        out.writeLong(address);
+                    }
+                }
+            }
+            journal.force();
+            Files.move(temporary, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            snapshotSequence = sequence;
+            log.debug("Wrote journal snapshot at sequence {} for {} orders in {} ms", sequence, index.size(),
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (IOException ex) {
+            log.warn("Could not write the journal snapshot; the next start replays more of the journal.", ex);
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        snapshot();
+        journal.close();
+    }
+
+    private void append(long orderId, String type, OrderStatus status, String json) {
+        appendIfLatest(orderId, type, status, json, null);
+    }
+
+    /**
+     * Appends the record unless {@code expectedLatest} is given and the order's latest address differs from it
+     * ({@link #NO_ADDRESS}: the order must have no entry yet), i.e. a newer change was journaled meanwhile.
+     *
+     * @return whether the record was appended
+     */
+    private boolean appendIfLatest(long orderId, String type, OrderStatus status, String json, Long expectedLatest) {
+        lock.writeLock().lock();
+        try {
+            if (expectedLatest != null && latestAddress(orderId) != expectedLatest) {
+                return false;
+            }
+            long sequence = lastSequence + 1;
+            // Timestamps never go backwards, so entryAt can binary-search them even across clock adjustments.
+            long timestamp = Math.max(System.currentTimeMillis(), lastTimestamp);
+            long address = journal.append(encode(sequence, timestamp, orderId, type, status, json));
+            timelines.computeIfAbsent(orderId, id -> new Timeline()).add(address);
+            lastSequence = sequence;
+            lastTimestamp = timestamp;
+            return true;
+        } catch (RuntimeException ex) {
+            log.warn("Could not journal {} of order {}", type, orderId, ex);
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private long[] addressesOf(long orderId) {
+        lock.readLock().lock();
+        try {
+            Timeline timeline = timelines.get(orderId);
+            return timeline == null ? new long[0] : timeline.toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long latestAddress(long orderId) {
+        lock.readLock().lock();
+        try {
+            Timeline timeline = timelines.get(orderId);
+            return timeline == null ? NO_ADDRESS : timeline.last();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of every journaled order, ascending.
+     */
+    private long[] journaledIds() {
+        lock.readLock().lock();
+        try {
+            long[] ids = timelines.keySet().stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(ids);
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private JournalEntry readEntry(long address) {
+        lock.readLock().lock();
+        try {
+            return decode(journal.read(address));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Version of the order state recorded at {@code address}, or {@code null} for a deletion or an unreadable entry.
+     */
+    private Long versionAt(long address) {
+        JournalEntry entry = readEntry(address);
+        if (entry.status() == null) {
+            return null;
+        }
+        try {
+            JsonNode version = objectMapper.readTree(entry.order()).path("version");
+            return version.isIntegralNumber() ? version.asLong() : null;
+        } catch (JsonProcessingException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Records the current state of the given orders, keyed by the latest address seen when they were found
+     * stale, unless they were journaled again meanwhile.
+     *
+     * @return the number of entries recorded
+     */
+    private long recordCurrentState(Map<Long, Long> stale) {
+        if (stale.isEmpty()) {
+            return 0;
+        }
+        List<RecoveredState> states = readOnlyTransaction.execute(status -> orderRepository.findAllById(stale.keySet())
+                .stream()
+                .map(order -> new RecoveredState(order.getId(), order.getStatus(), toJson(order)))
+                .toList());
+        long recorded = 0;
+        for (RecoveredState state : states) {
+            long latest = stale.get(state.orderId());
+            String type = latest == NO_ADDRESS ? JournalEntry.BASELINE : JournalEntry.RECOVERED;
+            if (appendIfLatest(state.orderId(), type, state.status(), state.json(), latest)) {
+                recorded++;
+            }
+        }
+        return recorded;
+    }
+
+    /**
+     * Records a deletion for journaled orders that are no longer in the table, unless they were archived or
+     * their latest entry already is a deletion.
+     *
+     * @return the number of entries recorded
+     */
+    private long recordVanished(List<Long> vanished) {
+        long recorded = 0;
+        for (int start = 0; start < vanished.size(); start += RECOVERY_PAGE_SIZE) {
+            List<Long> chunk = vanished.subList(start, Math.min(start + RECOVERY_PAGE_SIZE, vanished.size()));
+            Set<Long> archived = new HashSet<>(readOnlyTransaction.execute(status ->
+                    archivedOrderRepository.findIdsIn(chunk)));
+            for (Long orderId : chunk) {
+                long latest = latestAddress(orderId);
+                if (archived.contains(orderId) || latest == NO_ADDRESS) {
+                    continue;
+                }
+                JournalEntry entry = readEntry(latest);
+                if (entry.status() != null
+                        && appendIfLatest(orderId, JournalEntry.RECOVERED, null, entry.order(), latest)) {
+                    recorded++;
+                }
+            }
+        }
+        return recorded;
+    }
+
+    /**
+     * Restores the index from {@code snapshot.bin} and returns the address to replay from; 0 (a full replay) if
+     * there is no usable snapshot.
+     */
+    private long loadSnapshot() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                throw new IOException("Unrecognized snapshot format");
+            }
+            long sequence = in.readLong();
+            long resumeAt = in.readLong();
+            if (resumeAt > journal.endAddress()) {
+                throw new IOException("Snapshot is ahead of the journal");
+            }
+            // Addresses in segments dropped after the snapshot was written are skipped.
+            long startAddress = journal.startAddress();
+            int orders = in.readInt();
+            for (int i = 0; i < orders; i++) {
+                long orderId = in.readLong();
+                Timeline timeline = new Timeline();
+                int count = in.readInt();
+                for (int j = 0; j < count; j++) {
+                    long address = in.readLong();
+                    if (address >= startAddress) {
+                        timeline.add(address);
+                    }
+                }
+                if (timeline.size > 0) {
+                    timelines.put(orderId, timeline);
+                }
+            }
+            lastSequence = sequence;
+            snapshotSequence = sequence;
+            return resumeAt;
+        } catch (NoSuchFileException ex) {
+            return 0;
+        } catch (IOException ex) {
+            log.warn("Ignoring unusable journal snapshot {}; replaying the whole journal.", snapshotPath, ex);
+            timelines.clear();
+            return 0;
+        }
+    }
+
+    private String toJson(Order order) {
+        try {
+            return objectMapper.writeValueAsString(order);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize order " + order.getId() + " for the journal", ex);
+        }
+    }
+
+    private static byte[] encode(long sequence, long timestamp, long orderId, String type, OrderStatus status,
+                                 String json) {
+        byte[] typeBytes = type.getBytes(StandardCharsets.UTF_8);
+        byte[] statusBytes = status != null ? status.label().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        byte[] jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(24 + 2 + typeBytes.length + 2 + statusBytes.length + 4 + jsonBytes.length);
+        buffer.putLong(sequence).putLong(timestamp).putLong(orderId);
+        buffer.putShort((short) typeBytes.length).put(typeBytes);
+        buffer.putShort((short) statusBytes.length).put(statusBytes);
+        buffer.putInt(jsonBytes.length).put(jsonBytes);
+        return buffer.array();
+    }
+
+    private static JournalEntry decode(ByteBuffer record) {
+        long sequence = record.getLong(SEQUENCE_OFFSET);
+        Instant recordedAt = Instant.ofEpochMilli(record.getLong(TIMESTAMP_OFFSET));
+        long orderId = record.getLong(ORDER_ID_OFFSET);
+        ByteBuffer fields = record.duplicate().position(24);
+        String type = readString(fields, fields.getShort());
+        String status = readString(fields, fields.getShort());
+        String json = readString(fields, fields.getInt());
+        return new JournalEntry(sequence, recordedAt, orderId, type,
+                status.isEmpty() ? null : OrderStatus.fromLabel(status), json);
+    }
+
+    private static String readString(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Growable array of journal addresses.
+     */
+    private static final class Timeline {
+
+        private long[] addresses = new long[2];
+        private int size;
+
+        void add(long address) {
+            if (size == addresses.length) {
+                addresses = Arrays.copyOf(addresses, size * 2);
+            }
+            addresses[size++] = address;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(addresses, size);
+        }
+
+        long last() {
+            return addresses[size - 1];
+        }
+
+        /**
+         * Drops the addresses below {@code address} and returns whether none are left.
+         */
+        boolean dropBefore(long address) {
+            int dropped = 0;
+            while (dropped < size && addresses[dropped] < address) {
+                dropped++;
+            }
+            System.arraycopy(addresses, dropped, addresses, 0, size - dropped);
+            size -= dropped;
+            return size == 0;
+        }
+    }
+
+    /**
+     * An order's current row, serialized for a recovery entry.
+     */
+    private record RecoveredState(long orderId, OrderStatus status, String json) {
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.ordertrackingsystem.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of opaque records in fixed-size, memory-mapped segment files ({@code journal-00000000.log},
+ * ...). A record is {@code [length][crc32c][payload]}; a zero length marks the unused tail of a segment. Records
+ * are addressed by {@code segment << 32 | offset}. On open, the last segment is scanned up to the first record
+ * whose checksum fails, so a write torn by a crash is cut off and overwritten. The oldest segments can be
+ * {@linkplain #dropSegmentsBefore dropped}; numbering continues from the remaining ones.
+ *
+ * <p>Appends are serialized; reads use absolute positions and may run concurrently with appends as long as
+ * the caller only reads addresses it obtained after they were appended.
+ */
+final class SegmentedJournal implements Closeable {
+
+    private static final int HEADER_SIZE = 8;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("journal-(\\d{8})\\.log");
+
+    private final Path directory;
+    private final int segmentSize;
+    /**
+     * Mapped segments from {@link #firstSegment} on.
+     */
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private int firstSegment;
+    private int writeSegment;
+    private int writeOffset;
+
+    SegmentedJournal(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        List<Path> existing;
+        try (Stream<Path> files = Files.list(directory)) {
+            existing = files.filter(file -> SEGMENT_NAME.matcher(file.getFileName().toString()).matches())
+                    .sorted()
+                    .toList();
+        }
+        firstSegment = existing.isEmpty() ? 0 : segmentNumber(existing.get(0));
+        for (int i = 0; i < existing.size(); i++) {
+            if (segmentNumber(existing.get(i)) != firstSegment + i) {
+                throw new IllegalStateException("Journal segments in " + directory + " are not contiguous at " + existing.get(i));
+            }
+            segments.add(map(existing.get(i)));
+        }
+        if (segments.isEmpty()) {
+            segments.add(map(segmentPath(0)));
+        }
+        writeSegment = firstSegment + segments.size() - 1;
+        writeOffset = recoverEnd(segments.get(segments.size() - 1));
+    }
+
+    /**
+     * Appends {@code payload} and returns its address.
+     *
+     * @throws IllegalArgumentException if the record cannot fit in an empty segment
+     */
+    synchronized long append(byte[] payload) {
+        int recordSize = HEADER_SIZE + payload.length;
+        if (recordSize > segmentSize) {
+            throw new IllegalArgumentException("Journal record of " + payload.length + " bytes exceeds the segment size.");
+        }
+        if (writeOffset + recordSize > segmentSize) {
+            try {
+                segments.add(map(segmentPath(writeSegment + 1)));
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            writeSegment++;
+            writeOffset = 0;
+        }
+        MappedByteBuffer segment = segments.get(segments.size() - 1);
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        segment.put(writeOffset + HEADER_SIZE, payload);
+        segment.putInt(writeOffset + 4, (int) crc.getValue());
+        // The length goes last, so a reader never sees a non-zero length ahead of the payload.
+        segment.putInt(writeOffset, payload.length);
+        long address = address(writeSegment, writeOffset);
+        writeOffset += recordSize;
+        return address;
+    }
+
+    /**
+     * Returns a read-only view of the payload stored at {@code address}.
+     */
+    ByteBuffer read(long address) {
+        MappedByteBuffer segment = segment((int) (address >>> 32));
+        int offset = (int) address;
+        int length = segment.getInt(offset);
+        return segment.slice(offset + HEADER_SIZE, length).asReadOnlyBuffer();
+    }
+
+    /**
+     * Whether a record is stored at {@code address}; false at the end of a segment, such as at the start of a
+     * segment nothing was appended to yet.
+     */
+    boolean hasRecord(long address) {
+        MappedByteBuffer segment = segment((int) (address >>> 32));
+        int offset = (int) address;
+        return offset + HEADER_SIZE <= segment.capacity() && segment.getInt(offset) > 0;
+    }
+
+    /**
+     * Calls {@code visitor} with the address and payload of every record from {@code from} (an address returned by
+     * {@link #append} or {@link #endAddress}) up to the current end, in append order. Dropped segments are
+     * skipped.
+     */
+    void scan(long from, BiConsumer<Long, ByteBuffer> visitor) {
+        long end = endAddress();
+        from = Math.max(from, startAddress());
+        int segmentNumber = (int) (from >>> 32);
+        int offset = (int) from;
+        while (address(segmentNumber, offset) < end) {
+            MappedByteBuffer segment = segment(segmentNumber);
+            int length = offset + HEADER_SIZE <= segment.capacity() ? segment.getInt(offset) : 0;
+            if (length == 0) {
+                segmentNumber++;
+                offset = 0;
+                continue;
+            }
+            long address = address(segmentNumber, offset);
+            visitor.accept(address, segment.slice(offset + HEADER_SIZE, length).asReadOnlyBuffer());
+            offset += HEADER_SIZE + length;
+        }
+    }
+
+    /**
+     * Address the next record will be appended at (or the start of the next segment).
+     */
+    synchronized long endAddress() {
+        return address(writeSegment, writeOffset);
+    }
+
+    /**
+     * Address of the oldest record still kept.
+     */
+    synchronized long startAddress() {
+        return address(firstSegment, 0);
+    }
+
+    /**
+     * Number of the segment being appended to; it is never dropped.
+     */
+    synchronized int writeSegment() {
+        return writeSegment;
+    }
+
+    /**
+     * Deletes every segment numbered below {@code segment} (at most up to the write segment). Addresses in them
+     * must no longer be read.
+     */
+    synchronized void dropSegmentsBefore(int segment) throws IOException {
+        int last = Math.min(segment, writeSegment);
+        while (firstSegment < last) {
+            segments.remove(0);
+            Files.deleteIfExists(segmentPath(firstSegment));
+            firstSegment++;
+        }
+    }
+
+    /**
+     * Writes dirty pages of the current segment to disk. Earlier segments were forced when they filled up.
+     */
+    void force() {
+        MappedByteBuffer segment;
+        synchronized (this) {
+            segment = segments.get(segments.size() - 1);
+        }
+        segment.force();
+    }
+
+    @Override
+    public synchronized void close() {
+        segments.forEach(MappedByteBuffer::force);
+    }
+
+    private synchronized MappedByteBuffer segment(int number) {
+        if (number < firstSegment) {
+            throw new IllegalArgumentException("Journal segment " + number + " was dropped.");
+        }
+        return segments.get(number - firstSegment);
+    }
+
+    private MappedByteBuffer map(Path path) throws IOException {
+        if (!segments.isEmpty()) {
+            segments.get(segments.size() - 1).force();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            long size = Math.max(channel.size(), segmentSize);
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private static int segmentNumber(Path path) {
+        Matcher matcher = SEGMENT_NAME.matcher(path.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not a journal segment: " + path);
+        }
+        return Integer.parseInt(matcher.group(1));
+    }
+
+    private Path segmentPath(int number) {
+        return directory.resolve("journal-%08d.log".formatted(number));
+    }
+
+    /**
+     * Finds the end of the valid records in {@code segment} and zeroes anything after it.
+     */
+    private int recoverEnd(MappedByteBuffer segment) {
+        int offset = 0;
+        while (offset + HEADER_SIZE <= segment.capacity()) {
+            int length = segment.getInt(offset);
+            if (length <= 0 || offset + HEADER_SIZE + length > segment.capacity()) {
+                break;
+            }
+            CRC32C crc = new CRC32C();
+            crc.update(segment.slice(offset + HEADER_SIZE, length));
+            if ((int) crc.getValue() != segment.getInt(offset + 4)) {
+                break;
+            }
+            offset += HEADER_SIZE + length;
+        }
+        // Pages may reach the disk out of order, so a crash can leave stray bytes anywhere past the last good record.
+        for (int position = offset; position < segment.capacity(); position++) {
+            if (segment.get(position) != 0) {
+                segment.put(position, (byte) 0);
+            }
+        }
+        return offset;
+    }
+
+    static long address(int segment, int offset) {
+        return (long) segment << 32 | offset;
+    }
+}
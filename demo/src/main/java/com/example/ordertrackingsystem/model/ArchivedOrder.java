@@ -0,0 +1,133 @@
+package com.example.ordertrackingsystem.model;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Entity;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * A finished order moved out of {@code orders} by the archiver. The whole order, lines included, is kept as JSON;
+ * the summary columns and {@link #getLines() lines} only serve the statistics rollup and housekeeping.
+ */
+@Entity
+@Table(name = "archived_orders", indexes = {
+        @Index(name = "idx_archived_orders_owner_date", columnList = "created_by, order_date"),
+        @Index(name = "idx_archived_orders_date", columnList = "order_date")
+})
+public class ArchivedOrder implements Persistable<Long> {
+
+    /**
+     * The original order id, so lookups by id keep working after archiving.
+     */
+    @Id
+    private Long id;
+
+    @Column(name = "created_by")
+    private String createdBy;
+
+    private String productName;
+
+    private int quantity;
+
+    private double price;
+
+    private OrderStatus status;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "order_date")
+    private LocalDateTime orderDate;
+
+    @Column(nullable = false)
+    private Instant archivedAt;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @ElementCollection
+    @CollectionTable(name = "archived_order_lines", joinColumns = @JoinColumn(name = "order_id"),
+            foreignKey = @ForeignKey(name = "fk_archived_order_lines_order"),
+            indexes = @Index(name = "idx_archived_order_lines_order", columnList = "order_id"))
+    private List<ArchivedOrderLine> lines = new ArrayList<>();
+
+    /**
+     * Lets {@code saveAll} insert directly instead of first selecting each id to decide between insert and merge.
+     */
+    @Transient
+    private boolean isNew = true;
+
+    /**
+     * Default constructor required by JPA.
+     */
+    public ArchivedOrder() {
+    }
+
+    public ArchivedOrder(Order order, String payload, Instant archivedAt) {
+        this.id = order.getId();
+        this.createdBy = order.getCreatedBy();
+        this.productName = order.getProductName();
+        this.quantity = order.getQuantity();
+        this.price = order.getPrice();
+        this.status = order.getStatus();
+        this.totalAmount = order.getTotalAmount();
+        this.orderDate = order.getOrderDate();
+        this.payload = payload;
+        this.archivedAt = archivedAt;
+        order.getLines().forEach(line -> lines.add(new ArchivedOrderLine(line)));
+    }
+
+    @Override
+    public Long getId() {
+        return id;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    public String getCreatedBy() {
+        return createdBy;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getOrderDate() {
+        return orderDate;
+    }
+
+    public List<ArchivedOrderLine> getLines() {
+        return lines;
+    }
+
+    public Instant getArchivedAt() {
+        return archivedAt;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.ordertrackingsystem.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import java.math.BigDecimal;
+
+/**
+ * Product, quantity and unit price of one line of an {@link ArchivedOrder}, kept as rows so revenue per product
+ * can still be grouped in SQL after the order's {@link OrderLine}s are deleted.
+ */
+@Embeddable
+public class ArchivedOrderLine {
+
+    private String productName;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal unitPrice;
+
+    /**
+     * Default constructor required by JPA.
+     */
+    public ArchivedOrderLine() {
+    }
+
+    public ArchivedOrderLine(OrderLine line) {
+        this.productName = line.getProductName();
+        this.quantity = line.getQuantity();
+        this.unitPrice = line.getUnitPrice();
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public BigDecimal getUnitPrice() {
+        return unitPrice;
+    }
+}
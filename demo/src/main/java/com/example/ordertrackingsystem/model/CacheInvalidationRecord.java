@@ -0,0 +1,70 @@
+package com.example.ordertrackingsystem.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+/**
+ * A cache invalidation posted by one instance for the others to pick up when they poll. Rows are short-lived
+ * and purged after the retention period.
+ */
+@Entity
+@Table(name = "cache_invalidations", indexes = @Index(name = "idx_cache_invalidations_created", columnList = "created_at"))
+public class CacheInvalidationRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cache_invalidations_seq")
+    @SequenceGenerator(name = "cache_invalidations_seq", sequenceName = "cache_invalidations_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 36)
+    private String nodeId;
+
+    @Column(nullable = false, length = 16)
+    private String region;
+
+    @Column(name = "cache_key")
+    private String key;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    /**
+     * Default constructor required by JPA.
+     */
+    public CacheInvalidationRecord() {
+    }
+
+    public CacheInvalidationRecord(String nodeId, String region, String key, Instant createdAt) {
+        this.nodeId = nodeId;
+        this.region = region;
+        this.key = key;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
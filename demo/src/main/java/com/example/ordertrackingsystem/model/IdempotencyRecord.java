@@ -0,0 +1,94 @@
+package com.example.ordertrackingsystem.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.time.Instant;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Response recorded for an {@code Idempotency-Key}, shared by all application nodes when the database store is used.
+ * A row without a status is a claim held by a request that is still running.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_expires", columnList = "expires_at"))
+public class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    @Column(name = "idempotency_key", length = 300)
+    private String key;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    private Integer status;
+
+    @Column(columnDefinition = "TEXT")
+    private String body;
+
+    @Column(nullable = false)
+    private Instant claimedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    /**
+     * Lets {@code save} insert directly (and fail on a duplicate key) instead of merging.
+     */
+    @Transient
+    private boolean isNew = true;
+
+    /**
+     * Default constructor required by JPA.
+     */
+    public IdempotencyRecord() {
+    }
+
+    public IdempotencyRecord(String key, String requestHash, Instant claimedAt, Instant expiresAt) {
+        this.key = key;
+        this.requestHash = requestHash;
+        this.claimedAt = claimedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    public Instant getClaimedAt() {
+        return claimedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+}
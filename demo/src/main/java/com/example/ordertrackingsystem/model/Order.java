@@ -1,39 +1,109 @@
 package com.example.ordertrackingsystem.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderBy;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import org.hibernate.annotations.BatchSize;
 
 /**
  * JPA entity that represents an order placed by a customer and persisted to the database.
+ * The items live in {@link #getLines() lines}; {@code productId}, {@code productName}, {@code quantity} and
+ * {@code price} summarize them (the first line's product, the total quantity and the average unit price)
+ * for listings and for clients that predate line items.
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_date_id", columnList = "order_date, id"),
+        @Index(name = "idx_orders_owner_date_id", columnList = "created_by, order_date, id"),
+        @Index(name = "idx_orders_status_date_id", columnList = "status, order_date, id")
+})
 public class Order {
 
+    /**
+     * Pooled sequence ids (a sequence table on MySQL) let Hibernate batch inserts, which IDENTITY columns prevent.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     private String customerName;
 
+    /**
+     * Catalog product of the first line, or {@code null} when it is not a catalog product.
+     */
+    @Column(name = "product_id")
+    private Long productId;
+
+    /**
+     * Read-only association that only exists so the schema carries a foreign key to {@code products}.
+     */
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", insertable = false, updatable = false)
+    private Product product;
+
     private String productName;
 
     private int quantity;
 
     private double price;
 
-    private String status;
+    private OrderStatus status;
+
+    /**
+     * Optimistic-lock version; every status transition is a conditional update against it.
+     */
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
 
+    /**
+     * Exact sum of the line totals.
+     */
+    @Column(precision = 12, scale = 2)
+    private BigDecimal totalAmount;
+
+    /**
+     * Loaded lazily, up to 100 orders' lines per query, so listing N orders costs 1 + N/100 queries instead of 1 + N.
+     */
+    @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id")
+    @BatchSize(size = 100)
+    private List<OrderLine> lines = new ArrayList<>();
+
+    /**
+     * Required: listings page by (orderDate, id), which cannot position a cursor on a missing date.
+     */
+    @Column(name = "order_date", nullable = false)
     private LocalDateTime orderDate;
 
     @Column(name = "created_by")
     private String createdBy;
 
+    /**
+     * When the order was last written, or {@code null} if it has not changed since this column was added.
+     */
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     /**
      * Default constructor required by JPA.
      */
@@ -43,11 +113,11 @@ public class Order {
     /**
      * Convenience constructor for quickly instantiating an order.
      */
-    public Order(Long id, String customerName, String productName, int quantity, double price, String status, LocalDateTime orderDate) {
+    public Order(Long id, String customerName, String productName, int quantity, double price, OrderStatus status, LocalDateTime orderDate) {
         this(id, customerName, productName, quantity, price, status, orderDate, null);
     }
 
-    public Order(Long id, String customerName, String productName, int quantity, double price, String status, LocalDateTime orderDate, String createdBy) {
+    public Order(Long id, String customerName, String productName, int quantity, double price, OrderStatus status, LocalDateTime orderDate, String createdBy) {
         this.id = id;
         this.customerName = customerName;
         this.productName = productName;
@@ -58,6 +128,19 @@ public class Order {
         this.createdBy = createdBy;
     }
 
+    /**
+     * Returns an unmanaged copy of the current field values, used to describe an order's state before a change.
+     */
+    public Order copy() {
+        Order copy = new Order(id, customerName, productName, quantity, price, status, orderDate, createdBy);
+        copy.version = version;
+        copy.productId = productId;
+        copy.totalAmount = totalAmount;
+        copy.updatedAt = updatedAt;
+        copy.lines.addAll(lines);
+        return copy;
+    }
+
     public Long getId() {
         return id;
     }
@@ -74,6 +157,14 @@ public class Order {
         this.customerName = customerName;
     }
 
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
     public String getProductName() {
         return productName;
     }
@@ -98,14 +189,49 @@ public class Order {
         this.price = price;
     }
 
-    public String getStatus() {
+    public OrderStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(OrderStatus status) {
         this.status = status;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public List<OrderLine> getLines() {
+        return lines;
+    }
+
+    /**
+     * Replaces the items in place (so Hibernate can remove orphaned lines) and points each line back at this order.
+     */
+    public void setLines(List<OrderLine> lines) {
+        this.lines.clear();
+        if (lines != null) {
+            lines.forEach(this::addLine);
+        }
+    }
+
+    public void addLine(OrderLine line) {
+        line.setOrder(this);
+        lines.add(line);
+    }
+
     public LocalDateTime getOrderDate() {
         return orderDate;
     }
@@ -121,4 +247,12 @@ public class Order {
     public void setCreatedBy(String createdBy) {
         this.createdBy = createdBy;
     }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
 }
@@ -0,0 +1,126 @@
+package com.example.ordertrackingsystem.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.math.BigDecimal;
+
+/**
+ * One item of an {@link Order}: a quantity of a product at an exact unit price.
+ * The product name is kept as it was when the order was placed so renaming a product does not rewrite history.
+ */
+@Entity
+@Table(name = "order_lines", indexes = {
+        @Index(name = "idx_order_lines_order", columnList = "order_id"),
+        @Index(name = "idx_order_lines_product", columnList = "product_id")
+})
+public class OrderLine {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_lines_seq")
+    @SequenceGenerator(name = "order_lines_seq", sequenceName = "order_lines_seq", allocationSize = 50)
+    private Long id;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "order_id", nullable = false)
+    private Order order;
+
+    /**
+     * Catalog product this line refers to, or {@code null} for free-form items entered by an admin.
+     */
+    @Column(name = "product_id")
+    private Long productId;
+
+    /**
+     * Read-only association that only exists so the schema carries a foreign key to {@code products}.
+     */
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", insertable = false, updatable = false)
+    private Product product;
+
+    private String productName;
+
+    private int quantity;
+
+    @Column(precision = 12, scale = 2)
+    private BigDecimal unitPrice;
+
+    /**
+     * Default constructor required by JPA.
+     */
+    public OrderLine() {
+    }
+
+    public OrderLine(Long productId, String productName, int quantity, BigDecimal unitPrice) {
+        this.productId = productId;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.unitPrice = unitPrice;
+    }
+
+    /**
+     * Unit price × quantity, or {@code null} while the unit price is unknown.
+     */
+    public BigDecimal getLineTotal() {
+        return unitPrice != null ? unitPrice.multiply(BigDecimal.valueOf(quantity)) : null;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Order getOrder() {
+        return order;
+    }
+
+    public void setOrder(Order order) {
+        this.order = order;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public BigDecimal getUnitPrice() {
+        return unitPrice;
+    }
+
+    public void setUnitPrice(BigDecimal unitPrice) {
+        this.unitPrice = unitPrice;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.ordertrackingsystem.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Lifecycle states of an {@link Order} and the transitions allowed between them:
+ * Pending → Shipped → Delivered, with Pending and Shipped orders also able to move to Cancelled.
+ */
+public enum OrderStatus {
+
+    PENDING("Pending"),
+    SHIPPED("Shipped"),
+    DELIVERED("Delivered"),
+    CANCELLED("Cancelled");
+
+    private final String label;
+
+    OrderStatus(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Display name used in the database column, JSON payloads and the UI.
+     */
+    @JsonValue
+    public String label() {
+        return label;
+    }
+
+    /**
+     * Returns the statuses this one may move to; empty for terminal statuses.
+     */
+    public Set<OrderStatus> nextStatuses() {
+        return switch (this) {
+            case PENDING -> EnumSet.of(SHIPPED, CANCELLED);
+            case SHIPPED -> EnumSet.of(DELIVERED, CANCELLED);
+            case DELIVERED, CANCELLED -> EnumSet.noneOf(OrderStatus.class);
+        };
+    }
+
+    public boolean canTransitionTo(OrderStatus next) {
+        return nextStatuses().contains(next);
+    }
+
+    /**
+     * Parses a status label case-insensitively (the enum constant name is accepted too).
+     */
+    @JsonCreator
+    public static OrderStatus fromLabel(String value) {
+        if (value != null) {
+            String trimmed = value.trim();
+            for (OrderStatus status : values()) {
+                if (status.label.equalsIgnoreCase(trimmed) || status.name().equalsIgnoreCase(trimmed)) {
+                    return status;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Unknown order status: " + value);
+    }
+
+    /**
+     * Reads a stored status. Rows written before statuses were validated may hold free-form text, so common
+     * spellings map to their status and anything else, including blanks, reads as {@link #PENDING}: an open
+     * order that an admin can still move along. Migration V2 rewrites such rows the same way.
+     */
+    public static OrderStatus fromStoredValue(String value) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        for (OrderStatus status : values()) {
+            if (status.label.equalsIgnoreCase(normalized) || status.name().equalsIgnoreCase(normalized)) {
+                return status;
+            }
+        }
+        return switch (normalized) {
+            case "canceled" -> CANCELLED;
+            case "complete", "completed", "fulfilled" -> DELIVERED;
+            case "in transit", "dispatched", "shipping" -> SHIPPED;
+            default -> PENDING;
+        };
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
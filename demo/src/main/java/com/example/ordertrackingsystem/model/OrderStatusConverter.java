@@ -0,0 +1,22 @@
+package com.example.ordertrackingsystem.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link OrderStatus} by its label so existing rows ("Pending", "Shipped", ...) keep reading back unchanged.
+ * Legacy free-form values are read leniently, see {@link OrderStatus#fromStoredValue}.
+ */
+@Converter(autoApply = true)
+public class OrderStatusConverter implements AttributeConverter<OrderStatus, String> {
+
+    @Override
+    public String convertToDatabaseColumn(OrderStatus status) {
+        return status != null ? status.label() : null;
+    }
+
+    @Override
+    public OrderStatus convertToEntityAttribute(String value) {
+        return value != null ? OrderStatus.fromStoredValue(value) : null;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.ordertrackingsystem.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+/**
+ * An order change waiting to be relayed to downstream consumers. Rows are written in the same transaction as
+ * the change itself and deleted once every sink has accepted them.
+ */
+@Entity
+@Table(name = "order_outbox", indexes = {
+        @Index(name = "idx_order_outbox_status_id", columnList = "status, id"),
+        @Index(name = "idx_order_outbox_order_id", columnList = "order_id, id")
+})
+public class OutboxEvent {
+
+    /**
+     * Increasing ids define the delivery order; consumers can also use them to drop duplicates.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_outbox_seq")
+    @SequenceGenerator(name = "order_outbox_seq", sequenceName = "order_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false, length = 32)
+    private String eventType;
+
+    /**
+     * JSON object with the order after the change ({@code order}) and its status before it ({@code previousStatus}).
+     */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.PENDING;
+
+    private int attempts;
+
+    private Instant nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    /**
+     * Delivery state of an outbox row.
+     */
+    public enum Status {
+        /**
+         * Waiting for (re)delivery.
+         */
+        PENDING,
+        /**
+         * Gave up after the maximum number of attempts; kept for inspection. Later rows of the same order are held
+         * back until the row is deleted or set back to pending.
+         */
+        FAILED
+    }
+
+    /**
+     * Default constructor required by JPA.
+     */
+    public OutboxEvent() {
+    }
+
+    public OutboxEvent(Long orderId, String eventType, String payload, Instant createdAt) {
+        this.orderId = orderId;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
@@ -6,6 +6,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import java.time.Instant;
 
 /**
  * Stores credentials for application users in the backing database.
@@ -30,6 +31,12 @@ public class UserAccount {
     @Column(nullable = false)
     private boolean enabled = true;
 
+    /**
+     * Access tokens issued before this instant are rejected; {@code null} until the first revocation.
+     */
+    @Column(name = "tokens_not_before")
+    private Instant tokensNotBefore;
+
     public UserAccount() {
     }
 
@@ -80,4 +87,12 @@ public class UserAccount {
     public void setEnabled(boolean enabled) {
         this.enabled = enabled;
     }
+
+    public Instant getTokensNotBefore() {
+        return tokensNotBefore;
+    }
+
+    public void setTokensNotBefore(Instant tokensNotBefore) {
+        this.tokensNotBefore = tokensNotBefore;
+    }
 }
@@ -0,0 +1,30 @@
+package com.example.ordertrackingsystem.outbox;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Republishes relayed messages as {@link OrderEventMessage} application events, so in-process consumers can
+ * subscribe with {@code @EventListener} and run on the relay thread rather than inside the writing transaction.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.outbox.sinks.application-events.enabled", havingValue = "true", matchIfMissing = true)
+public class ApplicationEventOutboxSink implements OutboxSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ApplicationEventOutboxSink(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public String name() {
+        return "application-events";
+    }
+
+    @Override
+    public void deliver(OrderEventMessage message) {
+        eventPublisher.publishEvent(message);
+    }
+}
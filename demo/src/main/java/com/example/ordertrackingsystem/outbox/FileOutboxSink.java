@@ -0,0 +1,51 @@
+package com.example.ordertrackingsystem.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Appends each relayed message as one JSON line to a local file; enabled by {@code orders.outbox.sinks.file.path}.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.outbox.sinks.file.path")
+public class FileOutboxSink implements OutboxSink {
+
+    private final ObjectMapper objectMapper;
+    private final BufferedWriter writer;
+
+    public FileOutboxSink(ObjectMapper objectMapper, @Value("${orders.outbox.sinks.file.path}") Path path)
+            throws IOException {
+        this.objectMapper = objectMapper;
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public synchronized void deliver(OrderEventMessage message) throws IOException {
+        writer.write(objectMapper.writeValueAsString(message));
+        writer.newLine();
+        writer.flush();
+    }
+
+    @PreDestroy
+    synchronized void close() throws IOException {
+        writer.close();
+    }
+}
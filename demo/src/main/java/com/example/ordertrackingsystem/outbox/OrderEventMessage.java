@@ -0,0 +1,24 @@
+package com.example.ordertrackingsystem.outbox;
+
+import com.example.ordertrackingsystem.model.OutboxEvent;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import java.time.Instant;
+
+/**
+ * What sinks receive for each committed order change. Delivery is at-least-once, so consumers should ignore
+ * an {@code eventId} they have already processed; per order, events arrive in commit order.
+ *
+ * @param eventId    increasing outbox id
+ * @param orderId    affected order
+ * @param type       kind of change ({@code CREATED}, {@code STATUS_CHANGED}, ...)
+ * @param occurredAt when the change was committed
+ * @param data       JSON object with the order after the change ({@code order}, null once deleted) and its
+ *                   {@code previousStatus}
+ */
+public record OrderEventMessage(long eventId, Long orderId, String type, Instant occurredAt, @JsonRawValue String data) {
+
+    static OrderEventMessage of(OutboxEvent event) {
+        return new OrderEventMessage(event.getId(), event.getOrderId(), event.getEventType(), event.getCreatedAt(),
+                event.getPayload());
+    }
+}
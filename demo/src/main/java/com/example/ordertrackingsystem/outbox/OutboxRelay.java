@@ -0,0 +1,135 @@
+package com.example.ordertrackingsystem.outbox;
+
+import com.example.ordertrackingsystem.model.OutboxEvent;
+import com.example.ordertrackingsystem.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drains the outbox in id order and hands each message to every {@link OutboxSink}. Each batch only holds the
+ * oldest remaining message of each order, and only once its backoff has elapsed, so each order's events are
+ * delivered in order and an order that keeps failing never occupies the batch. A failed message is retried with
+ * exponential backoff. After {@code max-attempts} it is marked {@link OutboxEvent.Status#FAILED}, and the order's
+ * later messages wait until an operator deletes or resets it. Unconsumed events simply accumulate in the table,
+ * so request threads never wait on consumers. Assumes a single relaying instance.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxSink> sinks;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Counter delivered;
+    private final Counter retried;
+    private final Counter failed;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       List<OutboxSink> sinks,
+                       MeterRegistry meterRegistry,
+                       @Value("${orders.outbox.batch-size:100}") int batchSize,
+                       @Value("${orders.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${orders.outbox.retry-backoff:PT2S}") Duration retryBackoff) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sinks = List.copyOf(sinks);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoff = retryBackoff;
+        this.delivered = relayCounter(meterRegistry, "delivered");
+        this.retried = relayCounter(meterRegistry, "retried");
+        this.failed = relayCounter(meterRegistry, "failed");
+        Gauge.builder("orders.outbox.backlog", outboxEventRepository,
+                        repository -> repository.countByStatus(OutboxEvent.Status.PENDING))
+                .description("Order change events waiting to be relayed")
+                .register(meterRegistry);
+    }
+
+    private static Counter relayCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("orders.outbox.messages")
+                .description("Outbox messages by relay outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Relays batches until the backlog is drained or only held-back messages remain. Delivering an order's message
+     * makes its next one eligible, so batches continue as long as any message was delivered.
+     */
+    @Scheduled(fixedDelayString = "${orders.outbox.poll-interval:PT1S}")
+    public void relay() {
+        boolean more = true;
+        while (more) {
+            more = relayBatch();
+        }
+    }
+
+    /**
+     * Relays one batch of the oldest deliverable messages, at most one per order.
+     *
+     * @return whether at least one message was delivered, i.e. more may be waiting
+     */
+    boolean relayBatch() {
+        Instant now = Instant.now();
+        List<OutboxEvent> batch = outboxEventRepository.findDeliverable(now, PageRequest.ofSize(batchSize));
+        List<OutboxEvent> done = new ArrayList<>();
+
+        for (OutboxEvent event : batch) {
+            OrderEventMessage message = OrderEventMessage.of(event);
+            OutboxSink current = null;
+            try {
+                for (OutboxSink sink : sinks) {
+                    current = sink;
+                    sink.deliver(message);
+                }
+                done.add(event);
+            } catch (Exception ex) {
+                recordFailure(event, current.name() + ": " + ex, now);
+            }
+        }
+
+        if (!done.isEmpty()) {
+            outboxEventRepository.deleteAllInBatch(done);
+            delivered.increment(done.size());
+        }
+        return !done.isEmpty();
+    }
+
+    private void recordFailure(OutboxEvent event, String error, Instant now) {
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        if (attempts >= maxAttempts) {
+            event.setStatus(OutboxEvent.Status.FAILED);
+            failed.increment();
+            log.error("Giving up on outbox event {} for order {} after {} attempts: {}",
+                    event.getId(), event.getOrderId(), attempts, error);
+        } else {
+            event.setNextAttemptAt(now.plus(backoff(attempts)));
+            retried.increment();
+            log.warn("Outbox event {} for order {} failed (attempt {}), retrying at {}: {}",
+                    event.getId(), event.getOrderId(), attempts, event.getNextAttemptAt(), error);
+        }
+        outboxEventRepository.save(event);
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = retryBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.ordertrackingsystem.outbox;
+
+/**
+ * Destination the {@link OutboxRelay} hands order change messages to. Sinks are registered as beans;
+ * throwing from {@link #deliver} schedules a retry of that message (for every sink) and holds back
+ * later messages of the same order until it succeeds.
+ */
+public interface OutboxSink {
+
+    /**
+     * Short name used in logs.
+     */
+    String name();
+
+    void deliver(OrderEventMessage message) throws Exception;
+}
@@ -0,0 +1,67 @@
+package com.example.ordertrackingsystem.outbox;
+
+import com.example.ordertrackingsystem.model.OutboxEvent;
+import com.example.ordertrackingsystem.repository.OutboxEventRepository;
+import com.example.ordertrackingsystem.service.OrderChangedEvent;
+import com.example.ordertrackingsystem.service.OrdersChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Appends every order change to the outbox inside the transaction that made it, so the change and its
+ * event commit or roll back together.
+ */
+@Component
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxWriter(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (event.orderId() != null) {
+            outboxEventRepository.save(toOutboxEvent(event, Instant.now()));
+        }
+    }
+
+    /**
+     * Writes one row per change of the chunk with a single batched insert.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onOrdersChanged(OrdersChangedEvent event) {
+        Instant now = Instant.now();
+        List<OutboxEvent> rows = new ArrayList<>(event.changes().size());
+        for (OrderChangedEvent change : event.changes()) {
+            if (change.orderId() != null) {
+                rows.add(toOutboxEvent(change, now));
+            }
+        }
+        if (!rows.isEmpty()) {
+            outboxEventRepository.saveAll(rows);
+        }
+    }
+
+    private OutboxEvent toOutboxEvent(OrderChangedEvent event, Instant now) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("order", event.order());
+        payload.put("previousStatus", event.previousStatus());
+        try {
+            return new OutboxEvent(event.orderId(), event.type().name(), objectMapper.writeValueAsString(payload), now);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize order change for the outbox", ex);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.ordertrackingsystem.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * POSTs each relayed message as JSON to {@code orders.outbox.sinks.webhook.url}; any non-2xx answer or
+ * timeout counts as a failed delivery and is retried.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.outbox.sinks.webhook.url")
+public class WebhookOutboxSink implements OutboxSink {
+
+    private final ObjectMapper objectMapper;
+    private final URI url;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+
+    public WebhookOutboxSink(ObjectMapper objectMapper,
+                             @Value("${orders.outbox.sinks.webhook.url}") URI url,
+                             @Value("${orders.outbox.sinks.webhook.timeout:PT5S}") Duration timeout) {
+        this.objectMapper = objectMapper;
+        this.url = url;
+        this.timeout = timeout;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    @Override
+    public String name() {
+        return "webhook";
+    }
+
+    @Override
+    public void deliver(OrderEventMessage message) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(url)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .header("X-Outbox-Event-Id", Long.toString(message.eventId()))
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(message)))
+                .build();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Webhook %s answered %d".formatted(url, response.statusCode()));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.ordertrackingsystem.ratelimit;
+
+import com.example.ordertrackingsystem.service.AuthenticationCache;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.authentication.www.BasicAuthenticationConverter;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Limits password checks per client IP before any password is hashed: form logins, and HTTP Basic requests
+ * whose credentials are not in the {@link AuthenticationCache}. Basic callers presenting credentials that were
+ * verified recently cost no hashing and pass straight through to the per-user limits of {@link RateLimitFilter}.
+ */
+public class CredentialRateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final AuthenticationCache authenticationCache;
+    private final BasicAuthenticationConverter basicConverter = new BasicAuthenticationConverter();
+
+    public CredentialRateLimitFilter(RateLimiter rateLimiter, AuthenticationCache authenticationCache) {
+        this.rateLimiter = rateLimiter;
+        this.authenticationCache = authenticationCache;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (rateLimiter.isCredentialCheck(request) || hasUnverifiedBasicCredentials(request)) {
+            long waitNanos = rateLimiter.acquireCredentialCheck("ip:" + request.getRemoteAddr());
+            if (waitNanos > 0) {
+                RateLimitFilter.reject(response, waitNanos);
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private boolean hasUnverifiedBasicCredentials(HttpServletRequest request) {
+        UsernamePasswordAuthenticationToken credentials;
+        try {
+            credentials = basicConverter.convert(request);
+        } catch (AuthenticationException ex) {
+            return true;
+        }
+        if (credentials == null) {
+            return false;
+        }
+        return !authenticationCache.contains(credentials.getName(), String.valueOf(credentials.getCredentials()));
+    }
+}
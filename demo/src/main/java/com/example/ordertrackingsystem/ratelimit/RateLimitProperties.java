@@ -0,0 +1,36 @@
+package com.example.ordertrackingsystem.ratelimit;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Rate limits under {@code security.rate-limit}. The first rule matching a request applies; requests matching
+ * no rule are not limited.
+ *
+ * @param enabled         turns the limiter off entirely, e.g. for load tests
+ * @param maxBuckets      upper bound on tracked (rule, client) pairs
+ * @param overflowBuckets buckets per rule that clients hash into once {@code maxBuckets} is reached
+ * @param credentialsRule rule charged per client IP for every password check, before the password is hashed
+ * @param rules           per-route limits
+ */
+@ConfigurationProperties("security.rate-limit")
+public record RateLimitProperties(@DefaultValue("true") boolean enabled,
+                                  @DefaultValue("100000") int maxBuckets,
+                                  @DefaultValue("1024") int overflowBuckets,
+                                  @DefaultValue("login") String credentialsRule,
+                                  @DefaultValue List<Rule> rules) {
+
+    /**
+     * Allows {@code capacity} requests per client in a burst, refilled evenly over {@code period}.
+     *
+     * @param name     metric tag and log label
+     * @param method   HTTP method to match, or {@code null} for any
+     * @param path     path pattern, e.g. {@code /track/**}
+     * @param capacity burst size
+     * @param period   time to refill a drained bucket
+     */
+    public record Rule(String name, String method, String path, int capacity, Duration period) {
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.ordertrackingsystem.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+/**
+ * Holds one {@link TokenBucket} per (rule, client) pair. Buckets that have refilled are swept out, and the map
+ * never grows past {@code max-buckets}: once full, new clients are hashed into {@code overflow-buckets} shared
+ * buckets per rule until the next sweep frees room, so a flood of new clients only slows the few it collides
+ * with. The credentials rule is charged separately through {@link #acquireCredentialCheck}.
+ */
+@Component
+public class RateLimiter {
+
+    private static final long SWEEP_BACKOFF_NANOS = 1_000_000_000L;
+
+    private final boolean enabled;
+    private final int maxBuckets;
+    private final int overflowBuckets;
+    private final String credentialsRule;
+    private final List<CompiledRule> rules = new ArrayList<>();
+    private final Map<BucketKey, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastForcedSweep = new AtomicLong(System.nanoTime() - SWEEP_BACKOFF_NANOS);
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.enabled();
+        this.maxBuckets = properties.maxBuckets();
+        this.overflowBuckets = Math.max(1, properties.overflowBuckets());
+        this.credentialsRule = properties.credentialsRule();
+        for (RateLimitProperties.Rule rule : properties.rules()) {
+            if (rule.capacity() <= 0 || rule.period() == null || rule.period().isZero() || rule.path() == null) {
+                throw new IllegalStateException("Rate limit rule '" + rule.name() + "' needs a path, a capacity and a period.");
+            }
+            Counter rejected = Counter.builder("http.ratelimit.rejected")
+                    .description("Requests answered with 429 by the rate limiter")
+                    .tag("rule", rule.name())
+                    .register(meterRegistry);
+            TokenBucket[] overflow = new TokenBucket[overflowBuckets];
+            for (int i = 0; i < overflow.length; i++) {
+                overflow[i] = new TokenBucket();
+            }
+            rules.add(new CompiledRule(rule, PathPatternParser.defaultInstance.parse(rule.path()),
+                    Math.max(1, rule.period().toNanos() / rule.capacity()), rejected, overflow));
+        }
+        Gauge.builder("http.ratelimit.buckets", buckets, Map::size)
+                .description("Clients currently tracked by the rate limiter")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Charges one request from {@code client} against the first rule matching it. Requests matching the
+     * credentials rule are left to {@link #acquireCredentialCheck}.
+     *
+     * @return 0 if the request may proceed, otherwise the nanoseconds the client should wait
+     */
+    public long acquire(HttpServletRequest request, String client) {
+        CompiledRule rule = enabled ? match(request) : null;
+        if (rule == null || isCredentialsRule(rule)) {
+            return 0;
+        }
+        return charge(rule, client);
+    }
+
+    /**
+     * Whether {@code request} matches the credentials rule, i.e. is a form login attempt.
+     */
+    public boolean isCredentialCheck(HttpServletRequest request) {
+        CompiledRule rule = enabled ? match(request) : null;
+        return rule != null && isCredentialsRule(rule);
+    }
+
+    /**
+     * Charges one password check from {@code client} against the credentials rule.
+     *
+     * @return 0 if the check may proceed, otherwise the nanoseconds the client should wait
+     */
+    public long acquireCredentialCheck(String client) {
+        if (!enabled) {
+            return 0;
+        }
+        for (CompiledRule rule : rules) {
+            if (isCredentialsRule(rule)) {
+                return charge(rule, client);
+            }
+        }
+        return 0;
+    }
+
+    private boolean isCredentialsRule(CompiledRule rule) {
+        return rule.definition().name() != null && rule.definition().name().equals(credentialsRule);
+    }
+
+    private long charge(CompiledRule rule, String client) {
+        long now = System.nanoTime();
+        long wait = bucket(rule, client, now).tryAcquire(now, rule.interval(), rule.definition().capacity());
+        if (wait > 0) {
+            rule.rejected().increment();
+        }
+        return wait;
+    }
+
+    /**
+     * Drops buckets that have refilled completely.
+     */
+    @Scheduled(fixedDelayString = "${security.rate-limit.sweep-interval:PT1M}")
+    public void sweep() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    private TokenBucket bucket(CompiledRule rule, String client, long now) {
+        BucketKey key = new BucketKey(rule.definition().name(), client);
+        TokenBucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxBuckets) {
+            long last = lastForcedSweep.get();
+            if (now - last >= SWEEP_BACKOFF_NANOS && lastForcedSweep.compareAndSet(last, now)) {
+                sweep();
+            }
+            if (buckets.size() >= maxBuckets) {
+                TokenBucket[] overflow = rule.overflow();
+                int hash = client.hashCode();
+                return overflow[Math.floorMod(hash ^ (hash >>> 16), overflow.length)];
+            }
+        }
+        return buckets.computeIfAbsent(key, ignored -> new TokenBucket());
+    }
+
+    private CompiledRule match(HttpServletRequest request) {
+        PathContainer path = null;
+        for (CompiledRule rule : rules) {
+            String method = rule.definition().method();
+            if (method != null && !method.equalsIgnoreCase(request.getMethod())) {
+                continue;
+            }
+            if (path == null) {
+                path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+            }
+            if (rule.pattern().matches(path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private record CompiledRule(RateLimitProperties.Rule definition, PathPattern pattern, long interval,
+                                Counter rejected, TokenBucket[] overflow) {
+    }
+
+    private record BucketKey(String rule, String client) {
+    }
+}
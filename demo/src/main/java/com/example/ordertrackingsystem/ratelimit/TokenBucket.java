@@ -0,0 +1,43 @@
+package com.example.ordertrackingsystem.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: the whole state is one "theoretical arrival time", advanced by one
+ * emission interval per admitted request with a compare-and-set. A bucket whose arrival time has passed is
+ * full, which is exactly the state of a new bucket, so idle buckets can be dropped without losing anything.
+ */
+final class TokenBucket {
+
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Takes one token if available.
+     *
+     * @param now       current {@link System#nanoTime()}
+     * @param interval  nanoseconds to refill one token
+     * @param capacity  maximum tokens (burst size)
+     * @return 0 if admitted, otherwise the nanoseconds until a token is available
+     */
+    long tryAcquire(long now, long interval, int capacity) {
+        long burst = interval * capacity;
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + interval;
+            long wait = next - now - burst;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Whether the bucket has refilled completely and holds no state worth keeping.
+     */
+    boolean isFull(long now) {
+        return theoreticalArrival.get() - now <= 0;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.ordertrackingsystem.repository;
+
+import com.example.ordertrackingsystem.model.ArchivedOrder;
+import com.example.ordertrackingsystem.model.OrderStatus;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+/**
+ * Data access for orders moved to the archive table. The listing queries mirror those of
+ * {@link OrderRepository}, so callers asking for archived orders too can merge both tables by (orderDate, id).
+ */
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+	/**
+	 * Returns which of the listed ids are archived, without loading their payloads.
+	 */
+	@Query("select a.id from ArchivedOrder a where a.id in :ids")
+	List<Long> findIdsIn(@Param("ids") Collection<Long> ids);
+
+	/**
+	 * Archive counterpart of {@link OrderRepository#findFirstPage}.
+	 */
+	@Query("""
+			select a from ArchivedOrder a
+			where (:createdBy is null or a.createdBy = :createdBy)
+			  and (:status is null or a.status = :status)
+			  and (:fromDate is null or a.orderDate >= :fromDate)
+			  and (:toDate is null or a.orderDate < :toDate)
+			order by a.orderDate desc, a.id desc
+			""")
+	List<ArchivedOrder> findFirstPage(@Param("createdBy") String createdBy,
+			@Param("status") OrderStatus status,
+			@Param("fromDate") LocalDateTime fromDate,
+			@Param("toDate") LocalDateTime toDate,
+			Pageable limit);
+
+	/**
+	 * Archive counterpart of {@link OrderRepository#findPageAfter}.
+	 */
+	@Query("""
+			select a from ArchivedOrder a
+			where (:createdBy is null or a.createdBy = :createdBy)
+			  and (:status is null or a.status = :status)
+			  and (:fromDate is null or a.orderDate >= :fromDate)
+			  and (:toDate is null or a.orderDate < :toDate)
+			  and (a.orderDate < :cursorDate or (a.orderDate = :cursorDate and a.id < :cursorId))
+			order by a.orderDate desc, a.id desc
+			""")
+	List<ArchivedOrder> findPageAfter(@Param("createdBy") String createdBy,
+			@Param("status") OrderStatus status,
+			@Param("fromDate") LocalDateTime fromDate,
+			@Param("toDate") LocalDateTime toDate,
+			@Param("cursorDate") LocalDateTime cursorDate,
+			@Param("cursorId") Long cursorId,
+			Pageable limit);
+
+	/**
+	 * Archive counterpart of {@link OrderRepository#streamAll}, with the same fetch size and read-only rows.
+	 */
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + OrderRepository.EXPORT_FETCH_SIZE),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+	})
+	@Query("""
+			select a from ArchivedOrder a
+			where (:createdBy is null or a.createdBy = :createdBy)
+			  and (:status is null or a.status = :status)
+			  and (:fromDate is null or a.orderDate >= :fromDate)
+			  and (:toDate is null or a.orderDate < :toDate)
+			order by a.orderDate, a.id
+			""")
+	Stream<ArchivedOrder> streamAll(@Param("createdBy") String createdBy,
+			@Param("status") OrderStatus status,
+			@Param("fromDate") LocalDateTime fromDate,
+			@Param("toDate") LocalDateTime toDate);
+}
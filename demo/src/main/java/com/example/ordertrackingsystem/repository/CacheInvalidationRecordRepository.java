@@ -0,0 +1,28 @@
+package com.example.ordertrackingsystem.repository;
+
+import com.example.ordertrackingsystem.model.CacheInvalidationRecord;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Spring Data repository for the database cache invalidation channel.
+ */
+@Repository
+public interface CacheInvalidationRecordRepository extends JpaRepository<CacheInvalidationRecord, Long> {
+
+    /**
+     * Returns the invalidations posted since {@code since}, oldest first.
+     */
+    List<CacheInvalidationRecord> findByCreatedAtGreaterThanEqualOrderByCreatedAtAsc(Instant since);
+
+    @Transactional
+    @Modifying
+    @Query("delete from CacheInvalidationRecord r where r.createdAt < :before")
+    int deleteOlderThan(@Param("before") Instant before);
+}
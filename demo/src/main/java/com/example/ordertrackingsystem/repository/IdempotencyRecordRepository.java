@@ -0,0 +1,43 @@
+package com.example.ordertrackingsystem.repository;
+
+import com.example.ordertrackingsystem.model.IdempotencyRecord;
+import java.time.Instant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Spring Data repository for recorded idempotent responses.
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Stores the final response of a claimed key.
+     */
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.status = :status, r.body = :body where r.key = :key")
+    int complete(@Param("key") String key, @Param("status") int status, @Param("body") String body);
+
+    /**
+     * Re-claims a key whose previous owner has held it since before {@code staleBefore} without finishing,
+     * e.g. because its node died. Only one caller can win.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update IdempotencyRecord r set r.claimedAt = :now, r.requestHash = :requestHash
+            where r.key = :key and r.status is null and r.claimedAt < :staleBefore
+            """)
+    int takeOver(@Param("key") String key, @Param("requestHash") String requestHash,
+                 @Param("now") Instant now, @Param("staleBefore") Instant staleBefore);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -1,8 +1,24 @@
 package com.example.ordertrackingsystem.repository;
 
 import com.example.ordertrackingsystem.model.Order;
+import com.example.ordertrackingsystem.model.OrderStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -11,8 +27,295 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
 
+	/**
+	 * Rows per round trip when streaming exports.
+	 */
+	int EXPORT_FETCH_SIZE = 1000;
+
+	/**
+	 * Loads an order together with its lines in one query.
+	 */
+	@Override
+	@EntityGraph(attributePaths = "lines")
+	Optional<Order> findById(Long id);
+
 	/**
 	 * Returns orders submitted by the provided username.
 	 */
 	List<Order> findByCreatedBy(String createdBy);
+
+	/**
+	 * Returns the number of orders in each status.
+	 */
+	@Query("select o.status as status, count(o) as total from Order o group by o.status")
+	List<StatusCount> countByStatus();
+
+	/**
+	 * Returns the newest orders matching the optional filters, ordered by (orderDate, id) descending.
+	 * Only the page size of {@code limit} is honoured so no count query is issued.
+	 */
+	@Query("""
+			select o from Order o
+			where (:createdBy is null or o.createdBy = :createdBy)
+			  and (:status is null or o.status = :status)
+			  and (:fromDate is null or o.orderDate >= :fromDate)
+			  and (:toDate is null or o.orderDate < :toDate)
+			order by o.orderDate desc, o.id desc
+			""")
+	List<Order> findFirstPage(@Param("createdBy") String createdBy,
+			@Param("status") OrderStatus status,
+			@Param("fromDate") LocalDateTime fromDate,
+			@Param("toDate") LocalDateTime toDate,
+			Pageable limit);
+
+	/**
+	 * Returns the orders that follow the keyset position (cursorDate, cursorId) in
+	 * (orderDate, id) descending order, applying the same optional filters as {@link #findFirstPage}.
+	 */
+	@Query("""
+			select o from Order o
+			where (:createdBy is null or o.createdBy = :createdBy)
+			  and (:status is null or o.status = :status)
+			  and (:fromDate is null or o.orderDate >= :fromDate)
+			  and (:toDate is null or o.orderDate < :toDate)
+			  and (o.orderDate < :cursorDate or (o.orderDate = :cursorDate and o.id < :cursorId))
+			order by o.orderDate desc, o.id desc
+			""")
+	List<Order> findPageAfter(@Param("createdBy") String createdBy,
+			@Param("status") OrderStatus status,
+			@Param("fromDate") LocalDateTime fromDate,
+			@Param("toDate") LocalDateTime toDate,
+			@Param("cursorDate") LocalDateTime cursorDate,
+			@Param("cursorId") Long cursorId,
+			Pageable limit);
+
+	/**
+	 * Returns order counts and revenue (sum of order totals) grouped by calendar hour and status, for live and
+	 * archived orders alike; the same group may appear once per table. Scans both tables in one statement, so it
+	 * is only meant for rebuilding an in-memory rollup.
+	 */
+	@Query("""
+			select year(o.orderDate) as orderYear, month(o.orderDate) as orderMonth, day(o.orderDate) as orderDay,
+			       hour(o.orderDate) as orderHour, o.status as status, count(o) as orders, sum(o.totalAmount) as revenue
+			from Order o
+			where o.orderDate is not null
+			group by year(o.orderDate), month(o.orderDate), day(o.orderDate), hour(o.orderDate), o.status
+			union all
+			select year(a.orderDate), month(a.orderDate), day(a.orderDate), hour(a.orderDate), a.status,
+			       count(a), sum(a.totalAmount)
+			from ArchivedOrder a
+			where a.orderDate is not null
+			group by year(a.orderDate), month(a.orderDate), day(a.orderDate), hour(a.orderDate), a.status
+			""")
+	List<HourlyTotal> aggregateByHour();
+
+	/**
+	 * Returns, per calendar hour and product, how many orders contain the product and the revenue of their lines
+	 * for it (unit price × quantity), over the lines of live and archived orders; the same group may appear once
+	 * per table. Like {@link #aggregateByHour()} it is only meant for rebuilding an in-memory rollup.
+	 */
+	@Query("""
+			select year(o.orderDate) as orderYear, month(o.orderDate) as orderMonth, day(o.orderDate) as orderDay,
+			       hour(o.orderDate) as orderHour, l.productName as productName,
+			       count(distinct o.id) as orders, sum(l.unitPrice * l.quantity) as revenue
+			from OrderLine l join l.order o
+			where o.orderDate is not null
+			group by year(o.orderDate), month(o.orderDate), day(o.orderDate), hour(o.orderDate), l.productName
+			union all
+			select year(a.orderDate), month(a.orderDate), day(a.orderDate), hour(a.orderDate), l.productName,
+			       count(distinct a.id), sum(l.unitPrice * l.quantity)
+			from ArchivedOrder a join a.lines l
+			where a.orderDate is not null
+			group by year(a.orderDate), month(a.orderDate), day(a.orderDate), hour(a.orderDate), l.productName
+			""")
+	List<HourlyProductTotal> aggregateProductsByHour();
+
+	/**
+	 * Returns the id and version of each listed order in the live table.
+	 */
+	@Query("select o.id as id, o.version as version from Order o where o.id in :ids")
+	List<OrderVersion> findVersions(@Param("ids") Collection<Long> ids);
+
+	/**
+	 * Streams every order matching the optional filters, oldest first, from a forward-only cursor.
+	 * Rows are fetched {@value #EXPORT_FETCH_SIZE} at a time (a server-side cursor on MySQL connections with
+	 * {@code useCursorFetch=true}, i.e. the streaming pool) and are read-only, so callers must consume the stream
+	 * inside a transaction and detach rows they are done with to keep memory constant.
+	 */
+	@QueryHints({
+			@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+	})
+	@Query("""
+			select o from Order o
+			where (:createdBy is null or o.createdBy = :createdBy)
+			  and (:status is null or o.status = :status)
+			  and (:fromDate is null or o.orderDate >= :fromDate)
+			  and (:toDate is null or o.orderDate < :toDate)
+			order by o.orderDate, o.id
+			""")
+	Stream<Order> streamAll(@Param("createdBy") String createdBy,
+			@Param("status") OrderStatus status,
+			@Param("fromDate") LocalDateTime fromDate,
+			@Param("toDate") LocalDateTime toDate);
+
+	/**
+	 * Returns the id and version of the orders with an id greater than {@code afterId} in id order, a page of
+	 * {@code limit} at a time, for comparing the whole table with a copy kept elsewhere.
+	 */
+	@Query("select o.id as id, o.version as version from Order o where o.id > :afterId order by o.id")
+	List<OrderVersion> findVersionsAfter(@Param("afterId") long afterId, Pageable limit);
+
+	/**
+	 * Returns the orders with an id greater than {@code afterId} in id order, a page of {@code limit} at a time,
+	 * for walking the whole table; lines load in batches when first touched.
+	 */
+	@Query("select o from Order o where o.id > :afterId order by o.id")
+	List<Order> findPageByIdAfter(@Param("afterId") long afterId, Pageable limit);
+
+	/**
+	 * Moves an order to {@code next} in a single statement, succeeding only if its version is still the one
+	 * the caller validated the transition against. Every write bumps the version, so a matching version means
+	 * the status is unchanged too.
+	 *
+	 * @return 1 on success, 0 if the order is missing or was modified concurrently
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("""
+			update Order o set o.status = :next, o.version = o.version + 1, o.updatedAt = :changedAt
+			where o.id = :id and o.version = :version
+			""")
+	int transitionStatus(@Param("id") Long id,
+			@Param("next") OrderStatus next,
+			@Param("version") Long version,
+			@Param("changedAt") LocalDateTime changedAt);
+
+	/**
+	 * Returns the ids of orders matching the optional filters in ascending order, for bulk operations.
+	 */
+	@Query("""
+			select o.id from Order o
+			where (:createdBy is null or o.createdBy = :createdBy)
+			  and (:status is null or o.status = :status)
+			  and (:fromDate is null or o.orderDate >= :fromDate)
+			  and (:toDate is null or o.orderDate < :toDate)
+			order by o.id
+			""")
+	List<Long> findIds(@Param("createdBy") String createdBy,
+			@Param("status") OrderStatus status,
+			@Param("fromDate") LocalDateTime fromDate,
+			@Param("toDate") LocalDateTime toDate,
+			Pageable limit);
+
+	/**
+	 * Loads the given orders and locks their rows until the transaction ends, so a bulk statement that
+	 * follows affects exactly the rows checked here. Rows are locked in id order, so two bulk operations over
+	 * overlapping ids wait for each other instead of deadlocking.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select o from Order o where o.id in :ids order by o.id")
+	List<Order> findAllForUpdate(@Param("ids") Collection<Long> ids);
+
+	/**
+	 * Loads and locks the oldest orders in one of {@code statuses} dated before {@code before}, for archiving.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("""
+			select o from Order o
+			where o.status in :statuses and o.orderDate < :before
+			order by o.orderDate, o.id
+			""")
+	List<Order> findArchivable(@Param("statuses") Collection<OrderStatus> statuses,
+			@Param("before") LocalDateTime before,
+			Pageable limit);
+
+	/**
+	 * Sets the status of every listed order in one statement. Callers validate the transitions on rows
+	 * locked with {@link #findAllForUpdate} first.
+	 *
+	 * @return the number of orders changed
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("""
+			update Order o set o.status = :next, o.version = o.version + 1, o.updatedAt = :changedAt
+			where o.id in :ids
+			""")
+	int updateStatuses(@Param("ids") Collection<Long> ids, @Param("next") OrderStatus next,
+			@Param("changedAt") LocalDateTime changedAt);
+
+	/**
+	 * Deletes the lines of the listed orders; run before {@link #deleteAllByIdIn}.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("delete from OrderLine l where l.order.id in :ids")
+	int deleteLinesOf(@Param("ids") Collection<Long> ids);
+
+	/**
+	 * Deletes the listed orders in one statement, without loading them.
+	 *
+	 * @return the number of orders deleted
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("delete from Order o where o.id in :ids")
+	int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+	/**
+	 * Projection of an order count grouped by status.
+	 */
+	interface StatusCount {
+
+		OrderStatus getStatus();
+
+		long getTotal();
+	}
+
+	/**
+	 * Projection of an order's id and version.
+	 */
+	interface OrderVersion {
+
+		Long getId();
+
+		Long getVersion();
+	}
+
+	/**
+	 * Projection of order totals for one (hour, status) combination.
+	 */
+	interface HourlyTotal {
+
+		int getOrderYear();
+
+		int getOrderMonth();
+
+		int getOrderDay();
+
+		int getOrderHour();
+
+		OrderStatus getStatus();
+
+		long getOrders();
+
+		BigDecimal getRevenue();
+	}
+
+	/**
+	 * Projection of order totals for one (hour, product) combination.
+	 */
+	interface HourlyProductTotal {
+
+		int getOrderYear();
+
+		int getOrderMonth();
+
+		int getOrderDay();
+
+		int getOrderHour();
+
+		String getProductName();
+
+		long getOrders();
+
+		BigDecimal getRevenue();
+	}
 }
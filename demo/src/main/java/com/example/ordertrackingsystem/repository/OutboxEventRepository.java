@@ -0,0 +1,33 @@
+package com.example.ordertrackingsystem.repository;
+
+import com.example.ordertrackingsystem.model.OutboxEvent;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data repository for the order change outbox.
+ */
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Returns the oldest rows that may be delivered now, in delivery order: pending rows whose backoff has elapsed
+     * and that are the oldest remaining row of their order. An order whose head row is waiting for a retry, or
+     * {@link OutboxEvent.Status#FAILED failed}, therefore contributes nothing, and cannot fill the page for others.
+     */
+    @Query("""
+            select e from OutboxEvent e
+            where e.status = com.example.ordertrackingsystem.model.OutboxEvent.Status.PENDING
+              and (e.nextAttemptAt is null or e.nextAttemptAt <= :now)
+              and not exists (select 1 from OutboxEvent earlier where earlier.orderId = e.orderId and earlier.id < e.id)
+            order by e.id
+            """)
+    List<OutboxEvent> findDeliverable(@Param("now") Instant now, Pageable limit);
+
+    long countByStatus(OutboxEvent.Status status);
+}
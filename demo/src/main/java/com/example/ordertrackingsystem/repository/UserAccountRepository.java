@@ -1,8 +1,17 @@
 package com.example.ordertrackingsystem.repository;
 
 import com.example.ordertrackingsystem.model.UserAccount;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
 import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Data access layer for persisted user accounts.
@@ -10,4 +19,27 @@ import org.springframework.data.jpa.repository.JpaRepository;
 public interface UserAccountRepository extends JpaRepository<UserAccount, Long> {
 
     Optional<UserAccount> findByUsername(String username);
+
+    boolean existsByUsername(String username);
+
+    /**
+     * Returns the instant before which the user's access tokens are rejected, if any was recorded.
+     */
+    @Query("select u.tokensNotBefore from UserAccount u where u.username = :username")
+    Optional<Instant> findTokensNotBefore(@Param("username") String username);
+
+    /**
+     * Rejects the user's access tokens issued before {@code notBefore}.
+     */
+    @Transactional
+    @Modifying
+    @Query("update UserAccount u set u.tokensNotBefore = :notBefore where u.username = :username")
+    int revokeTokens(@Param("username") String username, @Param("notBefore") Instant notBefore);
+
+    /**
+     * Streams every username; must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.username from UserAccount u")
+    Stream<String> streamUsernames();
 }
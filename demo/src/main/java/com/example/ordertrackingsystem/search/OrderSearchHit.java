@@ -0,0 +1,29 @@
+package com.example.ordertrackingsystem.search;
+
+import com.example.ordertrackingsystem.model.Order;
+import com.example.ordertrackingsystem.model.OrderStatus;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Summary of an order as held by {@link OrderSearchIndex}; fetch {@code /api/orders/{id}} for the full order.
+ * {@code archived} marks orders that have been moved to the archive.
+ */
+public record OrderSearchHit(Long id,
+                             String customerName,
+                             String productName,
+                             OrderStatus status,
+                             LocalDateTime orderDate,
+                             BigDecimal totalAmount,
+                             String createdBy,
+                             boolean archived) {
+
+    static OrderSearchHit of(Order order, boolean archived) {
+        return new OrderSearchHit(order.getId(), order.getCustomerName(), order.getProductName(), order.getStatus(),
+                order.getOrderDate(), order.getTotalAmount(), order.getCreatedBy(), archived);
+    }
+
+    OrderSearchHit asArchived() {
+        return new OrderSearchHit(id, customerName, productName, status, orderDate, totalAmount, createdBy, true);
+    }
+}
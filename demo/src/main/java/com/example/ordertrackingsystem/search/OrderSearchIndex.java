@@ -0,0 +1,185 @@
+package com.example.ordertrackingsystem.search;
+
+import com.example.ordertrackingsystem.archive.OrderArchive;
+import com.example.ordertrackingsystem.archive.OrdersArchivedEvent;
+import com.example.ordertrackingsystem.cluster.CacheInvalidation;
+import com.example.ordertrackingsystem.config.DataSourceRouting;
+import com.example.ordertrackingsystem.config.StartupTask;
+import com.example.ordertrackingsystem.model.Order;
+import com.example.ordertrackingsystem.repository.OrderRepository;
+import com.example.ordertrackingsystem.service.OrderChangedEvent;
+import com.example.ordertrackingsystem.service.OrderFilter;
+import com.example.ordertrackingsystem.service.OrderService;
+import com.example.ordertrackingsystem.service.OrdersChangedEvent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * In-memory search over orders by customer name and (summary) product name. The index is built from a
+ * streaming scan once the application is ready and then follows every committed order write, so searches
+ * never scan the table. Results are {@link OrderSearchHit} summaries served straight from memory. Archived
+ * orders stay indexed, marked as such, and are only returned when asked for.
+ */
+@Component
+public class OrderSearchIndex implements StartupTask {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderSearchIndex.class);
+
+    private final OrderService orderService;
+    private final OrderRepository orderRepository;
+    private final OrderArchive orderArchive;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Guarded by {@link #lock}.
+     */
+    private TextIndex index = new TextIndex();
+    private Map<Long, OrderSearchHit> hits = new HashMap<>();
+
+    /**
+     * Changes committed while a rebuild is scanning the table, replayed onto the new index. Guarded by {@link #lock}.
+     */
+    private List<Change> changesDuringRebuild;
+
+    public OrderSearchIndex(OrderService orderService, OrderRepository orderRepository, OrderArchive orderArchive) {
+        this.orderService = orderService;
+        this.orderRepository = orderRepository;
+        this.orderArchive = orderArchive;
+    }
+
+    @Override
+    public void runAtStartup() {
+        rebuild();
+    }
+
+    /**
+     * Replaces the index with one built from every order, live and archived.
+     */
+    public void rebuild() {
+        withWriteLock(() -> changesDuringRebuild = new ArrayList<>());
+        TextIndex freshIndex = new TextIndex();
+        Map<Long, OrderSearchHit> freshHits = new HashMap<>();
+        long started = System.nanoTime();
+        try {
+            DataSourceRouting.onPrimary(() -> orderService.exportOrders(null, true,
+                    new OrderFilter(null, null, null, null), false, order -> add(freshIndex, freshHits, order, false)));
+            DataSourceRouting.onPrimary(() -> orderService.exportArchivedOrders(
+                    order -> add(freshIndex, freshHits, order, true)));
+        } catch (RuntimeException ex) {
+            withWriteLock(() -> changesDuringRebuild = null);
+            throw ex;
+        }
+        withWriteLock(() -> {
+            changesDuringRebuild.forEach(change -> apply(freshIndex, freshHits, change));
+            changesDuringRebuild = null;
+            index = freshIndex;
+            hits = freshHits;
+        });
+        log.debug("Indexed {} orders for search in {} ms", freshHits.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (event.orderId() == null) {
+            return;
+        }
+        record(new Change(event.orderId(), event.order(), false));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrdersChanged(OrdersChangedEvent event) {
+        event.changes().forEach(this::onOrderChanged);
+    }
+
+    /**
+     * Archived orders keep their entry, marked as archived.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrdersArchived(OrdersArchivedEvent event) {
+        event.orderIds().forEach(id -> record(new Change(id, null, true)));
+    }
+
+    /**
+     * Re-reads an order another instance changed, from the archive if it was archived.
+     */
+    @EventListener
+    public void onRemoteInvalidation(CacheInvalidation invalidation) {
+        if (invalidation.region() == CacheInvalidation.Region.ORDER) {
+            long id = Long.parseLong(invalidation.key());
+            Order live = orderRepository.findById(id).orElse(null);
+            Order archived = live == null ? orderArchive.find(id).orElse(null) : null;
+            record(new Change(id, live != null ? live : archived, archived != null));
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} orders whose customer or product name matches every word of {@code query},
+     * by prefix or with one typo, best matches first. Non-admins only see their own orders, and archived orders
+     * are only included with {@code includeArchived}.
+     */
+    public List<OrderSearchHit> search(String query, String username, boolean isAdmin, boolean includeArchived,
+                                       int limit) {
+        lock.readLock().lock();
+        try {
+            return index.search(query, limit, id -> {
+                OrderSearchHit hit = hits.get(id);
+                return (includeArchived || !hit.archived()) && (isAdmin || username.equals(hit.createdBy()));
+            }).stream()
+                    .map(hits::get)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void record(Change change) {
+        withWriteLock(() -> {
+            apply(index, hits, change);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        });
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void apply(TextIndex index, Map<Long, OrderSearchHit> hits, Change change) {
+        if (change.order() != null) {
+            OrderSearchHit hit = OrderSearchHit.of(change.order(), change.archived());
+            index.put(hit.id(), hit.customerName(), hit.productName());
+            hits.put(hit.id(), hit);
+        } else if (change.archived()) {
+            hits.computeIfPresent(change.id(), (id, hit) -> hit.asArchived());
+        } else {
+            index.remove(change.id());
+            hits.remove(change.id());
+        }
+    }
+
+    private static void add(TextIndex index, Map<Long, OrderSearchHit> hits, Order order, boolean archived) {
+        apply(index, hits, new Change(order.getId(), order, archived));
+    }
+
+    /**
+     * A committed write: the order's new state, or {@code null} when it was deleted. With {@code archived} set,
+     * the order now lives in the archive; a {@code null} order then keeps the entry and only marks it.
+     */
+    private record Change(long id, Order order, boolean archived) {
+    }
+}
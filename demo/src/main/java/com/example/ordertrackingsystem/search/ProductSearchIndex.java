@@ -0,0 +1,120 @@
+package com.example.ordertrackingsystem.search;
+
+import com.example.ordertrackingsystem.cluster.CacheInvalidation;
+import com.example.ordertrackingsystem.config.DataSourceRouting;
+import com.example.ordertrackingsystem.config.StartupTask;
+import com.example.ordertrackingsystem.model.Product;
+import com.example.ordertrackingsystem.service.ProductCatalogChangedEvent;
+import com.example.ordertrackingsystem.service.ProductService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Searchable copy of the product catalog, indexed by name and description. Built once the application is ready
+ * and updated as each catalog write commits, so searches never touch the database.
+ */
+@Component
+public class ProductSearchIndex implements StartupTask {
+
+    private final ProductService productService;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Guarded by {@link #lock}.
+     */
+    private TextIndex index = new TextIndex();
+    private Map<Long, Product> products = new HashMap<>();
+
+    /**
+     * Products written while a rebuild is reading the catalog, replayed onto the new index. Guarded by {@link #lock}.
+     */
+    private List<Product> changesDuringRebuild;
+
+    public ProductSearchIndex(ProductService productService) {
+        this.productService = productService;
+    }
+
+    @Override
+    public void runAtStartup() {
+        rebuild();
+    }
+
+    /**
+     * Replaces the index with one built from the whole catalog.
+     */
+    public void rebuild() {
+        withWriteLock(() -> changesDuringRebuild = new ArrayList<>());
+        List<Product> catalog;
+        try {
+            catalog = DataSourceRouting.onPrimary(productService::getAllProducts);
+        } catch (RuntimeException ex) {
+            withWriteLock(() -> changesDuringRebuild = null);
+            throw ex;
+        }
+        TextIndex freshIndex = new TextIndex();
+        Map<Long, Product> freshProducts = new HashMap<>();
+        catalog.forEach(product -> add(freshIndex, freshProducts, product));
+        withWriteLock(() -> {
+            changesDuringRebuild.forEach(product -> add(freshIndex, freshProducts, product));
+            changesDuringRebuild = null;
+            index = freshIndex;
+            products = freshProducts;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(ProductCatalogChangedEvent event) {
+        if (event.product() == null || event.product().getId() == null) {
+            return;
+        }
+        withWriteLock(() -> {
+            add(index, products, event.product());
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(event.product());
+            }
+        });
+    }
+
+    @EventListener
+    public void onRemoteInvalidation(CacheInvalidation invalidation) {
+        if (invalidation.region() == CacheInvalidation.Region.CATALOG) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} products whose name or description matches every word of {@code query},
+     * by prefix or with one typo, best matches first.
+     */
+    public List<Product> search(String query, int limit) {
+        lock.readLock().lock();
+        try {
+            return index.search(query, limit, id -> true).stream()
+                    .map(products::get)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void add(TextIndex index, Map<Long, Product> products, Product product) {
+        index.put(product.getId(), product.getName(), product.getDescription());
+        products.put(product.getId(), product);
+    }
+}
@@ -0,0 +1,313 @@
+package com.example.ordertrackingsystem.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.LongPredicate;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index from normalized terms to document ids, supporting exact, prefix and one-typo matches.
+ * Prefix matches walk a sorted term map; typo matches use a symmetric-deletion table (each term is also filed
+ * under every variant with one character removed), so neither scans the vocabulary. Every query term must match
+ * for a document to be returned. Posting lists are sorted id arrays, walked newest first, so a query stops as
+ * soon as it holds {@code limit} documents that no older document could outrank. Not thread-safe; callers
+ * guard it with a lock.
+ */
+public class TextIndex {
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int EXACT_SCORE = 3;
+    private static final int PREFIX_SCORE = 2;
+    private static final int FUZZY_SCORE = 1;
+
+    private final Map<Long, Set<String>> documentTerms = new HashMap<>();
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+    private final Map<String, Set<String>> deletionVariants = new HashMap<>();
+
+    /**
+     * Indexes (or re-indexes) document {@code id} under the terms of {@code fields}; {@code null} fields are skipped.
+     */
+    public void put(long id, String... fields) {
+        remove(id);
+        Set<String> terms = new HashSet<>();
+        for (String field : fields) {
+            terms.addAll(tokenize(field));
+        }
+        if (terms.isEmpty()) {
+            return;
+        }
+        documentTerms.put(id, terms);
+        for (String term : terms) {
+            Postings documents = postings.get(term);
+            if (documents == null) {
+                documents = new Postings();
+                postings.put(term, documents);
+                for (String variant : deletions(term)) {
+                    deletionVariants.computeIfAbsent(variant, key -> new HashSet<>()).add(term);
+                }
+            }
+            documents.add(id);
+        }
+    }
+
+    public void remove(long id) {
+        Set<String> terms = documentTerms.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Postings documents = postings.get(term);
+            documents.remove(id);
+            if (documents.size == 0) {
+                postings.remove(term);
+                for (String variant : deletions(term)) {
+                    Set<String> variantTerms = deletionVariants.get(variant);
+                    variantTerms.remove(term);
+                    if (variantTerms.isEmpty()) {
+                        deletionVariants.remove(variant);
+                    }
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return documentTerms.size();
+    }
+
+    /**
+     * Returns the ids of the best {@code limit} documents accepted by {@code filter} that match every term of
+     * {@code query}, best first. Each query term scores its best match in the document: exact over prefix over
+     * one typo. Ties go to the higher (newer) id.
+     */
+    public List<Long> search(String query, int limit, LongPredicate filter) {
+        List<List<Match>> perTerm = new ArrayList<>();
+        int maxScore = 0;
+        for (String term : new LinkedHashSet<>(tokenize(query))) {
+            List<Match> matches = match(term);
+            if (matches.isEmpty()) {
+                return List.of();
+            }
+            perTerm.add(matches);
+            maxScore += matches.stream().mapToInt(Match::score).max().orElse(0);
+        }
+        if (perTerm.isEmpty()) {
+            return List.of();
+        }
+        // Drive the walk with the rarest term and probe the others.
+        perTerm.sort(Comparator.comparingLong(matches -> matches.stream().mapToLong(match -> match.postings().size).sum()));
+
+        PriorityQueue<Cursor> walk = new PriorityQueue<>(Comparator.comparingLong(Cursor::current).reversed());
+        for (Match match : perTerm.get(0)) {
+            walk.add(new Cursor(match));
+        }
+        PriorityQueue<long[]> best = new PriorityQueue<>(
+                Comparator.<long[]>comparingLong(hit -> hit[1]).thenComparingLong(hit -> hit[0]));
+        candidates:
+        while (!walk.isEmpty()) {
+            if (best.size() == limit && best.peek()[1] == maxScore) {
+                break;
+            }
+            Cursor cursor = walk.poll();
+            long id = cursor.current();
+            int score = cursor.match.score();
+            advance(walk, cursor);
+            while (!walk.isEmpty() && walk.peek().current() == id) {
+                Cursor duplicate = walk.poll();
+                score = Math.max(score, duplicate.match.score());
+                advance(walk, duplicate);
+            }
+            for (int i = 1; i < perTerm.size(); i++) {
+                int termScore = 0;
+                for (Match match : perTerm.get(i)) {
+                    if (match.score() > termScore && match.postings().contains(id)) {
+                        termScore = match.score();
+                    }
+                }
+                if (termScore == 0) {
+                    continue candidates;
+                }
+                score += termScore;
+            }
+            if (!filter.test(id)) {
+                continue;
+            }
+            best.add(new long[] {id, score});
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        List<Long> ids = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            ids.add(best.poll()[0]);
+        }
+        Collections.reverse(ids);
+        return ids;
+    }
+
+    private static void advance(PriorityQueue<Cursor> walk, Cursor cursor) {
+        if (--cursor.position >= 0) {
+            walk.add(cursor);
+        }
+    }
+
+    /**
+     * The indexed terms {@code term} matches, each with the score of its best kind of match.
+     */
+    private List<Match> match(String term) {
+        Map<String, Integer> scores = new HashMap<>();
+        if (term.length() >= MIN_FUZZY_LENGTH) {
+            for (String variant : deletions(term)) {
+                for (String candidate : deletionVariants.getOrDefault(variant, Set.of())) {
+                    if (withinOneEdit(term, candidate)) {
+                        scores.put(candidate, FUZZY_SCORE);
+                    }
+                }
+            }
+        }
+        if (term.length() >= MIN_PREFIX_LENGTH) {
+            postings.subMap(term, true, term + Character.MAX_VALUE, false).keySet()
+                    .forEach(candidate -> scores.put(candidate, PREFIX_SCORE));
+        }
+        if (postings.containsKey(term)) {
+            scores.put(term, EXACT_SCORE);
+        }
+        List<Match> matches = new ArrayList<>(scores.size());
+        scores.forEach((candidate, score) -> matches.add(new Match(postings.get(candidate), score)));
+        return matches;
+    }
+
+    /**
+     * Lowercases, strips accents and splits on anything that is not a letter or digit.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> terms = new ArrayList<>();
+        for (String token : NON_WORD.split(folded)) {
+            if (!token.isEmpty()) {
+                terms.add(token);
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * The term itself plus every variant with one character removed, for terms long enough to be typo-matched.
+     */
+    private static Set<String> deletions(String term) {
+        if (term.length() < MIN_FUZZY_LENGTH - 1) {
+            return Set.of();
+        }
+        Set<String> variants = new HashSet<>(term.length() + 1);
+        variants.add(term);
+        for (int i = 0; i < term.length(); i++) {
+            variants.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return variants;
+    }
+
+    /**
+     * Whether {@code a} and {@code b} differ by at most one insertion, deletion, substitution or adjacent swap.
+     */
+    private static boolean withinOneEdit(String a, String b) {
+        int lengthDifference = a.length() - b.length();
+        if (Math.abs(lengthDifference) > 1) {
+            return false;
+        }
+        int prefix = 0;
+        int shorter = Math.min(a.length(), b.length());
+        while (prefix < shorter && a.charAt(prefix) == b.charAt(prefix)) {
+            prefix++;
+        }
+        if (lengthDifference > 0) {
+            return a.substring(prefix + 1).equals(b.substring(prefix));
+        }
+        if (lengthDifference < 0) {
+            return a.substring(prefix).equals(b.substring(prefix + 1));
+        }
+        if (prefix == a.length() || a.substring(prefix + 1).equals(b.substring(prefix + 1))) {
+            return true;
+        }
+        return prefix + 1 < a.length()
+                && a.charAt(prefix) == b.charAt(prefix + 1)
+                && a.charAt(prefix + 1) == b.charAt(prefix)
+                && a.substring(prefix + 2).equals(b.substring(prefix + 2));
+    }
+
+    private record Match(Postings postings, int score) {
+    }
+
+    /**
+     * Walks one posting list from its highest id down.
+     */
+    private static final class Cursor {
+
+        private final Match match;
+        private int position;
+
+        private Cursor(Match match) {
+            this.match = match;
+            this.position = match.postings().size - 1;
+        }
+
+        private long current() {
+            return match.postings().ids[position];
+        }
+    }
+
+    /**
+     * Sorted, duplicate-free ids of the documents containing one term. New orders get increasing ids, so adds
+     * are almost always appends.
+     */
+    private static final class Postings {
+
+        private long[] ids = new long[2];
+        private int size;
+
+        private void add(long id) {
+            int index = size == 0 || ids[size - 1] < id ? -(size + 1) : Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                return;
+            }
+            int insertAt = -(index + 1);
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        private void remove(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) {
+                System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+                size--;
+            }
+        }
+
+        private boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+}
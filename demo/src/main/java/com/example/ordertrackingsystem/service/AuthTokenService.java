@@ -0,0 +1,215 @@
+package com.example.ordertrackingsystem.service;
+
+import com.example.ordertrackingsystem.cache.ExpiringLruCache;
+import com.example.ordertrackingsystem.cluster.CacheInvalidation;
+import com.example.ordertrackingsystem.cluster.InvalidationChannel;
+import com.example.ordertrackingsystem.repository.UserAccountRepository;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Issues and verifies signed access tokens for the stateless authentication mode. A token carries the username,
+ * the granted authorities and its issue and expiry times, signed with HMAC-SHA256, so any node sharing
+ * {@code security.auth.token-secret} can verify it without a session. Each account has a revocation epoch in
+ * {@code user_accounts.tokens_not_before}, moved forward when the account changes or the user logs out; tokens
+ * issued before it are rejected. Epochs are read through a short per-user cache, which revocations on this
+ * instance update and the cluster invalidation channel clears, so a lost invalidation delays a revocation on
+ * other instances by at most {@code security.auth.revocation-cache-ttl}.
+ */
+@Component
+public class AuthTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthTokenService.class);
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_LENGTH = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec signingKey;
+    private final Duration ttl;
+    private final Clock clock;
+    private final UserAccountRepository userAccountRepository;
+    private final InvalidationChannel invalidationChannel;
+
+    /**
+     * Earliest issue time (epoch millis) still accepted per username, {@link Long#MIN_VALUE} when never revoked.
+     */
+    private final ExpiringLruCache<String, Long> notBefore;
+
+    public AuthTokenService(UserAccountRepository userAccountRepository,
+                            InvalidationChannel invalidationChannel,
+                            @Value("${security.auth.token-secret:}") String secret,
+                            @Value("${security.auth.token-ttl:PT8H}") Duration ttl,
+                            @Value("${security.auth.mode:session}") String authMode,
+                            @Value("${security.auth.revocation-cache-ttl:PT10S}") Duration revocationCacheTtl,
+                            @Value("${security.auth.revocation-cache-max-entries:100000}") int revocationCacheMaxEntries) {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            if ("token".equalsIgnoreCase(authMode)) {
+                log.warn("security.auth.token-secret is not set; tokens will only be accepted by this instance"
+                        + " until it restarts.");
+            }
+        } else if (secret.length() < MIN_SECRET_LENGTH) {
+            throw new IllegalStateException("security.auth.token-secret must be at least " + MIN_SECRET_LENGTH + " characters.");
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.signingKey = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+        this.ttl = ttl;
+        this.clock = Clock.systemUTC();
+        this.userAccountRepository = userAccountRepository;
+        this.invalidationChannel = invalidationChannel;
+        this.notBefore = new ExpiringLruCache<>(revocationCacheMaxEntries, revocationCacheTtl);
+    }
+
+    /**
+     * Issues a token for an authenticated principal.
+     */
+    public IssuedToken issue(Authentication authentication) {
+        String username = normalize(authentication.getName());
+        Instant issuedAt = clock.instant();
+        Instant expiresAt = issuedAt.plus(ttl);
+        String authorities = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.joining(","));
+        String claims = String.join("\n", username, authorities,
+                Long.toString(issuedAt.toEpochMilli()), Long.toString(expiresAt.toEpochMilli()));
+        String payload = ENCODER.encodeToString(claims.getBytes(StandardCharsets.UTF_8));
+        return new IssuedToken(payload + "." + ENCODER.encodeToString(sign(payload)), expiresAt);
+    }
+
+    /**
+     * Returns the authentication carried by {@code token} if its signature is valid and it is neither expired
+     * nor revoked.
+     */
+    public Optional<Authentication> verify(String token) {
+        int separator = token.indexOf('.');
+        if (separator <= 0) {
+            return Optional.empty();
+        }
+        String payload = token.substring(0, separator);
+        try {
+            byte[] signature = DECODER.decode(token.substring(separator + 1));
+            if (!MessageDigest.isEqual(signature, sign(payload))) {
+                return Optional.empty();
+            }
+            String[] claims = new String(DECODER.decode(payload), StandardCharsets.UTF_8).split("\n", -1);
+            if (claims.length != 4) {
+                return Optional.empty();
+            }
+            String username = claims[0];
+            long issuedAt = Long.parseLong(claims[2]);
+            long expiresAt = Long.parseLong(claims[3]);
+            if (expiresAt <= clock.millis() || issuedAt < notBefore(username)) {
+                return Optional.empty();
+            }
+            List<GrantedAuthority> authorities = claims[1].isEmpty()
+                    ? List.of()
+                    : Arrays.stream(claims[1].split(","))
+                            .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                            .toList();
+            return Optional.of(UsernamePasswordAuthenticationToken.authenticated(username, null, authorities));
+        } catch (IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Rejects every token issued to {@code username} up to now, on every instance; used on logout.
+     */
+    public void revoke(String username) {
+        String normalized = persistRevocation(username);
+        invalidationChannel.broadcast(new CacheInvalidation(CacheInvalidation.Region.USER, normalized));
+    }
+
+    /**
+     * Account changes are broadcast by the invalidation broadcaster, so only the epoch is recorded here. The
+     * account's transaction has already committed, so the update runs in a new one.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onAccountChanged(UserAccountChangedEvent event) {
+        persistRevocation(event.username());
+    }
+
+    @EventListener
+    public void onRemoteInvalidation(CacheInvalidation invalidation) {
+        if (invalidation.region() == CacheInvalidation.Region.USER) {
+            notBefore.invalidate(normalize(invalidation.key()));
+        }
+    }
+
+    private String persistRevocation(String username) {
+        String normalized = normalize(username);
+        Instant now = clock.instant();
+        userAccountRepository.revokeTokens(normalized, now);
+        notBefore.put(normalized, now.toEpochMilli());
+        return normalized;
+    }
+
+    private long notBefore(String username) {
+        Long cached = notBefore.get(username);
+        if (cached != null) {
+            return cached;
+        }
+        long loaded = userAccountRepository.findTokensNotBefore(username)
+                .map(Instant::toEpochMilli)
+                .orElse(Long.MIN_VALUE);
+        // Epochs only move forward; keep a revocation recorded here while the row was being read.
+        Long recorded = notBefore.get(username);
+        long epoch = recorded != null ? Math.max(recorded, loaded) : loaded;
+        notBefore.put(username, epoch);
+        return epoch;
+    }
+
+    public Duration ttl() {
+        return ttl;
+    }
+
+    private byte[] sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            return mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HMAC-SHA256 is not available.", ex);
+        }
+    }
+
+    private static String normalize(String username) {
+        return username == null ? "" : username.trim().toLowerCase(Locale.US);
+    }
+
+    /**
+     * A signed token and the instant it stops being accepted.
+     */
+    public record IssuedToken(String token, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.ordertrackingsystem.service;
+
+import com.example.ordertrackingsystem.cache.ExpiringLruCache;
+import com.example.ordertrackingsystem.cluster.CacheInvalidation;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Locale;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers recently verified username/password pairs so repeated HTTP Basic requests skip the
+ * user lookup and the BCrypt comparison. Entries are keyed by an HMAC of the presented credentials
+ * under a random per-process key, so raw secrets are never held in memory by the cache.
+ */
+@Component
+public class AuthenticationCache {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final ExpiringLruCache<String, Authentication> cache;
+    private final SecretKeySpec hmacKey;
+
+    public AuthenticationCache(@Value("${security.auth-cache.max-entries:10000}") int maxEntries,
+                               @Value("${security.auth-cache.ttl:PT5M}") Duration ttl,
+                               MeterRegistry meterRegistry) {
+        this.cache = new ExpiringLruCache<>(maxEntries, ttl);
+        byte[] keyBytes = new byte[32];
+        new SecureRandom().nextBytes(keyBytes);
+        this.hmacKey = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+
+        FunctionCounter.builder("auth.cache.requests", cache, ExpiringLruCache::hitCount)
+                .tag("result", "hit")
+                .description("Credential checks answered from the authentication cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("auth.cache.requests", cache, ExpiringLruCache::missCount)
+                .tag("result", "miss")
+                .description("Credential checks that required a full password verification")
+                .register(meterRegistry);
+        Gauge.builder("auth.cache.size", cache, ExpiringLruCache::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the authentication previously produced for these exact credentials, if still fresh.
+     */
+    public Authentication get(String username, String password) {
+        return cache.get(key(username, password));
+    }
+
+    /**
+     * Whether these exact credentials were verified recently; does not count towards the hit and miss metrics.
+     */
+    public boolean contains(String username, String password) {
+        return cache.contains(key(username, password));
+    }
+
+    /**
+     * Records a successful authentication for the presented credentials.
+     */
+    public void put(String username, String password, Authentication authentication) {
+        cache.put(key(username, password), authentication);
+    }
+
+    /**
+     * Drops every cached authentication for {@code username}; call whenever the account changes.
+     */
+    public void invalidate(String username) {
+        String normalized = normalize(username);
+        cache.invalidateIf((key, authentication) -> normalized.equals(normalize(authentication.getName())));
+    }
+
+    @EventListener
+    public void onRemoteInvalidation(CacheInvalidation invalidation) {
+        if (invalidation.region() == CacheInvalidation.Region.USER) {
+            invalidate(invalidation.key());
+        }
+    }
+
+    private String key(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hmacKey);
+            mac.update(normalize(username).getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            byte[] digest = mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HMAC-SHA256 is not available.", ex);
+        }
+    }
+
+    private String normalize(String username) {
+        return username == null ? "" : username.trim().toLowerCase(Locale.US);
+    }
+}
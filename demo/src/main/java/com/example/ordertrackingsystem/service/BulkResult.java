@@ -0,0 +1,33 @@
+package com.example.ordertrackingsystem.service;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk order operation, one entry per requested order in request order.
+ *
+ * @param succeeded number of orders changed
+ * @param hasMore   whether a filter matched more orders than one request processes; repeat the call for the rest
+ * @param results   per-order outcomes
+ */
+public record BulkResult(int succeeded, boolean hasMore, List<Outcome> results) {
+
+    /**
+     * @param id      order identifier
+     * @param result  what happened to the order
+     * @param message why the order was skipped, or {@code null}
+     */
+    public record Outcome(Long id, Result result, String message) {
+    }
+
+    public enum Result {
+        UPDATED,
+        DELETED,
+        UNCHANGED,
+        NOT_FOUND,
+        CONFLICT;
+
+        boolean isSuccess() {
+            return this == UPDATED || this == DELETED;
+        }
+    }
+}
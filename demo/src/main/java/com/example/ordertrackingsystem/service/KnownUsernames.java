@@ -0,0 +1,118 @@
+package com.example.ordertrackingsystem.service;
+
+import com.example.ordertrackingsystem.cache.BloomFilter;
+import com.example.ordertrackingsystem.cluster.CacheInvalidation;
+import com.example.ordertrackingsystem.config.StartupTask;
+import com.example.ordertrackingsystem.repository.UserAccountRepository;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Bloom filter of every registered username, so registration only queries {@code user_accounts} when the name
+ * may already be taken. It is built from the table once the application is ready and extended as accounts are
+ * created here or, through cache invalidations, on other instances. A missed name only costs the insert: the
+ * unique constraint on the username still rejects the duplicate.
+ */
+@Component
+public class KnownUsernames implements StartupTask {
+
+    private static final Logger log = LoggerFactory.getLogger(KnownUsernames.class);
+
+    private final UserAccountRepository userAccountRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    /**
+     * Filter consulted by {@link #mightExist}; {@code null} until the first build finishes.
+     */
+    private volatile BloomFilter filter;
+
+    /**
+     * Filter being filled by a rebuild, which must also see names added meanwhile.
+     */
+    private volatile BloomFilter building;
+
+    public KnownUsernames(UserAccountRepository userAccountRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${security.registration.expected-users:1000000}") long expectedUsers,
+                          @Value("${security.registration.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userAccountRepository = userAccountRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * Whether {@code username} may belong to an existing account. {@code false} is definite.
+     */
+    public boolean mightExist(String username) {
+        BloomFilter current = filter;
+        return current == null || current.mightContain(username);
+    }
+
+    public void add(String username) {
+        // Read the rebuild target first: once it is cleared, the finished filter is already published.
+        BloomFilter next = building;
+        if (next != null) {
+            next.add(username);
+        }
+        BloomFilter current = filter;
+        if (current != null) {
+            current.add(username);
+            if (current.isSaturated() && rebuilding.compareAndSet(false, true)) {
+                CompletableFuture.runAsync(this::rebuild);
+            }
+        }
+    }
+
+    @Override
+    public void runAtStartup() {
+        rebuilding.set(true);
+        rebuild();
+    }
+
+    @EventListener
+    public void onRemoteInvalidation(CacheInvalidation invalidation) {
+        if (invalidation.region() == CacheInvalidation.Region.USER && invalidation.key() != null) {
+            add(invalidation.key());
+        }
+    }
+
+    /**
+     * Sizes a new filter for twice the current user count (at least {@code expected-users}) and fills it.
+     */
+    void rebuild() {
+        try {
+            long started = System.nanoTime();
+            long users = userAccountRepository.count();
+            BloomFilter next = new BloomFilter(Math.max(expectedUsers, users * 2), falsePositiveRate);
+            building = next;
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<String> usernames = userAccountRepository.streamUsernames()) {
+                    usernames.forEach(next::add);
+                }
+            });
+            filter = next;
+            building = null;
+            log.info("Indexed {} usernames in {} ms ({} KiB)", users,
+                    Duration.ofNanos(System.nanoTime() - started).toMillis(), next.sizeInBytes() / 1024);
+        } catch (RuntimeException ex) {
+            building = null;
+            log.warn("Could not build the username filter; registration checks the database instead.", ex);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.ordertrackingsystem.service;
+
+import com.example.ordertrackingsystem.model.Order;
+import com.example.ordertrackingsystem.model.OrderStatus;
+
+/**
+ * Published by {@link OrderService} whenever an order is written. Listeners that keep derived state
+ * (caches, streams) should react after the surrounding transaction commits.
+ *
+ * @param type     what happened to the order
+ * @param orderId  identifier of the affected order
+ * @param order    state after the change, or {@code null} when the order was deleted
+ * @param previous unmanaged copy of the state before the change, or {@code null} when the order was created
+ */
+public record OrderChangedEvent(ChangeType type, Long orderId, Order order, Order previous) {
+
+    /**
+     * Status before the change, or {@code null} for newly created orders.
+     */
+    public OrderStatus previousStatus() {
+        return previous != null ? previous.getStatus() : null;
+    }
+
+    /**
+     * Kinds of writes performed on an order.
+     */
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        STATUS_CHANGED,
+        CANCELLED,
+        DELETED
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.ordertrackingsystem.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position inside the (orderDate desc, id desc) ordering used for order listings.
+ * Serialized as an opaque URL-safe token so clients never build cursors themselves.
+ */
+public record OrderCursor(LocalDateTime orderDate, long id) {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * Encodes the cursor as an opaque token.
+     */
+    public String encode() {
+        String raw = orderDate.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}, rejecting anything malformed.
+     */
+    public static OrderCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Malformed cursor.");
+            }
+            return new OrderCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (DateTimeParseException | IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Malformed cursor.", ex);
+        }
+    }
+}
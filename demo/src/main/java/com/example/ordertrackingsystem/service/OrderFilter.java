@@ -0,0 +1,22 @@
+package com.example.ordertrackingsystem.service;
+
+import com.example.ordertrackingsystem.model.OrderStatus;
+import java.time.LocalDateTime;
+
+/**
+ * Optional criteria used to narrow an order listing; {@code null} fields are ignored.
+ *
+ * @param status    exact status to match
+ * @param createdBy owner username to match
+ * @param from      inclusive lower bound on the order date
+ * @param to        exclusive upper bound on the order date
+ */
+public record OrderFilter(OrderStatus status, String createdBy, LocalDateTime from, LocalDateTime to) {
+
+    /**
+     * Returns a copy of this filter restricted to the given owner.
+     */
+    public OrderFilter ownedBy(String username) {
+        return new OrderFilter(status, username, from, to);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.ordertrackingsystem.service;
+
+import com.example.ordertrackingsystem.model.OrderStatus;
+import com.example.ordertrackingsystem.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import java.util.Objects;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Records order lifecycle metrics: counters for committed creations, cancellations and status
+ * transitions, and a periodically refreshed gauge of how many orders sit in each status.
+ */
+@Component
+public class OrderMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final OrderRepository orderRepository;
+    private final Counter created;
+    private final Counter cancelled;
+    private final Counter deleted;
+    private final MultiGauge ordersByStatus;
+
+    public OrderMetrics(MeterRegistry meterRegistry, OrderRepository orderRepository) {
+        this.meterRegistry = meterRegistry;
+        this.orderRepository = orderRepository;
+        this.created = lifecycleCounter("created");
+        this.cancelled = lifecycleCounter("cancelled");
+        this.deleted = lifecycleCounter("deleted");
+        this.ordersByStatus = MultiGauge.builder("orders.by.status")
+                .description("Orders currently in each status")
+                .register(meterRegistry);
+    }
+
+    /**
+     * One counter per lifecycle event, tagged rather than named, because Prometheus reserves the {@code _created} suffix.
+     */
+    private Counter lifecycleCounter(String event) {
+        return Counter.builder("orders.lifecycle")
+                .description("Committed order lifecycle events")
+                .tag("event", event)
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        switch (event.type()) {
+            case CREATED -> created.increment();
+            case CANCELLED -> cancelled.increment();
+            case DELETED -> deleted.increment();
+            default -> {
+            }
+        }
+
+        OrderStatus from = event.previousStatus();
+        OrderStatus to = event.order() != null ? event.order().getStatus() : null;
+        if (from != null && to != null && from != to) {
+            meterRegistry.counter("orders.status.transitions", "from", from.label(), "to", to.label()).increment();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrdersChanged(OrdersChangedEvent event) {
+        event.changes().forEach(this::onOrderChanged);
+    }
+
+    /**
+     * Refreshes the per-status gauge from a single grouped count query.
+     */
+    @Scheduled(fixedDelayString = "${orders.metrics.status-refresh:PT30S}", initialDelayString = "PT5S")
+    public void refreshStatusGauge() {
+        ordersByStatus.register(orderRepository.countByStatus().stream()
+                .map(count -> MultiGauge.Row.of(Tags.of("status", Objects.toString(count.getStatus(), "none")),
+                        count.getTotal()))
+                .toList(), true);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.ordertrackingsystem.service;
+
+import com.example.ordertrackingsystem.model.Order;
+import java.util.List;
+
+/**
+ * One slice of an order listing together with the token needed to fetch the next slice.
+ *
+ * @param items      orders on this page, newest first
+ * @param nextCursor opaque cursor for the following page, or {@code null} when this is the last page
+ */
+public record OrderPage(List<Order> items, String nextCursor) {
+}
@@ -0,0 +1,783 @@
+package com.example.ordertrackingsystem.service;
+
+import com.example.ordertrackingsystem.archive.OrdersArchivedEvent;
+import com.example.ordertrackingsystem.cache.LongObjectMap;
+import com.example.ordertrackingsystem.cluster.CacheInvalidation;
+import com.example.ordertrackingsystem.config.StartupTask;
+import com.example.ordertrackingsystem.journal.OrderJournal;
+import com.example.ordertrackingsystem.model.Order;
+import com.example.ordertrackingsystem.model.OrderLine;
+import com.example.ordertrackingsystem.model.OrderStatus;
+import com.example.ordertrackingsystem.repository.OrderRepository;
+import com.example.ordertrackingsystem.repository.OrderRepository.OrderVersion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Optional in-memory copy of every live order ({@code orders.projection.enabled}), so {@link OrderService} can
+ * answer lookups by id, by owner and listing pages without a transaction, a connection or a persistence context.
+ * Orders are held as compact immutable entries (primitive ids, versions and timestamps) in a map keyed by
+ * primitive id, with listing indexes of (orderDate, id) pairs in sorted primitive arrays, one over all orders and
+ * one per owner, and are turned into fresh {@link Order} objects on read.
+ *
+ * <p>The projection is loaded page by page once the application is ready, from the {@link OrderJournal} when
+ * there is one, and then follows every committed order write, on this instance directly and on others through
+ * cache invalidations. Invalidations can be lost (and are not sent at all with the {@code none} channel), so
+ * every {@code orders.projection.resync-interval} the stored versions are compared with the projected ones and
+ * differing orders are reloaded; that interval bounds how stale the projection can get. Until the first load
+ * finishes, and for archived orders, lookups return {@code null} and callers go to the database.
+ */
+@Component
+public class OrderProjection implements StartupTask {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderProjection.class);
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    /**
+     * Stored for a missing id or date.
+     */
+    private static final long NONE = Long.MIN_VALUE;
+
+    private final boolean enabled;
+    private final OrderRepository orderRepository;
+    private final ObjectProvider<OrderJournal> journal;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Counter resyncCorrections;
+
+    /**
+     * Guarded by {@link #lock}.
+     */
+    private Indexes indexes = new Indexes(16);
+
+    /**
+     * Changes committed while a rebuild is reading the table, replayed onto the new projection. Guarded by
+     * {@link #lock}.
+     */
+    private List<Change> changesDuringRebuild;
+
+    private volatile boolean ready;
+
+    public OrderProjection(@Value("${orders.projection.enabled:false}") boolean enabled,
+                           OrderRepository orderRepository,
+                           ObjectProvider<OrderJournal> journal,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.orderRepository = orderRepository;
+        this.journal = journal;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.resyncCorrections = Counter.builder("orders.projection.resync.corrections")
+                .description("Projected orders found stale by the periodic resync and reloaded")
+                .register(meterRegistry);
+        if (enabled) {
+            Gauge.builder("orders.projection.orders", this, OrderProjection::size)
+                    .description("Orders held by the in-memory projection")
+                    .register(meterRegistry);
+            Gauge.builder("orders.projection.memory", this, OrderProjection::estimateMemory)
+                    .description("Estimated heap used by the in-memory projection")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+            Gauge.builder("orders.projection.memory.per.order", this, OrderProjection::estimateMemoryPerOrder)
+                    .description("Estimated heap used by the in-memory projection per order")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public void runAtStartup() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Replaces the projection with one loaded from the {@code orders} table, {@value #REBUILD_PAGE_SIZE} orders
+     * per read-only transaction. With a journal, only ids and versions are read for most orders: an order whose
+     * latest journal entry has the stored version is taken from the journal, and only the others are read in full.
+     */
+    public void rebuild() {
+        withWriteLock(() -> changesDuringRebuild = new ArrayList<>());
+        Indexes fresh = new Indexes((int) Math.min(Integer.MAX_VALUE, orderRepository.count()));
+        long started = System.nanoTime();
+        try {
+            OrderJournal source = journal.getIfAvailable();
+            long afterId = Long.MIN_VALUE;
+            List<Entry> page;
+            do {
+                long from = afterId;
+                page = source != null ? loadPage(from, source) : readOnlyTransaction.execute(status -> orderRepository
+                        .findPageByIdAfter(from, PageRequest.ofSize(REBUILD_PAGE_SIZE)).stream()
+                        .map(Entry::of)
+                        .toList());
+                for (Entry entry : page) {
+                    fresh.put(entry);
+                    afterId = entry.id();
+                }
+            } while (page.size() == REBUILD_PAGE_SIZE);
+        } catch (RuntimeException ex) {
+            withWriteLock(() -> changesDuringRebuild = null);
+            log.warn("Could not load the order projection; order reads go to the database.", ex);
+            return;
+        }
+        withWriteLock(() -> {
+            changesDuringRebuild.forEach(fresh::apply);
+            changesDuringRebuild = null;
+            indexes = fresh;
+        });
+        ready = true;
+        log.info("Projected {} orders in {} ms, about {} bytes per order", size(),
+                (System.nanoTime() - started) / 1_000_000, Math.round(estimateMemoryPerOrder()));
+    }
+
+    /**
+     * Reads the ids and versions of the next page, takes the orders whose latest journal entry matches from the
+     * journal and reads the rest, in id order.
+     */
+    private List<Entry> loadPage(long afterId, OrderJournal source) {
+        return readOnlyTransaction.execute(status -> {
+            List<OrderVersion> versions = orderRepository.findVersionsAfter(afterId, PageRequest.ofSize(REBUILD_PAGE_SIZE));
+            Map<Long, Entry> entries = new HashMap<>();
+            List<Long> missing = new ArrayList<>();
+            for (OrderVersion row : versions) {
+                Order recorded = source.latestState(row.getId());
+                if (recorded != null && Objects.equals(recorded.getVersion(), row.getVersion())) {
+                    entries.put(row.getId(), Entry.of(recorded));
+                } else {
+                    missing.add(row.getId());
+                }
+            }
+            if (!missing.isEmpty()) {
+                orderRepository.findAllById(missing).forEach(order -> entries.put(order.getId(), Entry.of(order)));
+            }
+            List<Entry> page = new ArrayList<>(versions.size());
+            for (OrderVersion row : versions) {
+                Entry entry = entries.get(row.getId());
+                if (entry != null) {
+                    page.add(entry);
+                }
+            }
+            return page;
+        });
+    }
+
+    /**
+     * Captures the new state while the transaction (and any lazy lines) is still open, and applies it once the
+     * transaction has committed, so readers never see uncommitted orders.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        capture(List.of(event));
+    }
+
+    /**
+     * Like {@link #onOrderChanged}, applying the whole chunk under one lock.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onOrdersChanged(OrdersChangedEvent event) {
+        capture(event.changes());
+    }
+
+    private void capture(List<OrderChangedEvent> events) {
+        if (!enabled) {
+            return;
+        }
+        List<Change> changes = new ArrayList<>(events.size());
+        for (OrderChangedEvent event : events) {
+            if (event.order() != null) {
+                changes.add(Change.upsert(Entry.of(event.order())));
+            } else if (event.orderId() != null) {
+                changes.add(Change.deleted(event.orderId(),
+                        event.previous() != null ? toPrimitive(event.previous().getVersion()) : Long.MAX_VALUE));
+            }
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(changes);
+                }
+            });
+        } else {
+            record(changes);
+        }
+    }
+
+    /**
+     * Archived orders leave the projection; lookups for them fall through to the archive.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrdersArchived(OrdersArchivedEvent event) {
+        if (enabled) {
+            event.orderIds().forEach(id -> record(Change.deleted(id, Long.MAX_VALUE)));
+        }
+    }
+
+    /**
+     * Re-reads an order another instance changed.
+     */
+    @EventListener
+    public void onRemoteInvalidation(CacheInvalidation invalidation) {
+        if (enabled && invalidation.region() == CacheInvalidation.Region.ORDER) {
+            long id = Long.parseLong(invalidation.key());
+            record(orderRepository.findById(id).map(Entry::of).map(Change::upsert)
+                    .orElseGet(() -> Change.deleted(id, Long.MAX_VALUE)));
+        }
+    }
+
+    /**
+     * Compares the stored version of every order with the projected one, in pages of {@value #REBUILD_PAGE_SIZE}
+     * ids, and reloads orders that differ, are missing, or are projected but no longer in the table. This repairs
+     * changes whose invalidation never arrived. A correction is dropped if the order changed meanwhile, since the
+     * newer change is already applied. Each pass also forgets deletions older than the previous pass.
+     */
+    @Scheduled(initialDelayString = "${orders.projection.resync-interval:PT5M}",
+            fixedDelayString = "${orders.projection.resync-interval:PT5M}")
+    public void resync() {
+        if (!ready || rebuilding()) {
+            return;
+        }
+        long started = System.nanoTime();
+        withWriteLock(() -> indexes.ageDeletions());
+        long[] projected = projectedIds();
+        int next = 0;
+        long corrected = 0;
+        long afterId = Long.MIN_VALUE;
+        List<OrderVersion> page;
+        do {
+            long from = afterId;
+            page = readOnlyTransaction.execute(status ->
+                    orderRepository.findVersionsAfter(from, PageRequest.ofSize(REBUILD_PAGE_SIZE)));
+            Map<Long, Entry> stale = new HashMap<>();
+            for (OrderVersion row : page) {
+                while (next < projected.length && projected[next] < row.getId()) {
+                    long vanished = projected[next++];
+                    stale.put(vanished, entry(vanished));
+                }
+                if (next < projected.length && projected[next] == row.getId()) {
+                    next++;
+                }
+                Entry entry = entry(row.getId());
+                if (entry == null || entry.version() != toPrimitive(row.getVersion())) {
+                    stale.put(row.getId(), entry);
+                }
+                afterId = row.getId();
+            }
+            if (page.size() < REBUILD_PAGE_SIZE) {
+                while (next < projected.length) {
+                    long vanished = projected[next++];
+                    stale.put(vanished, entry(vanished));
+                }
+            }
+            corrected += reload(stale);
+        } while (page.size() == REBUILD_PAGE_SIZE);
+        resyncCorrections.increment(corrected);
+        if (corrected > 0) {
+            log.info("Order projection resync corrected {} orders in {} ms", corrected,
+                    (System.nanoTime() - started) / 1_000_000);
+        }
+    }
+
+    /**
+     * Reads the current state of the given orders and applies it to those whose projected entry is still the one
+     * they were found stale with.
+     *
+     * @return the number of orders corrected
+     */
+    private long reload(Map<Long, Entry> stale) {
+        if (stale.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Entry> current = new HashMap<>();
+        readOnlyTransaction.executeWithoutResult(status -> orderRepository.findAllById(stale.keySet())
+                .forEach(order -> current.put(order.getId(), Entry.of(order))));
+        long[] corrected = {0};
+        withWriteLock(() -> {
+            if (changesDuringRebuild != null) {
+                return;
+            }
+            stale.forEach((id, seen) -> {
+                if (indexes.orders.get(id) == seen && (seen != null || current.containsKey(id))) {
+                    Entry entry = current.get(id);
+                    indexes.apply(entry != null ? Change.upsert(entry) : Change.deleted(id, Long.MAX_VALUE));
+                    corrected[0]++;
+                }
+            });
+        });
+        return corrected[0];
+    }
+
+    /**
+     * Returns a fresh copy of the order, or {@code null} if the projection cannot answer for it (not loaded yet,
+     * unknown, or archived).
+     */
+    public Order find(long id) {
+        if (!ready) {
+            return null;
+        }
+        Entry entry = entry(id);
+        return entry != null ? entry.toOrder() : null;
+    }
+
+    /**
+     * Returns fresh copies of every live order created by {@code username}, in (orderDate, id) order, or
+     * {@code null} while the projection is not loaded.
+     */
+    public List<Order> findByCreatedBy(String username) {
+        if (!ready) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            return toOrders(indexes.owners.get(username));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns fresh copies of every live order in (orderDate, id) order, or {@code null} while the projection is
+     * not loaded.
+     */
+    public List<Order> findAll() {
+        if (!ready) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            return toOrders(indexes.all);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} live orders matching {@code filter} that follow {@code after} in (orderDate, id)
+     * descending order, like {@link com.example.ordertrackingsystem.repository.OrderRepository#findPageAfter}, or
+     * {@code null} while the projection is not loaded. The walk starts at the cursor (or the filter's upper date
+     * bound) in the owner's index, or the index of all orders, and stops at the lower date bound.
+     */
+    public List<Order> findPage(OrderFilter filter, OrderCursor after, int limit) {
+        if (!ready) {
+            return null;
+        }
+        List<Order> page = new ArrayList<>(Math.min(limit, 64));
+        lock.readLock().lock();
+        try {
+            Listing listing = filter.createdBy() != null ? indexes.owners.get(filter.createdBy()) : indexes.all;
+            if (listing == null) {
+                return page;
+            }
+            int index = listing.size;
+            if (filter.to() != null) {
+                index = Math.min(index, listing.lowerBound(toNanos(filter.to()), Long.MIN_VALUE));
+            }
+            if (after != null) {
+                index = Math.min(index, listing.lowerBound(toNanos(after.orderDate()), after.id()));
+            }
+            long from = filter.from() != null ? toNanos(filter.from()) : NONE;
+            while (--index >= 0 && page.size() < limit && listing.dates[index] >= from) {
+                Entry entry = indexes.orders.get(listing.ids[index]);
+                if (filter.status() == null || entry.status() == filter.status()) {
+                    page.add(entry.toOrder());
+                }
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int size() {
+        lock.readLock().lock();
+        try {
+            return indexes.orders.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rough heap estimate for a 64-bit JVM with compressed references: the entries with their strings and
+     * lines, the id map's tables and the listing indexes.
+     */
+    private long estimateMemory() {
+        lock.readLock().lock();
+        try {
+            long table = 2 * 16 + indexes.orders.capacity() * (8L + 4L);
+            long listings = indexes.all.estimateBytes();
+            for (Listing listing : indexes.owners.values()) {
+                listings += 32 + listing.estimateBytes();
+            }
+            return indexes.entryBytes + table + listings;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private double estimateMemoryPerOrder() {
+        int size = size();
+        return size == 0 ? 0 : (double) estimateMemory() / size;
+    }
+
+    private void record(Change change) {
+        record(List.of(change));
+    }
+
+    private void record(List<Change> changes) {
+        withWriteLock(() -> {
+            changes.forEach(indexes::apply);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.addAll(changes);
+            }
+        });
+    }
+
+    private boolean rebuilding() {
+        lock.readLock().lock();
+        try {
+            return changesDuringRebuild != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Entry entry(long id) {
+        lock.readLock().lock();
+        try {
+            return indexes.orders.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of every projected order, ascending.
+     */
+    private long[] projectedIds() {
+        long[] ids;
+        lock.readLock().lock();
+        try {
+            ids = Arrays.copyOf(indexes.all.ids, indexes.all.size);
+        } finally {
+            lock.readLock().unlock();
+        }
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Fresh copies of the orders in a listing, in its order; the caller holds the read lock.
+     */
+    private List<Order> toOrders(Listing listing) {
+        if (listing == null) {
+            return new ArrayList<>();
+        }
+        List<Order> result = new ArrayList<>(listing.size);
+        for (int i = 0; i < listing.size; i++) {
+            result.add(indexes.orders.get(listing.ids[i]).toOrder());
+        }
+        return result;
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 24 + align(16 + value.length());
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    private static long toNanos(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return NONE;
+        }
+        // Microseconds, like the column, so an order reads the same before and after it is reloaded.
+        long micros = dateTime.getNano() / 1_000 * 1_000L;
+        return Math.addExact(Math.multiplyExact(dateTime.toEpochSecond(ZoneOffset.UTC), 1_000_000_000L), micros);
+    }
+
+    private static LocalDateTime toDateTime(long nanos) {
+        if (nanos == NONE) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    private static long toPrimitive(Long value) {
+        return value != null ? value : NONE;
+    }
+
+    private static Long toBoxed(long value) {
+        return value != NONE ? value : null;
+    }
+
+    /**
+     * Immutable copy of an order's fields; the order date and update time are kept as nanoseconds since the
+     * epoch (UTC).
+     */
+    private record Entry(long id, long version, long productId, long orderDate, long updatedAt, int quantity,
+                         double price, OrderStatus status, String customerName, String productName, String createdBy,
+                         BigDecimal totalAmount, Line[] lines) {
+
+        static Entry of(Order order) {
+            List<OrderLine> orderLines = order.getLines();
+            Line[] lines = new Line[orderLines.size()];
+            for (int i = 0; i < lines.length; i++) {
+                OrderLine line = orderLines.get(i);
+                lines[i] = new Line(toPrimitive(line.getId()), toPrimitive(line.getProductId()), line.getProductName(),
+                        line.getQuantity(), line.getUnitPrice());
+            }
+            return new Entry(order.getId(), toPrimitive(order.getVersion()), toPrimitive(order.getProductId()),
+                    toNanos(order.getOrderDate()), toNanos(order.getUpdatedAt()), order.getQuantity(),
+                    order.getPrice(), order.getStatus(), order.getCustomerName(), order.getProductName(),
+                    order.getCreatedBy(), order.getTotalAmount(), lines);
+        }
+
+        Entry withCreatedBy(String owner) {
+            return owner == createdBy ? this : new Entry(id, version, productId, orderDate, updatedAt, quantity, price,
+                    status, customerName, productName, owner, totalAmount, lines);
+        }
+
+        Order toOrder() {
+            Order order = new Order(id, customerName, productName, quantity, price, status, toDateTime(orderDate),
+                    createdBy);
+            order.setVersion(toBoxed(version));
+            order.setProductId(toBoxed(productId));
+            order.setTotalAmount(totalAmount);
+            order.setUpdatedAt(toDateTime(updatedAt));
+            for (Line line : lines) {
+                OrderLine orderLine = new OrderLine(toBoxed(line.productId()), line.productName(), line.quantity(),
+                        line.unitPrice());
+                orderLine.setId(toBoxed(line.id()));
+                order.addLine(orderLine);
+            }
+            return order;
+        }
+
+        /**
+         * This entry, its strings and its lines; the owner string is shared and counted with the owner index.
+         */
+        long estimateBytes() {
+            long bytes = 88 + stringBytes(customerName) + stringBytes(productName) + (totalAmount != null ? 40 : 0)
+                    + align(16 + 4L * lines.length);
+            for (Line line : lines) {
+                bytes += 40 + stringBytes(line.productName()) + (line.unitPrice() != null ? 40 : 0);
+            }
+            return bytes;
+        }
+    }
+
+    private record Line(long id, long productId, String productName, int quantity, BigDecimal unitPrice) {
+    }
+
+    /**
+     * A committed write: the order's new state, or {@code null} when it was deleted or archived, and the version
+     * it was written at. A deletion carries the last version the order had, or {@link Long#MAX_VALUE} when that
+     * is unknown; ids are not reused, so nothing can bring such an order back.
+     */
+    private record Change(long id, Entry entry, long version) {
+
+        static Change upsert(Entry entry) {
+            return new Change(entry.id(), entry, entry.version());
+        }
+
+        static Change deleted(long id, long version) {
+            return new Change(id, null, version);
+        }
+    }
+
+    /**
+     * The projected orders and their listing indexes. Not thread-safe; the live instance is guarded by
+     * {@link #lock}.
+     *
+     * <p>Changes are applied in the order their {@code afterCommit} callbacks run, which is not always the order
+     * they committed in, so a change older than what is projected is ignored. Deleted orders leave a tombstone
+     * with their last version for the same reason; tombstones are dropped after two resync passes, by which time
+     * no callback is still running, and a resync would remove an order brought back by one anyway.
+     */
+    private static final class Indexes {
+
+        private final LongObjectMap<Entry> orders;
+        private final Map<String, Listing> owners = new HashMap<>();
+        private final Listing all = new Listing(null);
+        private LongObjectMap<Long> deletions = new LongObjectMap<>(16);
+        private LongObjectMap<Long> olderDeletions = new LongObjectMap<>(16);
+        private long entryBytes;
+
+        Indexes(int expectedSize) {
+            orders = new LongObjectMap<>(expectedSize);
+        }
+
+        void apply(Change change) {
+            Entry previous = orders.get(change.id());
+            Entry entry = change.entry();
+            Long deleted = deletedVersion(change.id());
+            if (entry == null) {
+                deletions.put(change.id(), deleted != null ? Math.max(deleted, change.version()) : change.version());
+            } else if (previous != null ? entry.version() < previous.version()
+                    : deleted != null && entry.version() <= deleted) {
+                return;
+            }
+            if (previous != null && entry != null && previous.orderDate() == entry.orderDate()
+                    && Objects.equals(previous.createdBy(), entry.createdBy())) {
+                // Same listing position, which is the common case of a status change: only the entry is replaced.
+                entry = entry.withCreatedBy(previous.createdBy());
+                orders.put(entry.id(), entry);
+                entryBytes += entry.estimateBytes() - previous.estimateBytes();
+                return;
+            }
+            remove(change.id());
+            if (entry != null) {
+                put(entry);
+            }
+        }
+
+        /**
+         * Version the order was deleted at, or {@code null} if no deletion is remembered.
+         */
+        Long deletedVersion(long id) {
+            Long version = deletions.get(id);
+            return version != null ? version : olderDeletions.get(id);
+        }
+
+        void ageDeletions() {
+            olderDeletions = deletions;
+            deletions = new LongObjectMap<>(16);
+        }
+
+        void put(Entry entry) {
+            if (entry.createdBy() != null) {
+                Listing listing = owners.computeIfAbsent(entry.createdBy(), Listing::new);
+                listing.add(entry.orderDate(), entry.id());
+                // Share one string per owner instead of one per order.
+                entry = entry.withCreatedBy(listing.owner);
+            }
+            all.add(entry.orderDate(), entry.id());
+            orders.put(entry.id(), entry);
+            entryBytes += entry.estimateBytes();
+        }
+
+        void remove(long id) {
+            Entry previous = orders.remove(id);
+            if (previous == null) {
+                return;
+            }
+            all.remove(previous.orderDate(), id);
+            if (previous.createdBy() != null) {
+                Listing listing = owners.get(previous.createdBy());
+                if (listing != null && listing.remove(previous.orderDate(), id) && listing.size == 0) {
+                    owners.remove(previous.createdBy());
+                }
+            }
+            entryBytes -= previous.estimateBytes();
+        }
+    }
+
+    /**
+     * (orderDate, id) pairs in ascending order, in two parallel arrays. New orders are usually the newest, so
+     * adding is usually an append.
+     */
+    private static final class Listing {
+
+        private final String owner;
+        private long[] dates = new long[4];
+        private long[] ids = new long[4];
+        private int size;
+
+        Listing(String owner) {
+            this.owner = owner;
+        }
+
+        void add(long date, long id) {
+            int index = lowerBound(date, id);
+            if (index < size && dates[index] == date && ids[index] == id) {
+                return;
+            }
+            if (size == ids.length) {
+                dates = Arrays.copyOf(dates, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(dates, index, dates, index + 1, size - index);
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            dates[index] = date;
+            ids[index] = id;
+            size++;
+        }
+
+        boolean remove(long date, long id) {
+            int index = lowerBound(date, id);
+            if (index == size || dates[index] != date || ids[index] != id) {
+                return false;
+            }
+            System.arraycopy(dates, index + 1, dates, index, size - index - 1);
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        /**
+         * Index of the first pair at or after (date, id), or {@link #size} if there is none.
+         */
+        int lowerBound(long date, long id) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (dates[middle] < date || (dates[middle] == date && ids[middle] < id)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        long estimateBytes() {
+            return 32 + stringBytes(owner) + 2 * (16 + ids.length * 8L);
+        }
+    }
+}
@@ -1,45 +1,391 @@
 package com.example.ordertrackingsystem.service;
 
+import com.example.ordertrackingsystem.archive.OrderArchive;
+import com.example.ordertrackingsystem.config.ReadFromReplica;
+import com.example.ordertrackingsystem.config.StreamingRead;
 import com.example.ordertrackingsystem.model.Order;
+import com.example.ordertrackingsystem.model.OrderLine;
+import com.example.ordertrackingsystem.model.OrderStatus;
+import com.example.ordertrackingsystem.model.Product;
 import com.example.ordertrackingsystem.repository.OrderRepository;
+import com.example.ordertrackingsystem.repository.ProductRepository;
+import com.example.ordertrackingsystem.service.OrderChangedEvent.ChangeType;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
 
 /**
- * Business layer that orchestrates operations on {@link Order} entities.
+ * Business layer that orchestrates operations on {@link Order} entities. Every write runs in a transaction and
+ * publishes an {@link OrderChangedEvent}, which the outbox records in that same transaction.
  */
 @Service
+@Timed(value = "service.orders", histogram = true)
 public class OrderService {
 
+    /**
+     * Page size used when the caller does not ask for one.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    /**
+     * Upper bound on a single page so one request can never pull the whole table.
+     */
+    public static final int MAX_PAGE_SIZE = 200;
+
+    /**
+     * Largest number of lines accepted by a single batch checkout.
+     */
+    public static final int MAX_BATCH_SIZE = 100;
+
+    /**
+     * Largest number of items accepted on a single order.
+     */
+    public static final int MAX_LINES_PER_ORDER = 100;
+
+    /**
+     * Largest number of orders one bulk status change or delete processes.
+     */
+    public static final int MAX_BULK_SIZE = 10_000;
+
+    /**
+     * Orders per transaction in a bulk operation, which bounds lock time and the size of each {@code IN} list.
+     */
+    public static final int BULK_CHUNK_SIZE = 500;
+
+    /**
+     * (orderDate, id) ascending, as the listing and export queries sort; orders without a date come first.
+     */
+    private static final Comparator<Order> LISTING_ORDER = Comparator
+            .comparing(Order::getOrderDate, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Order::getId);
+
     private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final TransactionTemplate chunkTransaction;
+    private final TransactionTemplate readTransaction;
+    private final OrderArchive orderArchive;
+    private final OrderProjection orderProjection;
 
-    public OrderService(OrderRepository orderRepository) {
+    public OrderService(OrderRepository orderRepository, ProductRepository productRepository,
+                        ApplicationEventPublisher eventPublisher, EntityManager entityManager,
+                        PlatformTransactionManager transactionManager, OrderArchive orderArchive,
+                        OrderProjection orderProjection) {
         this.orderRepository = orderRepository;
+        this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.orderArchive = orderArchive;
+        this.orderProjection = orderProjection;
     }
 
     /**
      * Persists a new order using the repository.
      */
+    @Transactional
     public Order createOrder(Order order, String ownerUsername) {
-        order.setId(null);
-        order.setCreatedBy(ownerUsername);
-        if (order.getStatus() == null || order.getStatus().isBlank()) {
-            order.setStatus("Pending");
+        prepareNewOrders(List.of(order), ownerUsername);
+        return publish(ChangeType.CREATED, orderRepository.save(order), null);
+    }
+
+    /**
+     * Validates every line first and then persists all of them in one transaction,
+     * so the inserts go out as a single JDBC batch and either all lines are created or none.
+     */
+    @Transactional
+    public List<Order> createOrders(List<Order> orders, String ownerUsername) {
+        if (orders == null || orders.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one order line is required.");
+        }
+        if (orders.size() > MAX_BATCH_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "A batch may contain at most %d order lines.".formatted(MAX_BATCH_SIZE));
+        }
+
+        prepareNewOrders(orders, ownerUsername);
+        List<Order> saved = orderRepository.saveAll(orders);
+        eventPublisher.publishEvent(new OrdersChangedEvent(saved.stream()
+                .map(order -> new OrderChangedEvent(ChangeType.CREATED, order.getId(), order, null))
+                .toList()));
+        return saved;
+    }
+
+    /**
+     * Validates new orders and resolves their items, looking up every referenced catalog product with one query.
+     */
+    private void prepareNewOrders(List<Order> orders, String ownerUsername) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < orders.size(); i++) {
+            if (orders.get(i) == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Line %d is empty.".formatted(i + 1));
+            }
+        }
+        List<List<OrderLine>> requested = orders.stream().map(this::requestedLines).toList();
+        Map<Long, Product> products = findProducts(requested);
+
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            order.setLines(resolveLines(requested.get(i), products, i + 1, true));
+            summarizeLines(order);
+            order.setId(null);
+            order.setVersion(null);
+            order.setCreatedBy(ownerUsername);
+            if (order.getStatus() == null) {
+                order.setStatus(OrderStatus.PENDING);
+            }
+            if (order.getOrderDate() == null) {
+                order.setOrderDate(now);
+            }
+            order.setUpdatedAt(now);
         }
-        return orderRepository.save(order);
     }
 
     /**
-     * Returns orders visible to the current actor.
+     * Returns the items a payload asks for: its explicit lines, or a single line built from its product fields
+     * for clients that send one product per order.
      */
+    private List<OrderLine> requestedLines(Order order) {
+        if (!order.getLines().isEmpty()) {
+            return List.copyOf(order.getLines());
+        }
+        return List.of(new OrderLine(order.getProductId(), order.getProductName(), order.getQuantity(),
+                BigDecimal.valueOf(order.getPrice())));
+    }
+
+    private Map<Long, Product> findProducts(List<List<OrderLine>> lines) {
+        Set<Long> productIds = lines.stream()
+                .flatMap(List::stream)
+                .map(OrderLine::getProductId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        return productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+
+    /**
+     * Builds fresh, validated lines. Lines that reference a catalog product take its name, and on creation
+     * ({@code catalogPrices}) its exact price as well, instead of trusting the client.
+     */
+    private List<OrderLine> resolveLines(List<OrderLine> requested, Map<Long, Product> products, int orderNumber,
+                                         boolean catalogPrices) {
+        if (requested.size() > MAX_LINES_PER_ORDER) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Line %d: an order may contain at most %d items.".formatted(orderNumber, MAX_LINES_PER_ORDER));
+        }
+        List<OrderLine> resolved = new ArrayList<>(requested.size());
+        for (int i = 0; i < requested.size(); i++) {
+            OrderLine source = requested.get(i);
+            String label = requested.size() == 1 ? "Line " + orderNumber : "Line %d.%d".formatted(orderNumber, i + 1);
+            if (source == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, label + " is empty.");
+            }
+
+            OrderLine line = new OrderLine(source.getProductId(), source.getProductName(), source.getQuantity(),
+                    source.getUnitPrice());
+            if (line.getProductId() != null) {
+                Product product = products.get(line.getProductId());
+                if (product == null) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                            "%s: unknown product %d.".formatted(label, line.getProductId()));
+                }
+                line.setProductName(product.getName());
+                if (catalogPrices || line.getUnitPrice() == null) {
+                    line.setUnitPrice(product.getPrice());
+                }
+            }
+            validateLine(line, label);
+            line.setUnitPrice(line.getUnitPrice().setScale(2, RoundingMode.HALF_UP));
+            resolved.add(line);
+        }
+        return resolved;
+    }
+
+    private void validateLine(OrderLine line, String label) {
+        if (!StringUtils.hasText(line.getProductName())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, label + ": product name is required.");
+        }
+        if (line.getQuantity() <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, label + ": quantity must be at least 1.");
+        }
+        if (line.getUnitPrice() == null || line.getUnitPrice().signum() < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, label + ": price must be zero or positive.");
+        }
+    }
+
+    /**
+     * Derives the order's summary fields from its lines: the first line's product, the total quantity,
+     * the exact total amount and the average unit price.
+     */
+    private void summarizeLines(Order order) {
+        List<OrderLine> lines = order.getLines();
+        int quantity = lines.stream().mapToInt(OrderLine::getQuantity).sum();
+        BigDecimal total = lines.stream().map(OrderLine::getLineTotal).reduce(BigDecimal.ZERO, BigDecimal::add);
+        order.setProductId(lines.get(0).getProductId());
+        order.setProductName(lines.get(0).getProductName());
+        order.setQuantity(quantity);
+        order.setPrice(total.divide(BigDecimal.valueOf(quantity), 2, RoundingMode.HALF_UP).doubleValue());
+        order.setTotalAmount(total);
+    }
+
+    /**
+     * Returns orders visible to the current actor, from the {@link OrderProjection} when it is loaded.
+     */
+    @ReadFromReplica
     public List<Order> getOrdersAccessibleBy(String username, boolean isAdmin) {
-        return isAdmin ? orderRepository.findAll() : orderRepository.findByCreatedBy(username);
+        List<Order> projected = isAdmin ? orderProjection.findAll() : orderProjection.findByCreatedBy(username);
+        if (projected != null) {
+            return projected;
+        }
+        return readTransaction.execute(status ->
+                isAdmin ? orderRepository.findAll() : orderRepository.findByCreatedBy(username));
+    }
+
+    /**
+     * Returns one keyset page of orders visible to the current actor, newest first, from the
+     * {@link OrderProjection} when it is loaded. With {@code includeArchived}, the same page is read from the
+     * archive too and both are merged by (orderDate, id); ids are unique across both tables, so the cursor works
+     * unchanged.
+     */
+    @ReadFromReplica
+    public OrderPage getOrderPage(String username, boolean isAdmin, OrderFilter filter, boolean includeArchived,
+                                  String cursor, Integer size) {
+        OrderFilter scoped = accessibleBy(username, isAdmin, filter);
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        OrderCursor position = cursor == null || cursor.isBlank() ? null : OrderCursor.decode(cursor);
+
+        List<Order> rows = orderProjection.findPage(scoped, position, pageSize + 1);
+        if (rows == null || includeArchived) {
+            List<Order> projected = rows;
+            rows = readTransaction.execute(status -> {
+                List<Order> live = projected != null ? projected : findLivePage(scoped, position, pageSize + 1);
+                if (!includeArchived) {
+                    return live;
+                }
+                return Stream.concat(live.stream(), orderArchive.findPage(scoped, position, pageSize + 1).stream())
+                        .sorted(LISTING_ORDER.reversed())
+                        .limit(pageSize + 1)
+                        .toList();
+            });
+        }
+
+        if (rows.size() <= pageSize) {
+            return new OrderPage(rows, null);
+        }
+        List<Order> items = rows.subList(0, pageSize);
+        Order last = items.get(pageSize - 1);
+        return new OrderPage(List.copyOf(items), new OrderCursor(last.getOrderDate(), last.getId()).encode());
+    }
+
+    private List<Order> findLivePage(OrderFilter filter, OrderCursor position, int limit) {
+        PageRequest page = PageRequest.ofSize(limit);
+        if (position == null) {
+            return orderRepository.findFirstPage(filter.createdBy(), filter.status(), filter.from(), filter.to(), page);
+        }
+        return orderRepository.findPageAfter(filter.createdBy(), filter.status(), filter.from(), filter.to(),
+                position.orderDate(), position.id(), page);
+    }
+
+    /**
+     * Feeds every order visible to the current actor that matches {@code filter} to {@code sink}, oldest first,
+     * without materializing the result: rows come from a database cursor and are detached once written. With
+     * {@code includeArchived}, a second cursor over the archive is merged in by (orderDate, id).
+     *
+     * @return the number of exported orders
+     */
+    @StreamingRead
+    @ReadFromReplica
+    @Transactional(readOnly = true)
+    public long exportOrders(String username, boolean isAdmin, OrderFilter filter, boolean includeArchived,
+                             Consumer<Order> sink) {
+        OrderFilter scoped = accessibleBy(username, isAdmin, filter);
+        long exported = 0;
+        try (Stream<Order> live = orderRepository.streamAll(scoped.createdBy(), scoped.status(), scoped.from(), scoped.to());
+             Stream<Order> archived = includeArchived ? orderArchive.stream(scoped) : Stream.empty()) {
+            var liveRows = live.iterator();
+            var archivedRows = archived.iterator();
+            Order nextLive = liveRows.hasNext() ? liveRows.next() : null;
+            Order nextArchived = archivedRows.hasNext() ? archivedRows.next() : null;
+            for (; nextLive != null || nextArchived != null; exported++) {
+                if (nextArchived == null || (nextLive != null && LISTING_ORDER.compare(nextLive, nextArchived) <= 0)) {
+                    sink.accept(nextLive);
+                    entityManager.detach(nextLive);
+                    nextLive = liveRows.hasNext() ? liveRows.next() : null;
+                } else {
+                    sink.accept(nextArchived);
+                    nextArchived = archivedRows.hasNext() ? archivedRows.next() : null;
+                }
+            }
+        }
+        return exported;
+    }
+
+    /**
+     * Feeds every archived order to {@code sink}, oldest first, from a database cursor.
+     *
+     * @return the number of archived orders
+     */
+    @StreamingRead
+    @ReadFromReplica
+    @Transactional(readOnly = true)
+    public long exportArchivedOrders(Consumer<Order> sink) {
+        long exported = 0;
+        try (Stream<Order> rows = orderArchive.stream(new OrderFilter(null, null, null, null))) {
+            for (var iterator = rows.iterator(); iterator.hasNext(); exported++) {
+                sink.accept(iterator.next());
+            }
+        }
+        return exported;
+    }
+
+    /**
+     * Applies the same ownership rule as {@link #getOrdersAccessibleBy}: non-admins only ever see their own orders,
+     * regardless of the requested owner filter.
+     */
+    private OrderFilter accessibleBy(String username, boolean isAdmin, OrderFilter filter) {
+        return isAdmin ? filter : filter.ownedBy(username);
     }
 
     /**
      * Retrieves a single order for the current actor, enforcing ownership.
      */
+    @ReadFromReplica
     public Order getOrderForUser(Long id, String username, boolean isAdmin) {
         Order order = getOrderById(id);
         if (!isAdmin && !username.equals(order.getCreatedBy())) {
@@ -49,67 +395,359 @@ public class OrderService {
     }
 
     /**
-     * Retrieves a single order by id or throws when the id does not exist.
+     * Retrieves a single order by id, or throws when the id does not exist. The {@link OrderProjection} answers
+     * without a transaction when it holds the order; otherwise the order is read from the table or the archive.
      */
+    @ReadFromReplica
     public Order getOrderById(Long id) {
+        Order projected = orderProjection.find(id);
+        return projected != null ? projected : readTransaction.execute(status -> loadOrder(id));
+    }
+
+    /**
+     * Reads an order from the table, or from the archive if it was moved there. Archived orders are unmanaged
+     * and finished, so status transitions on them are rejected as usual.
+     */
+    private Order loadOrder(Long id) {
         return orderRepository.findById(id)
+                .or(() -> orderArchive.find(id))
                 .orElseThrow(() -> new IllegalArgumentException("Order not found with id: " + id));
     }
 
     /**
-     * Applies updates to all order fields using the provided payload.
+     * Like {@link #loadOrder} for orders that are about to be edited, which archived orders cannot be.
+     */
+    private Order getLiveOrderById(Long id) {
+        return orderRepository.findById(id).orElseThrow(() -> orderArchive.find(id).isPresent()
+                ? new IllegalStateException("Order %d is archived and can no longer be edited.".formatted(id))
+                : new IllegalArgumentException("Order not found with id: " + id));
+    }
+
+    /**
+     * Applies updates to all order fields using the provided payload; an omitted order date keeps the stored one.
+     * A status change must follow the {@link OrderStatus} transitions, and a payload carrying a {@code version}
+     * must match the stored one.
      */
+    @Transactional
     public Order updateOrder(Long id, Order updatedOrder) {
-        Order existingOrder = getOrderById(id);
+        Order existingOrder = getLiveOrderById(id);
+        requireVersion(existingOrder, updatedOrder.getVersion());
+        OrderStatus status = updatedOrder.getStatus() != null ? updatedOrder.getStatus() : existingOrder.getStatus();
+        if (status != existingOrder.getStatus()) {
+            requireTransition(existingOrder, status);
+        }
+        List<OrderLine> lines = updatedLines(existingOrder, updatedOrder);
+
+        Order previous = existingOrder.copy();
         existingOrder.setCustomerName(updatedOrder.getCustomerName());
-        existingOrder.setProductName(updatedOrder.getProductName());
-        existingOrder.setQuantity(updatedOrder.getQuantity());
-        existingOrder.setPrice(updatedOrder.getPrice());
-        existingOrder.setStatus(updatedOrder.getStatus());
-        existingOrder.setOrderDate(updatedOrder.getOrderDate());
-        return orderRepository.save(existingOrder);
+        if (lines != null) {
+            existingOrder.setLines(lines);
+            summarizeLines(existingOrder);
+        }
+        existingOrder.setStatus(status);
+        if (updatedOrder.getOrderDate() != null) {
+            existingOrder.setOrderDate(updatedOrder.getOrderDate());
+        }
+        existingOrder.setUpdatedAt(LocalDateTime.now());
+        try {
+            return publish(ChangeType.UPDATED, orderRepository.saveAndFlush(existingOrder), previous);
+        } catch (OptimisticLockingFailureException ex) {
+            throw concurrentModification(id);
+        }
+    }
+
+    /**
+     * Returns the replacement lines for an update: the payload's lines if it has any, otherwise one line built
+     * from its product fields (keeping the catalog link while the product name is unchanged). Orders with several
+     * lines keep them when the payload only carries product fields; {@code null} means "leave the lines alone".
+     */
+    private List<OrderLine> updatedLines(Order existingOrder, Order updatedOrder) {
+        List<OrderLine> requested;
+        if (!updatedOrder.getLines().isEmpty()) {
+            requested = List.copyOf(updatedOrder.getLines());
+        } else if (existingOrder.getLines().size() > 1) {
+            return null;
+        } else {
+            Long productId = updatedOrder.getProductId();
+            if (productId == null && Objects.equals(updatedOrder.getProductName(), existingOrder.getProductName())) {
+                productId = existingOrder.getProductId();
+            }
+            requested = List.of(new OrderLine(productId, updatedOrder.getProductName(), updatedOrder.getQuantity(),
+                    BigDecimal.valueOf(updatedOrder.getPrice())));
+        }
+        return resolveLines(requested, findProducts(List.of(requested)), 1, false);
     }
 
     /**
-     * Deletes an order if it exists, otherwise signals a bad identifier.
+     * Deletes an order, live or archived, if it exists, otherwise signals a bad identifier.
      */
+    @Transactional
     public void deleteOrder(Long id) {
-        if (!orderRepository.existsById(id)) {
-            throw new IllegalArgumentException("Order not found with id: " + id);
+        Order previous;
+        Optional<Order> liveOrder = orderRepository.findById(id);
+        if (liveOrder.isPresent()) {
+            previous = liveOrder.get().copy();
+            orderRepository.delete(liveOrder.get());
+        } else {
+            previous = loadOrder(id);
+            orderArchive.delete(id);
         }
-        orderRepository.deleteById(id);
+        eventPublisher.publishEvent(new OrderChangedEvent(ChangeType.DELETED, id, null, previous));
     }
 
     /**
-     * Updates only the status field for the order identified by {@code id}.
+     * Moves the order to {@code status}. Setting the status the order already has is a no-op. When the
+     * {@link OrderProjection} holds the order, the conditional UPDATE runs straight away and the row is only
+     * read if it reports a conflict.
+     *
+     * @param expectedVersion version the caller last saw, or {@code null} to accept whatever is stored
+     * @throws IllegalStateException when the transition is not allowed or the order changed concurrently
      */
-    public Order updateOrderStatus(Long id, String status) {
-        Order order = getOrderById(id);
-        order.setStatus(status);
-        return orderRepository.save(order);
+    @Transactional
+    public Order updateOrderStatus(Long id, OrderStatus status, Long expectedVersion) {
+        Order moved = transitionProjected(id, known -> known.getStatus() != status
+                && (expectedVersion == null || expectedVersion.equals(known.getVersion())), status,
+                ChangeType.STATUS_CHANGED);
+        if (moved != null) {
+            return moved;
+        }
+
+        Order order = loadOrder(id);
+        requireVersion(order, expectedVersion);
+        if (order.getStatus() == status) {
+            return order;
+        }
+        return transition(order, status, ChangeType.STATUS_CHANGED);
     }
 
     /**
-     * Cancels an order as long as it has not yet been shipped or delivered.
+     * Cancels an order as long as it has not yet been delivered; customers may only cancel pending orders.
+     * Like {@link #updateOrderStatus}, the row is only read when the projection cannot vouch for it.
      */
+    @Transactional
     public Order cancelOrder(Long id, String username, boolean isAdmin) {
-        Order order = getOrderById(id);
+        Order cancelled = transitionProjected(id, known -> isAdmin
+                || (username.equals(known.getCreatedBy()) && known.getStatus() == OrderStatus.PENDING),
+                OrderStatus.CANCELLED, ChangeType.CANCELLED);
+        if (cancelled != null) {
+            return cancelled;
+        }
+
+        Order order = loadOrder(id);
 
         if (!isAdmin && !username.equals(order.getCreatedBy())) {
             throw new AccessDeniedException("Forbidden");
         }
 
-        String currentStatus = order.getStatus();
-
-        if (currentStatus != null && currentStatus.equalsIgnoreCase("Cancelled")) {
+        if (order.getStatus() == OrderStatus.CANCELLED) {
             throw new IllegalStateException("Order is already cancelled.");
         }
 
-        if (!isAdmin && currentStatus != null && !currentStatus.equalsIgnoreCase("Pending")) {
+        if (!isAdmin && order.getStatus() != OrderStatus.PENDING) {
             throw new IllegalStateException("Only pending orders can be cancelled.");
         }
 
-        order.setStatus("Cancelled");
-        return orderRepository.save(order);
+        return transition(order, OrderStatus.CANCELLED, ChangeType.CANCELLED);
+    }
+
+    /**
+     * Moves the listed orders, or up to {@value #MAX_BULK_SIZE} orders matching {@code filter}, to {@code status}.
+     * Orders are processed in chunks of {@value #BULK_CHUNK_SIZE}, each in its own transaction: the chunk is
+     * loaded and locked once, every order is checked against the {@link OrderStatus} transitions, and the
+     * allowed ones change with a single {@code UPDATE}. Each chunk publishes one {@link OrdersChangedEvent}.
+     * A failed chunk leaves earlier chunks committed.
+     */
+    public BulkResult updateOrderStatuses(List<Long> ids, OrderFilter filter, OrderStatus status) {
+        if (status == null) {
+            throw new IllegalArgumentException("A target status is required.");
+        }
+        return inChunks(ids, filter, chunk -> {
+            Map<Long, Order> orders = lockOrders(chunk);
+            Map<Long, BulkResult.Outcome> outcomes = new LinkedHashMap<>();
+            List<Order> moved = new ArrayList<>();
+            for (Long id : chunk) {
+                Order order = orders.get(id);
+                if (order == null) {
+                    outcomes.put(id, notFound(id));
+                    continue;
+                }
+                if (order.getStatus() == status) {
+                    outcomes.put(id, new BulkResult.Outcome(id, BulkResult.Result.UNCHANGED, null));
+                    continue;
+                }
+                String conflict = transitionConflict(order, status);
+                if (conflict != null) {
+                    outcomes.put(id, new BulkResult.Outcome(id, BulkResult.Result.CONFLICT, conflict));
+                    continue;
+                }
+                moved.add(order.copy());
+                outcomes.put(id, new BulkResult.Outcome(id, BulkResult.Result.UPDATED, null));
+            }
+            LocalDateTime changedAt = LocalDateTime.now();
+            if (!moved.isEmpty()) {
+                orderRepository.updateStatuses(moved.stream().map(Order::getId).toList(), status, changedAt);
+            }
+            List<OrderChangedEvent> changes = new ArrayList<>(moved.size());
+            for (Order before : moved) {
+                Order after = before.copy();
+                after.setStatus(status);
+                after.setVersion(before.getVersion() + 1);
+                after.setUpdatedAt(changedAt);
+                changes.add(new OrderChangedEvent(ChangeType.STATUS_CHANGED, after.getId(), after, before));
+            }
+            if (!changes.isEmpty()) {
+                eventPublisher.publishEvent(new OrdersChangedEvent(changes));
+            }
+            return outcomes.values();
+        });
+    }
+
+    /**
+     * Deletes the listed orders, or up to {@value #MAX_BULK_SIZE} orders matching {@code filter}, with set-based
+     * {@code DELETE} statements in chunks of {@value #BULK_CHUNK_SIZE}, one transaction and one
+     * {@link OrdersChangedEvent} per chunk.
+     */
+    public BulkResult deleteOrders(List<Long> ids, OrderFilter filter) {
+        return inChunks(ids, filter, chunk -> {
+            Map<Long, Order> orders = lockOrders(chunk);
+            List<Order> previous = orders.values().stream().map(Order::copy).toList();
+            if (!orders.isEmpty()) {
+                orderRepository.deleteLinesOf(orders.keySet());
+                orderRepository.deleteAllByIdIn(orders.keySet());
+            }
+            if (!previous.isEmpty()) {
+                eventPublisher.publishEvent(new OrdersChangedEvent(previous.stream()
+                        .map(order -> new OrderChangedEvent(ChangeType.DELETED, order.getId(), null, order))
+                        .toList()));
+            }
+            return chunk.stream()
+                    .map(id -> orders.containsKey(id)
+                            ? new BulkResult.Outcome(id, BulkResult.Result.DELETED, null)
+                            : notFound(id))
+                    .toList();
+        });
+    }
+
+    /**
+     * Resolves the target ids (the explicit list, deduplicated, or the filter's matches) and runs
+     * {@code work} on each chunk in a new transaction.
+     */
+    private BulkResult inChunks(List<Long> ids, OrderFilter filter,
+                                Function<List<Long>, Collection<BulkResult.Outcome>> work) {
+        List<Long> targets;
+        boolean hasMore = false;
+        if (ids != null && !ids.isEmpty()) {
+            if (ids.contains(null)) {
+                throw new IllegalArgumentException("Order ids must not be null.");
+            }
+            targets = List.copyOf(new LinkedHashSet<>(ids));
+            if (targets.size() > MAX_BULK_SIZE) {
+                throw new IllegalArgumentException("At most %d orders can be changed at once.".formatted(MAX_BULK_SIZE));
+            }
+        } else if (filter != null) {
+            targets = orderRepository.findIds(filter.createdBy(), filter.status(), filter.from(), filter.to(),
+                    PageRequest.ofSize(MAX_BULK_SIZE + 1));
+            hasMore = targets.size() > MAX_BULK_SIZE;
+            if (hasMore) {
+                targets = targets.subList(0, MAX_BULK_SIZE);
+            }
+        } else {
+            throw new IllegalArgumentException("Either ids or a filter is required.");
+        }
+
+        List<BulkResult.Outcome> outcomes = new ArrayList<>(targets.size());
+        for (int start = 0; start < targets.size(); start += BULK_CHUNK_SIZE) {
+            List<Long> chunk = targets.subList(start, Math.min(start + BULK_CHUNK_SIZE, targets.size()));
+            outcomes.addAll(chunkTransaction.execute(status -> work.apply(chunk)));
+        }
+        int succeeded = (int) outcomes.stream().filter(outcome -> outcome.result().isSuccess()).count();
+        return new BulkResult(succeeded, hasMore, outcomes);
+    }
+
+    private Map<Long, Order> lockOrders(List<Long> ids) {
+        return orderRepository.findAllForUpdate(ids).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+    }
+
+    private static BulkResult.Outcome notFound(Long id) {
+        return new BulkResult.Outcome(id, BulkResult.Result.NOT_FOUND, "Order not found with id: " + id);
+    }
+
+    /**
+     * Applies a validated transition as one conditional UPDATE on (id, version) instead of re-saving the
+     * entity, so whichever of two racing writers commits second fails rather than overwriting.
+     */
+    private Order transition(Order order, OrderStatus next, ChangeType type) {
+        requireTransition(order, next);
+        Order result = tryTransition(order, next, type);
+        if (result == null) {
+            throw concurrentModification(order.getId());
+        }
+        return result;
+    }
+
+    /**
+     * Validates the transition against the projection's copy of the order, without reading the row, and applies
+     * it with the conditional UPDATE. The copy may be stale, so any doubt returns {@code null}: the projection
+     * has no copy, the copy fails {@code allowed} or the lifecycle rules, or the UPDATE finds another version.
+     * Callers then read the row and decide from that.
+     */
+    private Order transitionProjected(Long id, Predicate<Order> allowed, OrderStatus next, ChangeType type) {
+        Order known = orderProjection.find(id);
+        if (known == null || known.getVersion() == null || !allowed.test(known)
+                || transitionConflict(known, next) != null) {
+            return null;
+        }
+        return tryTransition(known, next, type);
+    }
+
+    /**
+     * Runs the conditional UPDATE for an already validated transition, returning the new state, or {@code null}
+     * if the order no longer has the version it was validated at.
+     */
+    private Order tryTransition(Order order, OrderStatus next, ChangeType type) {
+        LocalDateTime changedAt = LocalDateTime.now();
+        if (orderRepository.transitionStatus(order.getId(), next, order.getVersion(), changedAt) == 0) {
+            return null;
+        }
+
+        Order result = order.copy();
+        result.setStatus(next);
+        result.setVersion(order.getVersion() + 1);
+        result.setUpdatedAt(changedAt);
+        return publish(type, result, order);
+    }
+
+    private void requireTransition(Order order, OrderStatus next) {
+        String conflict = transitionConflict(order, next);
+        if (conflict != null) {
+            throw new IllegalStateException(conflict);
+        }
+    }
+
+    /**
+     * Explains why {@code order} may not move to {@code next}, or returns {@code null} if it may.
+     */
+    private static String transitionConflict(Order order, OrderStatus next) {
+        OrderStatus current = order.getStatus();
+        if (current != null && !current.canTransitionTo(next)) {
+            return "Order %d cannot move from %s to %s.".formatted(order.getId(), current, next);
+        }
+        return null;
+    }
+
+    private void requireVersion(Order order, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(order.getVersion())) {
+            throw concurrentModification(order.getId());
+        }
+    }
+
+    private IllegalStateException concurrentModification(Long id) {
+        return new IllegalStateException("Order %d was modified by another request; reload it and retry.".formatted(id));
+    }
+
+    private Order publish(ChangeType type, Order order, Order previous) {
+        eventPublisher.publishEvent(new OrderChangedEvent(type, order.getId(), order, previous));
+        return order;
     }
 }
@@ -0,0 +1,379 @@
+package com.example.ordertrackingsystem.service;
+
+import com.example.ordertrackingsystem.config.StartupTask;
+import com.example.ordertrackingsystem.model.Order;
+import com.example.ordertrackingsystem.model.OrderLine;
+import com.example.ordertrackingsystem.model.OrderStatus;
+import com.example.ordertrackingsystem.repository.ArchivedOrderRepository;
+import com.example.ordertrackingsystem.repository.OrderRepository;
+import com.example.ordertrackingsystem.repository.OrderRepository.HourlyProductTotal;
+import com.example.ordertrackingsystem.repository.OrderRepository.HourlyTotal;
+import com.example.ordertrackingsystem.repository.OrderRepository.OrderVersion;
+import com.example.ordertrackingsystem.service.OrderStats.Bucket;
+import com.example.ordertrackingsystem.service.OrderStats.Granularity;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-memory rollup of order counts and revenue per (hour, status) and per (hour, product). Status cells sum order
+ * totals; product cells sum line totals, so an order with several products counts towards each of them with its
+ * own lines. The rollup is built from two grouped queries and then kept current from committed
+ * {@link OrderChangedEvent}s, so statistics over any date range are summed from at most a few cells per hour
+ * instead of scanning orders. A periodic rebuild corrects any drift. Revenue is kept in whole cents so repeated
+ * deltas never accumulate rounding error.
+ */
+@Component
+public class OrderStatistics implements StartupTask {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStatistics.class);
+    private static final long SECONDS_PER_HOUR = 3600;
+    private static final int HOURS_PER_DAY = 24;
+    private static final int VERSION_LOOKUP_CHUNK = 1000;
+
+    /**
+     * Snapshot version of an order the rebuild's snapshot does not contain.
+     */
+    private static final long ABSENT = -1;
+
+    /**
+     * Snapshot version of an archived order; archived orders carry no version column and can only be deleted.
+     */
+    private static final long ARCHIVED = -2;
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final TransactionTemplate snapshotTransaction;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Epoch hour (of the order's local date-time) → cells for that hour. Guarded by {@link #lock}.
+     */
+    private NavigableMap<Long, Hour> hours = new TreeMap<>();
+
+    /**
+     * Changes committed while a rebuild is scanning the table, replayed onto the new rollup. Guarded by {@link #lock}.
+     */
+    private List<OrderChangedEvent> changesDuringRebuild;
+
+    public OrderStatistics(OrderRepository orderRepository, ArchivedOrderRepository archivedOrderRepository,
+                           PlatformTransactionManager transactionManager) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @Override
+    public void runAtStartup() {
+        rebuild();
+    }
+
+    /**
+     * Replaces the rollup with one aggregated from the database.
+     * <p>
+     * Changes committed while the table is scanned may or may not be in the scan, so they cannot simply be
+     * replayed onto it. The scan and the version lookups run in one repeatable-read transaction, i.e. against one
+     * snapshot. A replayed change is applied only if it starts from the version the snapshot (plus the changes
+     * replayed before it) holds for that order, so each change is counted exactly once.
+     */
+    @Scheduled(fixedDelayString = "${orders.stats.rebuild-interval:PT1H}",
+            initialDelayString = "${orders.stats.rebuild-interval:PT1H}")
+    public void rebuild() {
+        withWriteLock(() -> changesDuringRebuild = new ArrayList<>());
+        long started = System.nanoTime();
+        NavigableMap<Long, Hour> fresh;
+        try {
+            fresh = snapshotTransaction.execute(status -> scanAndSwap());
+        } finally {
+            withWriteLock(() -> changesDuringRebuild = null);
+        }
+        log.debug("Rebuilt order statistics: {} hours in {} ms", fresh.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private NavigableMap<Long, Hour> scanAndSwap() {
+        NavigableMap<Long, Hour> fresh = new TreeMap<>();
+        for (HourlyTotal total : orderRepository.aggregateByHour()) {
+            LocalDateTime hour = LocalDateTime.of(total.getOrderYear(), total.getOrderMonth(),
+                    total.getOrderDay(), total.getOrderHour(), 0);
+            fresh.computeIfAbsent(epochHour(hour), key -> new Hour()).statuses
+                    .computeIfAbsent(total.getStatus(), key -> new Cell())
+                    .add(total.getOrders(), cents(total.getRevenue()));
+        }
+        for (HourlyProductTotal total : orderRepository.aggregateProductsByHour()) {
+            LocalDateTime hour = LocalDateTime.of(total.getOrderYear(), total.getOrderMonth(),
+                    total.getOrderDay(), total.getOrderHour(), 0);
+            fresh.computeIfAbsent(epochHour(hour), key -> new Hour()).products
+                    .computeIfAbsent(Objects.toString(total.getProductName(), ""), key -> new Cell())
+                    .add(total.getOrders(), cents(total.getRevenue()));
+        }
+        // Order id → version after the changes replayed so far; ids are looked up the first time they change.
+        Map<Long, Long> versions = new HashMap<>();
+        int replayed = 0;
+        while (true) {
+            List<OrderChangedEvent> pending;
+            lock.writeLock().lock();
+            try {
+                pending = List.copyOf(changesDuringRebuild.subList(replayed, changesDuringRebuild.size()));
+                if (pending.isEmpty()) {
+                    hours = fresh;
+                    return fresh;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            Set<Long> unknown = new LinkedHashSet<>();
+            for (OrderChangedEvent event : pending) {
+                if (!versions.containsKey(event.orderId())) {
+                    unknown.add(event.orderId());
+                }
+            }
+            versions.putAll(snapshotVersions(unknown));
+            for (OrderChangedEvent event : pending) {
+                replay(fresh, versions, event);
+            }
+            replayed += pending.size();
+        }
+    }
+
+    /**
+     * Looks up the listed orders in the current transaction's snapshot; every id maps to a version, {@link #ARCHIVED}
+     * or {@link #ABSENT}.
+     */
+    private Map<Long, Long> snapshotVersions(Set<Long> ids) {
+        Map<Long, Long> versions = new HashMap<>();
+        List<Long> remaining = new ArrayList<>(ids);
+        for (int from = 0; from < remaining.size(); from += VERSION_LOOKUP_CHUNK) {
+            List<Long> chunk = remaining.subList(from, Math.min(from + VERSION_LOOKUP_CHUNK, remaining.size()));
+            chunk.forEach(id -> versions.put(id, ABSENT));
+            for (OrderVersion row : orderRepository.findVersions(chunk)) {
+                versions.put(row.getId(), row.getVersion() != null ? row.getVersion() : 0);
+            }
+            archivedOrderRepository.findIdsIn(chunk).forEach(id -> versions.put(id, ARCHIVED));
+        }
+        return versions;
+    }
+
+    /**
+     * Applies {@code event} to a rollup built from a snapshot if it starts from the state recorded in
+     * {@code versions} for its order, and advances that state.
+     */
+    private static void replay(NavigableMap<Long, Hour> target, Map<Long, Long> versions,
+                               OrderChangedEvent event) {
+        long current = versions.get(event.orderId());
+        boolean follows = event.previous() == null
+                ? current == ABSENT
+                : current == ARCHIVED || current == versionOf(event.previous());
+        if (follows) {
+            apply(target, event);
+            versions.put(event.orderId(), event.order() != null ? versionOf(event.order()) : ABSENT);
+        }
+    }
+
+    private static long versionOf(Order order) {
+        return order.getVersion() != null ? order.getVersion() : 0;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        record(List.of(event));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrdersChanged(OrdersChangedEvent event) {
+        record(event.changes());
+    }
+
+    private void record(List<OrderChangedEvent> events) {
+        withWriteLock(() -> {
+            for (OrderChangedEvent event : events) {
+                apply(hours, event);
+            }
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.addAll(events);
+            }
+        });
+    }
+
+    /**
+     * Sums the rollup over {@code [from, to)}. Bounds are widened to whole hours; {@code null} means unbounded.
+     *
+     * @param topProducts how many products to return, highest revenue first
+     */
+    public OrderStats summarize(LocalDateTime from, LocalDateTime to, Granularity granularity, int topProducts) {
+        Long fromHour = from != null ? epochHour(from) : null;
+        Long toHour = to != null ? ceilEpochHour(to) : null;
+        Map<OrderStatus, Cell> byStatus = new EnumMap<>(OrderStatus.class);
+        Map<String, Cell> byProduct = new HashMap<>();
+        NavigableMap<Long, Cell> timeline = new TreeMap<>();
+        Cell total = new Cell();
+
+        lock.readLock().lock();
+        try {
+            NavigableMap<Long, Hour> range = hours;
+            if (fromHour != null) {
+                range = range.tailMap(fromHour, true);
+            }
+            if (toHour != null) {
+                range = range.headMap(toHour, false);
+            }
+            for (Map.Entry<Long, Hour> hour : range.entrySet()) {
+                long period = granularity == Granularity.DAY
+                        ? Math.floorDiv(hour.getKey(), HOURS_PER_DAY) * HOURS_PER_DAY
+                        : hour.getKey();
+                Cell periodTotal = timeline.computeIfAbsent(period, key -> new Cell());
+                for (Map.Entry<OrderStatus, Cell> entry : hour.getValue().statuses.entrySet()) {
+                    Cell cell = entry.getValue();
+                    total.add(cell);
+                    periodTotal.add(cell);
+                    if (entry.getKey() != null) {
+                        byStatus.computeIfAbsent(entry.getKey(), status -> new Cell()).add(cell);
+                    }
+                }
+                for (Map.Entry<String, Cell> entry : hour.getValue().products.entrySet()) {
+                    byProduct.computeIfAbsent(entry.getKey(), product -> new Cell()).add(entry.getValue());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Bucket> statusBuckets = byStatus.entrySet().stream()
+                .map(entry -> entry.getValue().toBucket(entry.getKey().label()))
+                .toList();
+        List<Bucket> productBuckets = byProduct.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Cell> entry) -> entry.getValue().revenueCents).reversed())
+                .limit(topProducts)
+                .map(entry -> entry.getValue().toBucket(entry.getKey()))
+                .toList();
+        List<Bucket> timelineBuckets = timeline.entrySet().stream()
+                .map(entry -> entry.getValue().toBucket(fromEpochHour(entry.getKey()).toString()))
+                .toList();
+        return new OrderStats(fromHour != null ? fromEpochHour(fromHour) : null,
+                toHour != null ? fromEpochHour(toHour) : null, granularity,
+                total.orders, total.revenue(), statusBuckets, productBuckets, timelineBuckets);
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the order's state before the change and adds its state after, so every kind of write is a delta.
+     */
+    private static void apply(NavigableMap<Long, Hour> target, OrderChangedEvent event) {
+        if (event.previous() != null) {
+            add(target, event.previous(), -1);
+        }
+        if (event.order() != null) {
+            add(target, event.order(), 1);
+        }
+    }
+
+    private static void add(NavigableMap<Long, Hour> target, Order order, int sign) {
+        if (order.getOrderDate() == null) {
+            return;
+        }
+        long epochHour = epochHour(order.getOrderDate());
+        Hour hour = target.computeIfAbsent(epochHour, ignored -> new Hour());
+        hour.add(hour.statuses, order.getStatus(), sign, sign * cents(order.getTotalAmount()));
+        Map<String, Long> lineCents = new HashMap<>();
+        for (OrderLine line : order.getLines()) {
+            lineCents.merge(Objects.toString(line.getProductName(), ""), cents(line.getLineTotal()), Long::sum);
+        }
+        lineCents.forEach((product, cents) -> hour.add(hour.products, product, sign, sign * cents));
+        if (hour.isEmpty()) {
+            target.remove(epochHour);
+        }
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount != null ? amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact() : 0;
+    }
+
+    private static long epochHour(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), SECONDS_PER_HOUR);
+    }
+
+    private static long ceilEpochHour(LocalDateTime dateTime) {
+        LocalDateTime hourStart = dateTime.truncatedTo(ChronoUnit.HOURS);
+        return epochHour(hourStart) + (hourStart.equals(dateTime) ? 0 : 1);
+    }
+
+    private static LocalDateTime fromEpochHour(long hour) {
+        return LocalDateTime.ofEpochSecond(hour * SECONDS_PER_HOUR, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Cells of one hour: per status (order totals) and per product (line totals).
+     */
+    private static final class Hour {
+
+        private final Map<OrderStatus, Cell> statuses = new HashMap<>();
+        private final Map<String, Cell> products = new HashMap<>();
+
+        <K> void add(Map<K, Cell> cells, K key, long orders, long revenueCents) {
+            Cell cell = cells.computeIfAbsent(key, ignored -> new Cell());
+            cell.add(orders, revenueCents);
+            if (cell.orders <= 0) {
+                cells.remove(key);
+            }
+        }
+
+        boolean isEmpty() {
+            return statuses.isEmpty() && products.isEmpty();
+        }
+    }
+
+    private static final class Cell {
+
+        private long orders;
+        private long revenueCents;
+
+        void add(Cell other) {
+            add(other.orders, other.revenueCents);
+        }
+
+        void add(long orders, long revenueCents) {
+            this.orders += orders;
+            this.revenueCents += revenueCents;
+        }
+
+        BigDecimal revenue() {
+            return BigDecimal.valueOf(revenueCents, 2);
+        }
+
+        Bucket toBucket(String key) {
+            return new Bucket(key, orders, revenue());
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.ordertrackingsystem.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Order counts and revenue (order totals) over a date range, broken down by status, by product and over time.
+ *
+ * @param from         inclusive start of the range, rounded down to the hour, or {@code null} for all history
+ * @param to           exclusive end of the range, rounded up to the hour, or {@code null} for all history
+ * @param granularity  width of each timeline period
+ * @param totalOrders  number of orders in the range
+ * @param totalRevenue revenue of all orders in the range, whatever their status
+ * @param byStatus     totals per status
+ * @param byProduct    the highest-revenue products, best first: orders containing the product and the revenue of
+ *                     its lines
+ * @param timeline     totals per period that has orders, oldest first; keys are ISO period starts
+ */
+public record OrderStats(LocalDateTime from, LocalDateTime to, Granularity granularity, long totalOrders,
+                         BigDecimal totalRevenue, List<Bucket> byStatus, List<Bucket> byProduct, List<Bucket> timeline) {
+
+    /**
+     * Timeline period width.
+     */
+    public enum Granularity {
+        HOUR,
+        DAY;
+
+        public static Granularity fromParameter(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Totals for one status, product or period.
+     */
+    public record Bucket(String key, long orders, BigDecimal revenue) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.ordertrackingsystem.service;
+
+import java.util.List;
+
+/**
+ * Published by the bulk operations of {@link OrderService} once per chunk instead of one
+ * {@link OrderChangedEvent} per order. Listeners treat it exactly like its changes published one by one, but
+ * can do their work for the whole chunk at once (one outbox batch, one journal append, one projection update).
+ *
+ * @param changes the chunk's changes, in the order they were made
+ */
+public record OrdersChangedEvent(List<OrderChangedEvent> changes) {
+}
@@ -0,0 +1,11 @@
+package com.example.ordertrackingsystem.service;
+
+import com.example.ordertrackingsystem.model.Product;
+
+/**
+ * Published by {@link ProductService} whenever the catalog is written.
+ *
+ * @param product the product that was created or changed
+ */
+public record ProductCatalogChangedEvent(Product product) {
+}
@@ -1,12 +1,16 @@
 package com.example.ordertrackingsystem.service;
 
+import com.example.ordertrackingsystem.config.ReadFromReplica;
 import com.example.ordertrackingsystem.model.Product;
 import com.example.ordertrackingsystem.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import org.springframework.web.server.ResponseStatusException;
 
@@ -14,18 +18,24 @@ import org.springframework.web.server.ResponseStatusException;
  * Encapsulates business rules for managing products in the catalog.
  */
 @Service
+@Timed(value = "service.products", histogram = true)
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, ApplicationEventPublisher eventPublisher) {
         this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
     }
 
+    @ReadFromReplica
+    @Transactional(readOnly = true)
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
 
+    @Transactional
     public Product createProduct(Product product) {
         validateProduct(product);
         product.setId(null);
@@ -38,7 +48,9 @@ public class ProductService {
         if (product.getCreatedAt() == null) {
             product.setCreatedAt(LocalDateTime.now());
         }
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductCatalogChangedEvent(saved));
+        return saved;
     }
 
     private void validateProduct(Product product) {
@@ -0,0 +1,87 @@
+package com.example.ordertrackingsystem.service;
+
+import com.example.ordertrackingsystem.cache.ExpiringLruCache;
+import com.example.ordertrackingsystem.cluster.CacheInvalidation;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Remembers, for the replica's tolerated lag, which users just wrote and which orders just changed, so reads
+ * that must observe those writes can be sent to the primary instead of a replica that may not have them yet.
+ * Its listeners run before the cache evictions, so a reload after an eviction already sees the mark.
+ */
+@Component
+public class RecentWrites {
+
+    private static final int MAX_ENTRIES = 100_000;
+
+    private final ExpiringLruCache<String, Boolean> users;
+    private final ExpiringLruCache<Long, Boolean> orders;
+
+    public RecentWrites(@Value("${orders.datasource.replica.max-lag:PT5S}") Duration maxLag) {
+        this.users = new ExpiringLruCache<>(MAX_ENTRIES, maxLag);
+        this.orders = new ExpiringLruCache<>(MAX_ENTRIES, maxLag);
+    }
+
+    /**
+     * Whether {@code username} committed a write within the tolerated lag.
+     */
+    public boolean userWroteRecently(String username) {
+        return users.get(username) != null;
+    }
+
+    /**
+     * Whether order {@code orderId} changed within the tolerated lag.
+     */
+    public boolean orderChangedRecently(long orderId) {
+        return orders.get(orderId) != null;
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        if (event.orderId() != null) {
+            orders.put(event.orderId(), Boolean.TRUE);
+        }
+        if (event.order() != null && event.order().getCreatedBy() != null) {
+            users.put(event.order().getCreatedBy(), Boolean.TRUE);
+        }
+        markCurrentUser();
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrdersChanged(OrdersChangedEvent event) {
+        event.changes().forEach(this::onOrderChanged);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(ProductCatalogChangedEvent event) {
+        markCurrentUser();
+    }
+
+    /**
+     * Orders changed on another instance are just as fresh on the primary and possibly missing on the replica.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener
+    public void onRemoteInvalidation(CacheInvalidation invalidation) {
+        if (invalidation.region() == CacheInvalidation.Region.ORDER) {
+            orders.put(Long.parseLong(invalidation.key()), Boolean.TRUE);
+        }
+    }
+
+    private void markCurrentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()) {
+            users.put(authentication.getName(), Boolean.TRUE);
+        }
+    }
+}
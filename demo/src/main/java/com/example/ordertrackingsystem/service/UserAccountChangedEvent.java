@@ -0,0 +1,9 @@
+package com.example.ordertrackingsystem.service;
+
+/**
+ * Published by {@link UserAccountService} whenever an account is created or changed.
+ *
+ * @param username the normalized username of the account
+ */
+public record UserAccountChangedEvent(String username) {
+}
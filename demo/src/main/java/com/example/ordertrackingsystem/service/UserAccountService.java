@@ -2,33 +2,71 @@ package com.example.ordertrackingsystem.service;
 
 import com.example.ordertrackingsystem.model.UserAccount;
 import com.example.ordertrackingsystem.repository.UserAccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
 import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 import org.springframework.web.server.ResponseStatusException;
 
 /**
  * Handles creation of new user accounts with proper validation and hashing.
+ * Password hashing runs on a small bounded pool so a burst of signups queues there, or is turned away with
+ * {@code 503}, instead of holding request threads.
  */
 @Service
 public class UserAccountService {
 
+    private static final String DUPLICATE_MESSAGE = "An account with that email already exists.";
+
     private final UserAccountRepository userAccountRepository;
     private final PasswordEncoder passwordEncoder;
+    private final AuthenticationCache authenticationCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final KnownUsernames knownUsernames;
+    private final ExecutorService hashingExecutor;
 
-    public UserAccountService(UserAccountRepository userAccountRepository, PasswordEncoder passwordEncoder) {
+    public UserAccountService(UserAccountRepository userAccountRepository, PasswordEncoder passwordEncoder,
+                              AuthenticationCache authenticationCache, ApplicationEventPublisher eventPublisher,
+                              KnownUsernames knownUsernames, MeterRegistry meterRegistry,
+                              @Value("${security.registration.hash-threads:0}") int hashThreads,
+                              @Value("${security.registration.queue-capacity:200}") int queueCapacity) {
         this.userAccountRepository = userAccountRepository;
         this.passwordEncoder = passwordEncoder;
+        this.authenticationCache = authenticationCache;
+        this.eventPublisher = eventPublisher;
+        this.knownUsernames = knownUsernames;
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "registration-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        this.hashingExecutor = ExecutorServiceMetrics.monitor(meterRegistry, executor, "registration");
     }
 
     /**
-     * Creates a new account with the USER role.
+     * Creates a new account with the USER role. Input errors and names known to be taken fail immediately;
+     * otherwise the returned future completes once the password is hashed and the account is stored, or fails
+     * with {@code 409} if the username was taken in the meantime.
      */
-    @Transactional
-    public UserAccount registerUser(String email, String rawPassword) {
+    public CompletableFuture<UserAccount> registerUser(String email, String rawPassword) {
         String normalizedEmail = normalizeEmail(email);
         if (!StringUtils.hasText(normalizedEmail)) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Email is required.");
@@ -36,18 +74,41 @@ public class UserAccountService {
         if (!StringUtils.hasText(rawPassword) || rawPassword.length() < 6) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Password must be at least 6 characters long.");
         }
+        if (knownUsernames.mightExist(normalizedEmail) && userAccountRepository.existsByUsername(normalizedEmail)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, DUPLICATE_MESSAGE);
+        }
 
-        userAccountRepository.findByUsername(normalizedEmail).ifPresent(existing -> {
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "An account with that email already exists.");
-        });
+        try {
+            return CompletableFuture.supplyAsync(() -> createAccount(normalizedEmail, rawPassword), hashingExecutor);
+        } catch (RejectedExecutionException ex) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Too many sign-ups right now, please try again in a moment.");
+        }
+    }
 
+    @PreDestroy
+    void shutdown() {
+        hashingExecutor.shutdown();
+    }
+
+    private UserAccount createAccount(String username, String rawPassword) {
         UserAccount account = new UserAccount();
-        account.setUsername(normalizedEmail);
+        account.setUsername(username);
         account.setPassword(passwordEncoder.encode(rawPassword));
         account.setRole("USER");
         account.setEnabled(true);
 
-        return userAccountRepository.save(account);
+        UserAccount saved;
+        try {
+            saved = userAccountRepository.saveAndFlush(account);
+        } catch (DataIntegrityViolationException ex) {
+            knownUsernames.add(username);
+            throw new ResponseStatusException(HttpStatus.CONFLICT, DUPLICATE_MESSAGE);
+        }
+        knownUsernames.add(saved.getUsername());
+        authenticationCache.invalidate(saved.getUsername());
+        eventPublisher.publishEvent(new UserAccountChangedEvent(saved.getUsername()));
+        return saved;
     }
 
     private String normalizeEmail(String email) {
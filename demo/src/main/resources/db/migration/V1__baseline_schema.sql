@@ -0,0 +1,186 @@
+-- Schema of the current entities, as ddl-auto=update creates it. Databases that ddl-auto=update created are
+-- baselined at version 1 instead (spring.flyway.baseline-on-migrate); the application updates them to this schema
+-- on any dev start, and V2 fixes rows that predate it. Entity changes from here on each need a new migration.
+
+create table archived_orders (
+    price float(53) not null,
+    quantity integer not null,
+    total_amount decimal(12,2),
+    archived_at datetime(6) not null,
+    id bigint not null,
+    order_date datetime(6),
+    created_by varchar(255),
+    payload TEXT not null,
+    product_name varchar(255),
+    status varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table archived_order_lines (
+    quantity integer not null,
+    unit_price decimal(12,2),
+    order_id bigint not null,
+    product_name varchar(255)
+) engine=InnoDB;
+
+create table cache_invalidations (
+    created_at datetime(6) not null,
+    id bigint not null,
+    region varchar(16) not null,
+    node_id varchar(36) not null,
+    cache_key varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table cache_invalidations_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into cache_invalidations_seq values ( 1 );
+
+create table idempotency_keys (
+    status integer,
+    claimed_at datetime(6) not null,
+    expires_at datetime(6) not null,
+    request_hash varchar(64) not null,
+    idempotency_key varchar(300) not null,
+    body TEXT,
+    primary key (idempotency_key)
+) engine=InnoDB;
+
+create table order_lines (
+    quantity integer not null,
+    unit_price decimal(12,2),
+    id bigint not null,
+    order_id bigint not null,
+    product_id bigint,
+    product_name varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table order_lines_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into order_lines_seq values ( 1 );
+
+create table order_outbox (
+    attempts integer not null,
+    created_at datetime(6) not null,
+    id bigint not null,
+    next_attempt_at datetime(6),
+    order_id bigint not null,
+    event_type varchar(32) not null,
+    last_error varchar(1000),
+    payload TEXT not null,
+    status enum ('FAILED','PENDING') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table order_outbox_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into order_outbox_seq values ( 1 );
+
+create table orders (
+    price float(53) not null,
+    quantity integer not null,
+    total_amount decimal(12,2),
+    id bigint not null,
+    order_date datetime(6) not null,
+    product_id bigint,
+    updated_at datetime(6),
+    version bigint default 0,
+    created_by varchar(255),
+    customer_name varchar(255),
+    product_name varchar(255),
+    status varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table orders_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into orders_seq values ( 1 );
+
+create table products (
+    featured TINYINT(1) DEFAULT 1 not null,
+    price decimal(38,2),
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    description varchar(255),
+    image_url varchar(255),
+    name varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table user_accounts (
+    enabled bit not null,
+    id bigint not null auto_increment,
+    tokens_not_before datetime(6),
+    role varchar(50) not null,
+    username varchar(100) not null,
+    password varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_archived_orders_owner_date
+   on archived_orders (created_by, order_date);
+
+create index idx_archived_orders_date
+   on archived_orders (order_date);
+
+create index idx_archived_order_lines_order
+   on archived_order_lines (order_id);
+
+create index idx_cache_invalidations_created
+   on cache_invalidations (created_at);
+
+create index idx_idempotency_keys_expires
+   on idempotency_keys (expires_at);
+
+create index idx_order_lines_order
+   on order_lines (order_id);
+
+create index idx_order_lines_product
+   on order_lines (product_id);
+
+create index idx_order_outbox_status_id
+   on order_outbox (status, id);
+
+create index idx_order_outbox_order_id
+   on order_outbox (order_id, id);
+
+create index idx_orders_date_id
+   on orders (order_date, id);
+
+create index idx_orders_owner_date_id
+   on orders (created_by, order_date, id);
+
+create index idx_orders_status_date_id
+   on orders (status, order_date, id);
+
+alter table user_accounts
+   add constraint UKlxwlgwuy2yrbye2vgs9w9x7mr unique (username);
+
+alter table archived_order_lines
+   add constraint fk_archived_order_lines_order
+   foreign key (order_id)
+   references archived_orders (id);
+
+alter table order_lines
+   add constraint FK1smc0s578t2oih21yn9hw6usr
+   foreign key (order_id)
+   references orders (id);
+
+alter table order_lines
+   add constraint FK5v1oeejtgtf2n3toppm3tkuhh
+   foreign key (product_id)
+   references products (id);
+
+alter table orders
+   add constraint FKkp5k52qtiygd8jkag4hayd0qg
+   foreign key (product_id)
+   references products (id);
@@ -0,0 +1,27 @@
+-- Rows written by earlier versions of the application, in databases that ddl-auto=update created and that were
+-- baselined at version 1. Every statement only touches rows that do not match V1 yet, so on a database created by V1
+-- it changes nothing.
+
+-- Order listings page by (order_date, id), so every order needs a date. Rows written before order_date was required
+-- carry no date at all; they are dated at the epoch, which keeps them at the end of the newest-first listing.
+-- ddl-auto=update does not tighten existing columns, so the constraint is added here as well.
+update orders set order_date = '1970-01-01 00:00:00' where order_date is null;
+
+alter table orders modify order_date datetime(6) not null;
+
+-- Orders created before statuses were validated may hold free-form text. Rewrite them to the four labels the
+-- application stores, mapping them the way OrderStatus.fromStoredValue reads them, so status filters and counts
+-- match what the API shows.
+update orders set status = 'Cancelled' where lower(trim(status)) in ('cancelled', 'canceled');
+update orders set status = 'Delivered' where lower(trim(status)) in ('delivered', 'complete', 'completed', 'fulfilled');
+update orders set status = 'Shipped' where lower(trim(status)) in ('shipped', 'in transit', 'dispatched', 'shipping');
+update orders set status = 'Pending' where status is null or status not in ('Pending', 'Shipped', 'Delivered', 'Cancelled');
+
+-- Orders archived before archived orders kept their lines get one line from their summary columns, so revenue per
+-- product is grouped over lines for them too. The unit price is derived from the order total, so per-product revenue
+-- of those orders may be off by a cent, while order totals stay exact.
+insert into archived_order_lines (quantity, unit_price, order_id, product_name)
+select a.quantity, case when a.quantity > 0 then round(a.total_amount / a.quantity, 2) else a.total_amount end,
+       a.id, a.product_name
+from archived_orders a
+where not exists (select 1 from archived_order_lines l where l.order_id = a.id);
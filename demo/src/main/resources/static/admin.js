@@ -1,6 +1,7 @@
 const statusEl = document.getElementById('status');
 const loadOrdersButton = document.getElementById('loadOrders');
 const refreshOrdersButton = document.getElementById('refreshOrders');
+const loadMoreOrdersButton = document.getElementById('loadMoreOrders');
 const createOrderForm = document.getElementById('createOrderForm');
 const editOrderSection = document.getElementById('editOrderSection');
 const editOrderForm = document.getElementById('editOrderForm');
@@ -14,16 +15,29 @@ const productTableBody = document.querySelector('#productTable tbody');
 const refreshProductsButton = document.getElementById('refreshProducts');
 const productImageInput = document.getElementById('catalogProductImage');
 const productFeaturedInput = document.getElementById('catalogProductFeatured');
-
+const statsTotalsEl = document.getElementById('statsTotals');
+const statsTableBody = document.querySelector('#statsTable tbody');
+const selectAllOrdersInput = document.getElementById('selectAllOrders');
+const selectedCountEl = document.getElementById('selectedCount');
+const bulkStatusSelect = document.getElementById('bulkStatus');
+const bulkUpdateStatusButton = document.getElementById('bulkUpdateStatus');
+const bulkDeleteButton = document.getElementById('bulkDelete');
+
+const ORDERS_PAGE_SIZE = 100;
+const STATS_WINDOW_DAYS = 30;
 const STATUS_OPTIONS = ['Pending', 'Shipped', 'Delivered', 'Cancelled'];
 const NON_CANCELLABLE_STATUSES = new Set(['shipped', 'delivered', 'cancelled']);
 
 let editingOrderId = null;
+let nextOrdersCursor = null;
+let orderStream = null;
 const ordersCache = new Map();
+const selectedOrderIds = new Set();
 let productsCache = [];
 
 loadOrdersButton.addEventListener('click', loadOrders);
 refreshOrdersButton.addEventListener('click', loadOrders);
+loadMoreOrdersButton.addEventListener('click', loadMoreOrders);
 createOrderForm.addEventListener('submit', handleCreateOrder);
 editOrderForm.addEventListener('submit', handleSaveChanges);
 cancelEditButton.addEventListener('click', () => {
@@ -32,6 +46,9 @@ cancelEditButton.addEventListener('click', () => {
 });
 productForm.addEventListener('submit', handleCreateProduct);
 refreshProductsButton.addEventListener('click', loadProducts);
+selectAllOrdersInput.addEventListener('change', toggleAllOrders);
+bulkUpdateStatusButton.addEventListener('click', bulkUpdateStatus);
+bulkDeleteButton.addEventListener('click', bulkDelete);
 
 loadProducts();
 
@@ -53,33 +70,129 @@ async function loadOrders() {
     statusEl.textContent = 'Loading orders…';
     statusEl.classList.remove('is-error');
     ordersTableBody.innerHTML = '';
+    ordersCache.clear();
+    selectedOrderIds.clear();
+    updateSelectionSummary();
+    nextOrdersCursor = null;
+    loadMoreOrdersButton.classList.add('hidden');
 
     try {
-        const response = await fetch('/api/orders', {
-            headers: { 'Authorization': getAuthHeader() }
-        });
+        await fetchOrdersPage(null);
+        statusEl.textContent = `Loaded ${ordersCache.size} order(s).`;
+        subscribeToOrderStream();
+        await loadOrderStats();
+    } catch (error) {
+        statusEl.textContent = error.message;
+        statusEl.classList.add('is-error');
+    }
+}
 
-        if (response.status === 401) {
-            throw new Error('Authentication failed. Check the username and password.');
-        }
+async function loadOrderStats() {
+    const from = new Date(Date.now() - STATS_WINDOW_DAYS * 24 * 60 * 60 * 1000);
+    const params = new URLSearchParams({ from: from.toISOString().slice(0, 19), top: '0' });
+    const response = await fetch(`/api/orders/stats?${params}`, {
+        headers: { 'Authorization': getAuthHeader() }
+    });
+    if (!response.ok) {
+        statsTotalsEl.textContent = response.status === 403 ? 'Statistics are only available to admins.' : '';
+        statsTableBody.innerHTML = '';
+        return;
+    }
 
-        if (!response.ok) {
-            throw new Error(`Failed to load orders (${response.status}).`);
+    const stats = await response.json();
+    statsTotalsEl.textContent = `${stats.totalOrders} order(s), $${stats.totalRevenue.toFixed(2)} revenue`;
+    statsTableBody.innerHTML = stats.byStatus.map((bucket) => `
+        <tr>
+            <td>${bucket.key}</td>
+            <td>${bucket.orders}</td>
+            <td>$${bucket.revenue.toFixed(2)}</td>
+        </tr>
+    `).join('');
+}
+
+function subscribeToOrderStream() {
+    if (orderStream || typeof EventSource === 'undefined') {
+        return;
+    }
+
+    orderStream = new EventSource('/api/orders/stream');
+    orderStream.addEventListener('order-status', (event) => {
+        try {
+            applyOrderUpdate(JSON.parse(event.data));
+        } catch (error) {
+            // Ignore malformed events; the next refresh will resync the table.
+        }
+    });
+    orderStream.addEventListener('error', () => {
+        if (orderStream && orderStream.readyState === EventSource.CLOSED) {
+            orderStream = null;
         }
+    });
+}
 
-        const orders = await response.json();
-        renderOrders(orders);
-        statusEl.textContent = `Loaded ${orders.length} order(s).`;
+function applyOrderUpdate(update) {
+    const key = String(update.orderId);
+    const order = ordersCache.get(key);
+    if (!order) {
+        return;
+    }
+
+    const select = ordersTableBody.querySelector(`select[data-order-id="${key}"]`);
+    if (update.type === 'DELETED') {
+        ordersCache.delete(key);
+        select?.closest('tr')?.remove();
+        return;
+    }
+
+    order.status = update.status;
+    order.version = update.version;
+    if (select) {
+        select.value = update.status;
+    }
+}
+
+async function loadMoreOrders() {
+    if (!nextOrdersCursor) {
+        return;
+    }
+
+    statusEl.textContent = 'Loading more orders…';
+    statusEl.classList.remove('is-error');
+
+    try {
+        await fetchOrdersPage(nextOrdersCursor);
+        statusEl.textContent = `Loaded ${ordersCache.size} order(s).`;
     } catch (error) {
         statusEl.textContent = error.message;
         statusEl.classList.add('is-error');
     }
 }
 
-function renderOrders(orders) {
-    ordersTableBody.innerHTML = '';
-    ordersCache.clear();
+async function fetchOrdersPage(cursor) {
+    const params = new URLSearchParams({ size: String(ORDERS_PAGE_SIZE) });
+    if (cursor) {
+        params.set('cursor', cursor);
+    }
+
+    const response = await fetch(`/api/orders?${params}`, {
+        headers: { 'Authorization': getAuthHeader() }
+    });
+
+    if (response.status === 401) {
+        throw new Error('Authentication failed. Check the username and password.');
+    }
+
+    if (!response.ok) {
+        throw new Error(`Failed to load orders (${response.status}).`);
+    }
+
+    const page = await response.json();
+    appendOrders(page.items || []);
+    nextOrdersCursor = page.nextCursor || null;
+    loadMoreOrdersButton.classList.toggle('hidden', !nextOrdersCursor);
+}
 
+function appendOrders(orders) {
     orders.forEach((order) => {
         const row = document.createElement('tr');
         const normalizedStatus = (order.status || '').toLowerCase();
@@ -97,6 +210,7 @@ function renderOrders(orders) {
             : '';
 
         row.innerHTML = `
+            <td><input type="checkbox" data-select-order-id="${order.id}" aria-label="Select order ${order.id}"></td>
             <td>${order.id}</td>
             <td>${order.customerName || ''}</td>
             <td>${order.createdBy || ''}</td>
@@ -115,11 +229,12 @@ function renderOrders(orders) {
             </td>
         `;
 
-        ordersTableBody.appendChild(row);
-    });
+        row.querySelectorAll('button[data-action]').forEach((button) => {
+            button.addEventListener('click', handleRowAction);
+        });
+        row.querySelector('input[data-select-order-id]').addEventListener('change', handleOrderSelection);
 
-    ordersTableBody.querySelectorAll('button[data-action]').forEach((button) => {
-        button.addEventListener('click', handleRowAction);
+        ordersTableBody.appendChild(row);
     });
 }
 
@@ -340,7 +455,8 @@ async function handleSaveChanges(event) {
         quantity: Number(document.getElementById('editQuantity').value),
         price: Number(document.getElementById('editPrice').value),
         status: document.getElementById('editStatus').value,
-        orderDate: document.getElementById('editOrderDate').value
+        orderDate: document.getElementById('editOrderDate').value,
+        version: ordersCache.get(String(editingOrderId))?.version
     };
 
     if (!payload.customerName || !payload.productName || !payload.orderDate || Number.isNaN(payload.quantity) || Number.isNaN(payload.price)) {
@@ -363,6 +479,9 @@ async function handleSaveChanges(event) {
         });
 
         if (!response.ok) {
+            if (response.status === 409) {
+                throw new Error('Order was changed by someone else or the status change is not allowed. Reload and try again.');
+            }
             throw new Error(`Failed to update order (${response.status}).`);
         }
 
@@ -394,10 +513,13 @@ async function updateOrderStatus(orderId) {
                 'Content-Type': 'application/json',
                 'Authorization': getAuthHeader()
             },
-            body: JSON.stringify({ status: newStatus })
+            body: JSON.stringify({ status: newStatus, version: ordersCache.get(String(orderId))?.version })
         });
 
         if (!response.ok) {
+            if (response.status === 409) {
+                throw new Error(`Order ${orderId} cannot move to ${newStatus}, or it was changed by someone else.`);
+            }
             throw new Error(`Failed to update order ${orderId} (${response.status}).`);
         }
 
@@ -471,6 +593,90 @@ async function deleteOrder(orderId) {
     }
 }
 
+function handleOrderSelection(event) {
+    const orderId = Number(event.target.dataset.selectOrderId);
+    if (event.target.checked) {
+        selectedOrderIds.add(orderId);
+    } else {
+        selectedOrderIds.delete(orderId);
+    }
+    updateSelectionSummary();
+}
+
+function toggleAllOrders() {
+    const checked = selectAllOrdersInput.checked;
+    ordersTableBody.querySelectorAll('input[data-select-order-id]').forEach((input) => {
+        input.checked = checked;
+        const orderId = Number(input.dataset.selectOrderId);
+        if (checked) {
+            selectedOrderIds.add(orderId);
+        } else {
+            selectedOrderIds.delete(orderId);
+        }
+    });
+    updateSelectionSummary();
+}
+
+function updateSelectionSummary() {
+    selectedCountEl.textContent = `${selectedOrderIds.size} selected`;
+    selectAllOrdersInput.checked = selectedOrderIds.size > 0 && selectedOrderIds.size === ordersCache.size;
+}
+
+async function bulkUpdateStatus() {
+    const status = bulkStatusSelect.value;
+    if (!selectedOrderIds.size) {
+        statusEl.textContent = 'Select at least one order first.';
+        statusEl.classList.add('is-error');
+        return;
+    }
+    await runBulkAction('/api/orders/batch/status', 'PATCH', { ids: [...selectedOrderIds], status },
+        `Setting ${selectedOrderIds.size} order(s) to ${status}…`, 'updated');
+}
+
+async function bulkDelete() {
+    if (!selectedOrderIds.size) {
+        statusEl.textContent = 'Select at least one order first.';
+        statusEl.classList.add('is-error');
+        return;
+    }
+    if (!window.confirm(`Delete ${selectedOrderIds.size} order(s)?`)) {
+        return;
+    }
+    await runBulkAction('/api/orders/batch/delete', 'POST', { ids: [...selectedOrderIds] },
+        `Deleting ${selectedOrderIds.size} order(s)…`, 'deleted');
+}
+
+async function runBulkAction(url, method, payload, progressMessage, verb) {
+    try {
+        statusEl.textContent = progressMessage;
+        statusEl.classList.remove('is-error');
+
+        const response = await fetch(url, {
+            method,
+            headers: {
+                'Content-Type': 'application/json',
+                'Authorization': getAuthHeader()
+            },
+            body: JSON.stringify(payload)
+        });
+
+        if (!response.ok) {
+            throw new Error(`Bulk request failed (${response.status}).`);
+        }
+
+        const result = await response.json();
+        const skipped = result.results.filter((outcome) => outcome.result === 'CONFLICT' || outcome.result === 'NOT_FOUND');
+        await loadOrders();
+        statusEl.textContent = skipped.length
+            ? `${result.succeeded} order(s) ${verb}; ${skipped.length} skipped (e.g. ${skipped[0].message}).`
+            : `${result.succeeded} order(s) ${verb}.`;
+        statusEl.classList.toggle('is-error', skipped.length > 0);
+    } catch (error) {
+        statusEl.textContent = error.message;
+        statusEl.classList.add('is-error');
+    }
+}
+
 const currencyFormatter = new Intl.NumberFormat('en-US', { style: 'currency', currency: 'USD' });
 
 function formatCurrency(value) {
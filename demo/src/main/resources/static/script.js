@@ -32,6 +32,7 @@ let cart = [];
 const recentOrders = [];
 let cartMessageTimeout;
 let catalogChannel = null;
+let trackedOrderStream = null;
 
 renderProducts();
 loadProducts();
@@ -103,11 +104,7 @@ checkoutForm.addEventListener('submit', async (event) => {
     setCheckoutState(true);
 
     try {
-        const created = [];
-        for (const item of cart) {
-            const order = await createOrderForItem(item, { customerName, username, password });
-            created.push(order);
-        }
+        const created = await createOrdersForCart(cart, { customerName, username, password });
 
         created.forEach((order) => {
             addRecentOrder(order);
@@ -159,7 +156,7 @@ trackForm.addEventListener('submit', (event) => {
 async function loadProducts() {
     setProductMessage('Loading products…');
     try {
-        const response = await fetch('/api/products');
+        const response = await fetch('/api/products?featured=true');
         if (!response.ok) {
             throw new Error(`Unable to load products (${response.status}).`);
         }
@@ -167,7 +164,6 @@ async function loadProducts() {
         const payload = await response.json();
         catalog = Array.isArray(payload)
             ? payload
-                .filter((item) => item?.featured !== false)
                 .map((item) => ({
                     id: item.id != null ? String(item.id) : crypto.randomUUID(),
                     name: item.name || 'Untitled Product',
@@ -331,21 +327,26 @@ function displayCheckoutMessage(message, isError) {
     checkoutFeedback.classList.toggle('is-success', !!message && !isError);
 }
 
-async function createOrderForItem(item, details) {
-    const payload = {
+async function createOrdersForCart(items, details) {
+    const orderDate = buildOrderDate();
+    const payload = items.map((item) => ({
         customerName: details.customerName,
+        productId: /^\d+$/.test(item.id) ? Number(item.id) : null,
         productName: item.name,
         quantity: item.quantity,
-        price: Number((item.price * item.quantity).toFixed(2)),
+        price: item.price,
         status: 'Pending',
-        orderDate: buildOrderDate()
-    };
+        orderDate
+    }));
 
-    const response = await fetch('/api/orders', {
+    // One key per checkout: retries after a dropped connection replay the original result instead of ordering twice.
+    const idempotencyKey = generateIdempotencyKey();
+    const response = await postWithRetry('/api/orders/batch', {
         method: 'POST',
         headers: {
             'Content-Type': 'application/json',
-            'Authorization': 'Basic ' + btoa(`${details.username}:${details.password}`)
+            'Authorization': 'Basic ' + btoa(`${details.username}:${details.password}`),
+            'Idempotency-Key': idempotencyKey
         },
         body: JSON.stringify(payload)
     });
@@ -357,12 +358,37 @@ async function createOrderForItem(item, details) {
         if (response.status === 403) {
             throw new Error('You do not have permission to place orders with these credentials.');
         }
-        throw new Error(`Unable to create an order for ${item.name}. (${response.status})`);
+        throw new Error(`Unable to place your order. (${response.status})`);
     }
 
     return response.json();
 }
 
+function generateIdempotencyKey() {
+    if (window.crypto && typeof window.crypto.randomUUID === 'function') {
+        return window.crypto.randomUUID();
+    }
+    return `${Date.now().toString(36)}-${Math.random().toString(36).slice(2)}-${Math.random().toString(36).slice(2)}`;
+}
+
+async function postWithRetry(url, options) {
+    const maxAttempts = 3;
+    for (let attempt = 1; ; attempt++) {
+        try {
+            const response = await fetch(url, options);
+            // 409 means the first attempt is still being processed; wait for it to finish.
+            if (response.status !== 409 || attempt === maxAttempts) {
+                return response;
+            }
+        } catch (error) {
+            if (!(error instanceof TypeError) || attempt === maxAttempts) {
+                throw error;
+            }
+        }
+        await new Promise((resolve) => setTimeout(resolve, 500 * attempt));
+    }
+}
+
 function addRecentOrder(order) {
     recentOrders.unshift({
         id: order.id != null ? String(order.id) : '',
@@ -423,6 +449,7 @@ async function trackOrderById(orderId) {
         const data = await response.json();
         updateResult(data, orderId);
         setTrackingMessage('We found your order! Here is the latest information.', false);
+        watchTrackedOrder(orderId);
     } catch (error) {
         setTrackingMessage(error.message, true);
     } finally {
@@ -430,6 +457,41 @@ async function trackOrderById(orderId) {
     }
 }
 
+function watchTrackedOrder(orderId) {
+    if (trackedOrderStream) {
+        trackedOrderStream.close();
+        trackedOrderStream = null;
+    }
+
+    if (typeof EventSource === 'undefined') {
+        return;
+    }
+
+    trackedOrderStream = new EventSource(`/api/orders/stream?orderId=${encodeURIComponent(orderId)}`);
+    trackedOrderStream.addEventListener('order-status', (event) => {
+        try {
+            const update = JSON.parse(event.data);
+            if (update.type === 'DELETED') {
+                setTrackingMessage('This order has been removed.', true);
+                return;
+            }
+            resultStatus.textContent = update.status ?? '—';
+            const delivery = formatDelivery(null, update.status);
+            if (delivery !== '—') {
+                resultDelivery.textContent = delivery;
+            }
+            setTrackingMessage(`Status updated to ${update.status}.`, false);
+        } catch (error) {
+            // Ignore malformed events; the user can re-check manually.
+        }
+    });
+    trackedOrderStream.addEventListener('error', () => {
+        if (trackedOrderStream && trackedOrderStream.readyState === EventSource.CLOSED) {
+            trackedOrderStream = null;
+        }
+    });
+}
+
 function updateResult(data, fallbackId) {
     resultOrderId.textContent = data.orderId ?? fallbackId ?? '—';
     resultCustomer.textContent = data.customerName ?? '—';
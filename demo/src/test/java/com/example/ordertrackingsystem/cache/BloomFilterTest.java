@@ -0,0 +1,101 @@
+package com.example.ordertrackingsystem.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * No false negatives, a false positive rate near the configured target, and sizing.
+ */
+class BloomFilterTest {
+
+    @Test
+    void neverForgetsAnAddedValue() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("user-" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("user-" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("user-" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other-" + i)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(100, 0.01);
+
+        assertThat(filter.mightContain("alice")).isFalse();
+        assertThat(filter.mightContain("")).isFalse();
+    }
+
+    @Test
+    void reportsSaturationOnlyPastExpectedInsertions() {
+        BloomFilter filter = new BloomFilter(2, 0.01);
+        filter.add("a");
+        filter.add("b");
+        assertThat(filter.isSaturated()).isFalse();
+
+        filter.add("c");
+        assertThat(filter.isSaturated()).isTrue();
+    }
+
+    @Test
+    void sizesBitsFromExpectedInsertionsAndRate() {
+        // About 9.6 bits per value at 1%, rounded up to whole 64-bit words.
+        assertThat(new BloomFilter(1_000_000, 0.01).sizeInBytes()).isBetween(1_190_000L, 1_200_000L);
+        assertThat(new BloomFilter(1, 0.5).sizeInBytes()).isEqualTo(8);
+    }
+
+    @Test
+    void concurrentAddsAreNotLost() throws Exception {
+        BloomFilter filter = new BloomFilter(40_000, 0.01);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                executor.execute(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        filter.add(thread + ":" + i);
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        for (int t = 0; t < 4; t++) {
+            for (int i = 0; i < 10_000; i++) {
+                assertThat(filter.mightContain(t + ":" + i)).isTrue();
+            }
+        }
+    }
+
+    @Test
+    void rejectsInvalidSizing() {
+        assertThatThrownBy(() -> new BloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(10, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(10, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.ordertrackingsystem.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.Status;
+
+/**
+ * Readiness of the startup tasks, inline and in the background, and of tasks that are never inline.
+ */
+class StartupTasksTest {
+
+    @Test
+    void notReadyUntilTheApplicationIsReady() {
+        StartupTasks startupTasks = new StartupTasks(provider(List.of()), false, 1);
+
+        assertThat(startupTasks.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+
+        startupTasks.onApplicationReady();
+
+        assertThat(startupTasks.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    void inlineTasksFinishBeforeStartupContinues() {
+        boolean[] ran = {false};
+        StartupTasks startupTasks = new StartupTasks(provider(List.of(() -> ran[0] = true)), false, 1);
+
+        startupTasks.onApplicationReady();
+
+        assertThat(ran[0]).isTrue();
+        assertThat(startupTasks.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    void backgroundTasksHoldReadinessUntilTheyFinish() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(2);
+        StartupTask blocked = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } finally {
+                finished.countDown();
+            }
+        };
+        StartupTask failing = () -> {
+            finished.countDown();
+            throw new IllegalStateException("database unavailable");
+        };
+        StartupTasks startupTasks = new StartupTasks(provider(List.of(blocked, failing)), true, 2);
+
+        startupTasks.onApplicationReady();
+
+        assertThat(startupTasks.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+        release.countDown();
+        assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 100 && startupTasks.health().getStatus() != Status.UP; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(startupTasks.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @Test
+    void tasksThatAreNotInlineDoNotHoldReadiness() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(1);
+        StartupTask recovery = new StartupTask() {
+            @Override
+            public void runAtStartup() {
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    finished.countDown();
+                }
+            }
+
+            @Override
+            public boolean inline() {
+                return false;
+            }
+        };
+        StartupTasks startupTasks = new StartupTasks(provider(List.of(recovery)), false, 1);
+
+        startupTasks.onApplicationReady();
+
+        assertThat(startupTasks.health().getStatus()).isEqualTo(Status.UP);
+        release.countDown();
+        assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(startupTasks.health().getStatus()).isEqualTo(Status.UP);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<StartupTask> provider(List<StartupTask> tasks) {
+        ObjectProvider<StartupTask> provider = mock(ObjectProvider.class);
+        when(provider.orderedStream()).thenAnswer(invocation -> tasks.stream());
+        return provider;
+    }
+}
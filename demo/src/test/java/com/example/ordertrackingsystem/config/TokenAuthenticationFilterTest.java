@@ -0,0 +1,98 @@
+package com.example.ordertrackingsystem.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.example.ordertrackingsystem.cluster.InvalidationChannel;
+import com.example.ordertrackingsystem.repository.UserAccountRepository;
+import com.example.ordertrackingsystem.service.AuthTokenService;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServlet;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Requests with valid, tampered, expired and missing access tokens.
+ */
+class TokenAuthenticationFilterTest {
+
+    private AuthTokenService tokenService;
+    private TokenAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        tokenService = service(Duration.ofHours(8));
+        filter = new TokenAuthenticationFilter(tokenService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void authenticatesBearerTokensAndTokenCookies() throws Exception {
+        String token = tokenService.issue(user("alice")).token();
+
+        MockHttpServletRequest bearer = new MockHttpServletRequest();
+        bearer.addHeader(HttpHeaders.AUTHORIZATION, "bearer " + token);
+        assertThat(filter(bearer)).extracting(Authentication::getName).isEqualTo("alice");
+
+        MockHttpServletRequest cookie = new MockHttpServletRequest();
+        cookie.setCookies(new Cookie(TokenAuthenticationFilter.TOKEN_COOKIE, token));
+        assertThat(filter(cookie)).extracting(Authentication::getName).isEqualTo("alice");
+    }
+
+    @Test
+    void leavesRequestsWithInvalidTokensUnauthenticated() throws Exception {
+        String token = tokenService.issue(user("alice")).token();
+        int signature = token.indexOf('.') + 1;
+        String tampered = token.substring(0, signature) + (token.charAt(signature) == 'A' ? "B" : "A")
+                + token.substring(signature + 1);
+        AuthTokenService expiring = service(Duration.ZERO);
+
+        assertThat(filter(bearer(tampered))).isNull();
+        assertThat(filter(bearer("garbage"))).isNull();
+        assertThat(filter(bearer(expiring.issue(user("alice")).token()))).isNull();
+        assertThat(filter(new MockHttpServletRequest())).isNull();
+    }
+
+    /**
+     * Runs the request through the filter and returns the authentication the rest of the chain saw.
+     */
+    private Authentication filter(MockHttpServletRequest request) throws Exception {
+        SecurityContextHolder.clearContext();
+        Authentication[] seen = new Authentication[1];
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+        }, (servletRequest, servletResponse, next) -> seen[0] = SecurityContextHolder.getContext().getAuthentication());
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return seen[0];
+    }
+
+    private static MockHttpServletRequest bearer(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        return request;
+    }
+
+    private static AuthTokenService service(Duration ttl) {
+        return new AuthTokenService(mock(UserAccountRepository.class), mock(InvalidationChannel.class),
+                "0123456789abcdef0123456789abcdef", ttl, "token", Duration.ofSeconds(10), 1000);
+    }
+
+    private static Authentication user(String username) {
+        return UsernamePasswordAuthenticationToken.authenticated(username, null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+}
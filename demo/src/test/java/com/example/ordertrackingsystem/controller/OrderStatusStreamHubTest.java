@@ -0,0 +1,157 @@
+package com.example.ordertrackingsystem.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.ordertrackingsystem.controller.OrderStatusStreamHub.OrderStatusUpdate;
+import com.example.ordertrackingsystem.model.Order;
+import com.example.ordertrackingsystem.model.OrderStatus;
+import com.example.ordertrackingsystem.service.OrderChangedEvent;
+import com.example.ordertrackingsystem.service.OrderChangedEvent.ChangeType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Event ids and Last-Event-ID replay of the order stream when commits and reconnects race.
+ */
+class OrderStatusStreamHubTest {
+
+    private OrderStatusStreamHub hub;
+    private ExecutorService writers;
+
+    @BeforeEach
+    void setUp() {
+        hub = new OrderStatusStreamHub(Duration.ofMinutes(5), 1000, 1024, 4096, 2, new SimpleMeterRegistry()) {
+            @Override
+            SseEmitter newEmitter(long timeoutMillis) {
+                return new RecordingEmitter();
+            }
+        };
+        writers = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writers.shutdownNow();
+        hub.shutdown();
+    }
+
+    @Test
+    void concurrentCommitsReachSubscribersInIdOrderWithoutGaps() throws InterruptedException {
+        RecordingEmitter all = (RecordingEmitter) hub.subscribeToAll(null);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int writer = 0; writer < 4; writer++) {
+            long firstOrder = writer * 1000L;
+            writers.execute(() -> {
+                awaitQuietly(start);
+                for (long orderId = firstOrder; orderId < firstOrder + 250; orderId++) {
+                    commit(orderId);
+                }
+            });
+        }
+        start.countDown();
+
+        List<Long> ids = all.awaitEvents(1000);
+
+        assertThat(ids).hasSize(1000);
+        assertConsecutive(ids, ids.get(0));
+    }
+
+    @Test
+    void reconnectDuringAWriteReplaysEveryMissedEventInOrder() throws InterruptedException {
+        RecordingEmitter first = (RecordingEmitter) hub.subscribeToAll(null);
+        for (long orderId = 1; orderId <= 3; orderId++) {
+            commit(orderId);
+        }
+        long lastSeen = first.awaitEvents(3).get(0);
+
+        for (int attempt = 0; attempt < 20; attempt++) {
+            CountDownLatch writing = new CountDownLatch(1);
+            writers.execute(() -> {
+                writing.countDown();
+                commit(4);
+            });
+            awaitQuietly(writing);
+            RecordingEmitter reconnected = (RecordingEmitter) hub.subscribeToAll(lastSeen);
+
+            int expected = 3 + attempt;
+            List<Long> replayed = reconnected.awaitEvents(expected);
+
+            assertThat(replayed).hasSize(expected);
+            assertConsecutive(replayed, lastSeen + 1);
+        }
+    }
+
+    @Test
+    void orderSubscriberReplaysOnlyItsOrder() throws InterruptedException {
+        RecordingEmitter all = (RecordingEmitter) hub.subscribeToAll(null);
+        commit(1);
+        commit(2);
+        commit(1);
+        List<Long> ids = all.awaitEvents(3);
+
+        RecordingEmitter single = (RecordingEmitter) hub.subscribeToOrder(1, ids.get(0) - 1);
+
+        assertThat(single.awaitEvents(2)).containsExactly(ids.get(0), ids.get(2));
+    }
+
+    private void commit(long orderId) {
+        Order order = new Order(orderId, "customer", "widget", 1, 10.0, OrderStatus.SHIPPED, LocalDateTime.now());
+        order.setVersion(1L);
+        hub.onOrderChanged(new OrderChangedEvent(ChangeType.STATUS_CHANGED, orderId, order, null));
+    }
+
+    private static void assertConsecutive(List<Long> ids, long first) {
+        assertThat(ids).containsExactlyElementsOf(LongStream.range(first, first + ids.size()).boxed().toList());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Records the event ids sent to it instead of writing them to a response.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<Long> eventIds = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            for (DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof OrderStatusUpdate update) {
+                    eventIds.add(update.eventId());
+                }
+            }
+        }
+
+        /**
+         * Waits until at least {@code count} events arrived and a moment passed without more, then returns them.
+         */
+        List<Long> awaitEvents(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (eventIds.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            Thread.sleep(20);
+            return new ArrayList<>(eventIds);
+        }
+    }
+}
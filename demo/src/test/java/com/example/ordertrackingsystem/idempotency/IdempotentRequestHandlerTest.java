@@ -0,0 +1,102 @@
+package com.example.ordertrackingsystem.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.example.ordertrackingsystem.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Replays of the same {@code Idempotency-Key} through the database store, with real transactions.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:idempotencytest;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotentRequestHandlerTest {
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private IdempotentRequestHandler handler;
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        DatabaseIdempotencyStore store = new DatabaseIdempotencyStore(repository, Duration.ofHours(1),
+                Duration.ofMinutes(1));
+        handler = new IdempotentRequestHandler(store, new ObjectMapper(), new SimpleMeterRegistry(),
+                Duration.ofSeconds(1), transactionManager);
+    }
+
+    @Test
+    void replaysTheFirstResponseForTheSameKey() {
+        ResponseEntity<byte[]> first = execute("key-1", "widget");
+        ResponseEntity<byte[]> retry = execute("key-1", "widget");
+
+        assertThat(executions).hasValue(1);
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getHeaders().getFirst(IdempotentRequestHandler.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(first.getHeaders().containsKey(IdempotentRequestHandler.REPLAYED_HEADER)).isFalse();
+        assertThat(body(retry)).isEqualTo(body(first)).isEqualTo("{\"execution\":1}");
+    }
+
+    @Test
+    void rejectsTheSameKeyForADifferentRequest() {
+        execute("key-1", "widget");
+
+        assertThatThrownBy(() -> execute("key-1", "gadget"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void responseIsNotRecordedWhenTheRequestDoesNotCommit() {
+        assertThatThrownBy(() -> handler.execute("create-order", "alice", "key-1", "widget", HttpStatus.CREATED, () -> {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    throw new IllegalStateException("commit failed");
+                }
+            });
+            return Map.of("execution", executions.incrementAndGet());
+        })).hasMessage("commit failed");
+
+        ResponseEntity<byte[]> retry = execute("key-1", "widget");
+
+        assertThat(executions).hasValue(2);
+        assertThat(retry.getHeaders().containsKey(IdempotentRequestHandler.REPLAYED_HEADER)).isFalse();
+        assertThat(body(execute("key-1", "widget"))).isEqualTo("{\"execution\":2}");
+    }
+
+    private ResponseEntity<byte[]> execute(String key, String request) {
+        return handler.execute("create-order", "alice", key, request, HttpStatus.CREATED,
+                () -> Map.of("execution", executions.incrementAndGet()));
+    }
+
+    private static String body(ResponseEntity<byte[]> response) {
+        return new String(response.getBody(), StandardCharsets.UTF_8);
+    }
+}
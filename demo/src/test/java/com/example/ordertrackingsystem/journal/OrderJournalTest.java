@@ -0,0 +1,213 @@
+package com.example.ordertrackingsystem.journal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.example.ordertrackingsystem.model.Order;
+import com.example.ordertrackingsystem.model.OrderLine;
+import com.example.ordertrackingsystem.model.OrderStatus;
+import com.example.ordertrackingsystem.repository.ArchivedOrderRepository;
+import com.example.ordertrackingsystem.repository.OrderRepository;
+import com.example.ordertrackingsystem.repository.OrderRepository.OrderVersion;
+import com.example.ordertrackingsystem.service.OrderChangedEvent;
+import com.example.ordertrackingsystem.service.OrderChangedEvent.ChangeType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Reopening the journal after a crash, reconciling it with the orders table, and segment retention.
+ */
+class OrderJournalTest {
+
+    private static final LocalDateTime ORDERED = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private OrderRepository orderRepository;
+    private ArchivedOrderRepository archivedOrderRepository;
+    private OrderJournal journal;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        archivedOrderRepository = mock(ArchivedOrderRepository.class);
+        when(orderRepository.findVersionsAfter(anyLong(), any(Pageable.class))).thenReturn(List.of());
+        when(archivedOrderRepository.findIdsIn(anyCollection())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @Test
+    void reopeningReplaysRecordsAppendedAfterTheSnapshot() throws IOException {
+        journal = open(DataSize.ofMegabytes(1), null);
+        created(order(1L, OrderStatus.PENDING, 0L));
+        journal.snapshot();
+        statusChanged(order(1L, OrderStatus.SHIPPED, 1L));
+
+        // No close: the second record is only in the journal, not in the snapshot.
+        journal = open(DataSize.ofMegabytes(1), null);
+
+        assertThat(journal.history(1L)).extracting(JournalEntry::type, JournalEntry::status)
+                .containsExactly(tuple("CREATED", OrderStatus.PENDING), tuple("STATUS_CHANGED", OrderStatus.SHIPPED));
+        assertThat(journal.latestState(1L).getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void tornRecordAtTheTailIsCutOffAndOverwritten() throws IOException {
+        journal = open(DataSize.ofMegabytes(1), null);
+        created(order(1L, OrderStatus.PENDING, 0L));
+        journal.close();
+        Path segment = directory.resolve("journal-00000000.log");
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer length = ByteBuffer.allocate(4);
+            channel.read(length, 0);
+            // A length whose payload and checksum never made it to disk.
+            channel.write(ByteBuffer.allocate(4).putInt(0, 100), 8 + length.getInt(0));
+        }
+
+        journal = open(DataSize.ofMegabytes(1), null);
+        statusChanged(order(1L, OrderStatus.SHIPPED, 1L));
+        journal.close();
+        journal = open(DataSize.ofMegabytes(1), null);
+
+        assertThat(journal.history(1L)).extracting(JournalEntry::status)
+                .containsExactly(OrderStatus.PENDING, OrderStatus.SHIPPED);
+    }
+
+    @Test
+    void recoveryRecordsWhatTheJournalMissed() throws IOException {
+        journal = open(DataSize.ofMegabytes(1), null);
+        created(order(1L, OrderStatus.PENDING, 0L));
+        created(order(2L, OrderStatus.PENDING, 0L));
+        created(order(3L, OrderStatus.PENDING, 0L));
+        Order shipped = order(1L, OrderStatus.SHIPPED, 1L);
+        Order neverJournaled = order(4L, OrderStatus.PENDING, 0L);
+        when(orderRepository.findVersionsAfter(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(version(1L, 1L), version(4L, 0L)));
+        when(orderRepository.findAllById(any())).thenReturn(List.of(shipped, neverJournaled));
+        when(archivedOrderRepository.findIdsIn(anyCollection())).thenReturn(List.of(3L));
+
+        journal.recover();
+
+        assertThat(journal.history(1L)).extracting(JournalEntry::type, JournalEntry::status)
+                .containsExactly(tuple("CREATED", OrderStatus.PENDING), tuple(JournalEntry.RECOVERED, OrderStatus.SHIPPED));
+        assertThat(journal.history(2L)).extracting(JournalEntry::type, JournalEntry::status)
+                .containsExactly(tuple("CREATED", OrderStatus.PENDING), tuple(JournalEntry.RECOVERED, null));
+        assertThat(journal.history(3L)).extracting(JournalEntry::type).containsExactly("CREATED");
+        assertThat(journal.history(4L)).extracting(JournalEntry::type).containsExactly(JournalEntry.BASELINE);
+        assertThat(journal.latestState(1L).getStatus()).isEqualTo(OrderStatus.SHIPPED);
+        assertThat(journal.latestState(2L)).isNull();
+
+        journal.recover();
+
+        assertThat(journal.history(1L)).hasSize(2);
+        assertThat(journal.history(2L)).hasSize(2);
+        assertThat(journal.history(4L)).hasSize(1);
+    }
+
+    @Test
+    void retentionDropsSegmentsOlderThanItAndSurvivesReopening() throws Exception {
+        journal = open(DataSize.ofKilobytes(2), Duration.ZERO);
+        for (long id = 1; id <= 20; id++) {
+            created(order(id, OrderStatus.PENDING, 0L));
+        }
+        journal.snapshot();
+        Thread.sleep(5);
+
+        journal.applyRetention();
+
+        assertThat(directory.resolve("journal-00000000.log")).doesNotExist();
+        assertThat(journal.history(1L)).isEmpty();
+        assertThat(journal.history(20L)).hasSize(1);
+
+        journal = open(DataSize.ofKilobytes(2), Duration.ZERO);
+        assertThat(journal.history(1L)).isEmpty();
+        assertThat(journal.history(20L)).hasSize(1);
+        created(order(21L, OrderStatus.PENDING, 0L));
+        assertThat(journal.history(21L)).hasSize(1);
+    }
+
+    @Test
+    void retentionStopsAtASegmentWithoutRecords() throws Exception {
+        journal = open(DataSize.ofKilobytes(2), Duration.ZERO);
+        created(order(1L, OrderStatus.PENDING, 0L));
+        journal.close();
+        // The next segment was created, but its first record never reached the disk.
+        Files.createFile(directory.resolve("journal-00000001.log"));
+        journal = open(DataSize.ofKilobytes(2), Duration.ZERO);
+        Thread.sleep(5);
+
+        journal.applyRetention();
+
+        assertThat(directory.resolve("journal-00000000.log")).exists();
+        assertThat(journal.history(1L)).hasSize(1);
+
+        created(order(2L, OrderStatus.PENDING, 0L));
+        Thread.sleep(5);
+        journal.applyRetention();
+
+        assertThat(directory.resolve("journal-00000000.log")).doesNotExist();
+        assertThat(journal.history(2L)).hasSize(1);
+    }
+
+    private OrderJournal open(DataSize segmentSize, Duration retention) throws IOException {
+        return new OrderJournal(directory, segmentSize, retention, objectMapper, orderRepository,
+                archivedOrderRepository, mock(PlatformTransactionManager.class));
+    }
+
+    private void created(Order order) {
+        journal.onOrderChanged(new OrderChangedEvent(ChangeType.CREATED, order.getId(), order, null));
+    }
+
+    private void statusChanged(Order order) {
+        journal.onOrderChanged(new OrderChangedEvent(ChangeType.STATUS_CHANGED, order.getId(), order, null));
+    }
+
+    private static Order order(Long id, OrderStatus status, Long version) {
+        Order order = new Order(id, "customer", "widget", 2, 10.0, status, ORDERED, "user");
+        order.setVersion(version);
+        order.addLine(new OrderLine(null, "widget", 2, new BigDecimal("10.00")));
+        order.setTotalAmount(new BigDecimal("20.00"));
+        return order;
+    }
+
+    private static OrderVersion version(Long id, Long version) {
+        return new OrderVersion() {
+            public Long getId() {
+                return id;
+            }
+
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+}
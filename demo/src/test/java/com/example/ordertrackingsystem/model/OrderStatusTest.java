@@ -0,0 +1,64 @@
+package com.example.ordertrackingsystem.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Lifecycle rules and parsing of {@link OrderStatus}.
+ */
+class OrderStatusTest {
+
+    @Test
+    void openOrdersMoveForwardOrGetCancelled() {
+        assertThat(OrderStatus.PENDING.nextStatuses()).containsExactlyInAnyOrder(OrderStatus.SHIPPED, OrderStatus.CANCELLED);
+        assertThat(OrderStatus.SHIPPED.nextStatuses()).containsExactlyInAnyOrder(OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+    }
+
+    @Test
+    void finishedOrdersAreTerminal() {
+        assertThat(OrderStatus.DELIVERED.nextStatuses()).isEmpty();
+        assertThat(OrderStatus.CANCELLED.nextStatuses()).isEmpty();
+    }
+
+    @Test
+    void disallowsSkippingBackwardsAndStayingPut() {
+        assertThat(OrderStatus.PENDING.canTransitionTo(OrderStatus.DELIVERED)).isFalse();
+        assertThat(OrderStatus.SHIPPED.canTransitionTo(OrderStatus.PENDING)).isFalse();
+        assertThat(OrderStatus.DELIVERED.canTransitionTo(OrderStatus.CANCELLED)).isFalse();
+        assertThat(OrderStatus.PENDING.canTransitionTo(OrderStatus.PENDING)).isFalse();
+    }
+
+    @Test
+    void parsesLabelsAndNamesCaseInsensitively() {
+        assertThat(OrderStatus.fromLabel("Shipped")).isEqualTo(OrderStatus.SHIPPED);
+        assertThat(OrderStatus.fromLabel(" cancelled ")).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(OrderStatus.fromLabel("DELIVERED")).isEqualTo(OrderStatus.DELIVERED);
+    }
+
+    @Test
+    void rejectsUnknownLabelsFromClients() {
+        assertThatThrownBy(() -> OrderStatus.fromLabel("Lost")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> OrderStatus.fromLabel(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void readsLegacyStoredValuesLeniently() {
+        assertThat(OrderStatus.fromStoredValue("Pending")).isEqualTo(OrderStatus.PENDING);
+        assertThat(OrderStatus.fromStoredValue("canceled")).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(OrderStatus.fromStoredValue("Completed")).isEqualTo(OrderStatus.DELIVERED);
+        assertThat(OrderStatus.fromStoredValue("In Transit")).isEqualTo(OrderStatus.SHIPPED);
+        assertThat(OrderStatus.fromStoredValue("Processing")).isEqualTo(OrderStatus.PENDING);
+        assertThat(OrderStatus.fromStoredValue("")).isEqualTo(OrderStatus.PENDING);
+    }
+
+    @Test
+    void storesAndReadsBackTheLabel() {
+        OrderStatusConverter converter = new OrderStatusConverter();
+
+        assertThat(converter.convertToDatabaseColumn(OrderStatus.SHIPPED)).isEqualTo("Shipped");
+        assertThat(converter.convertToEntityAttribute("Shipped")).isEqualTo(OrderStatus.SHIPPED);
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.ordertrackingsystem.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.ordertrackingsystem.model.OutboxEvent;
+import com.example.ordertrackingsystem.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+/**
+ * Per-order delivery order, backoff and failure handling of the outbox relay against the real outbox query.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:outboxrelaytest;MODE=MySQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class OutboxRelayTest {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private final RecordingSink sink = new RecordingSink();
+
+    @Test
+    void poisonedOrderDoesNotStallOtherOrders() {
+        OutboxEvent poisoned = enqueue(1L);
+        OutboxEvent heldBack = enqueue(1L);
+        enqueue(1L);
+        OutboxEvent second = enqueue(2L);
+        OutboxEvent third = enqueue(3L);
+        sink.failingOrders.add(1L);
+
+        relay(2, 10, Duration.ofMinutes(1)).relay();
+
+        assertThat(sink.delivered).containsExactly(second.getId(), third.getId());
+        OutboxEvent retried = outboxEventRepository.findById(poisoned.getId()).orElseThrow();
+        assertThat(retried.getAttempts()).isEqualTo(1);
+        assertThat(retried.getNextAttemptAt()).isAfter(Instant.now());
+        assertThat(outboxEventRepository.findById(heldBack.getId())).isPresent();
+    }
+
+    @Test
+    void retriedMessageIsDeliveredBeforeLaterMessagesOfItsOrder() {
+        OutboxEvent first = enqueue(1L);
+        OutboxEvent next = enqueue(1L);
+        sink.failingOrders.add(1L);
+        OutboxRelay relay = relay(10, 10, Duration.ZERO);
+
+        relay.relay();
+        sink.failingOrders.clear();
+        relay.relay();
+
+        assertThat(sink.delivered).containsExactly(first.getId(), next.getId());
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    void backoffDoublesWithEachAttempt() {
+        OutboxEvent event = enqueue(1L);
+        sink.failingOrders.add(1L);
+        OutboxRelay relay = relay(10, 10, Duration.ofSeconds(10));
+
+        relay.relay();
+        Instant firstRetry = outboxEventRepository.findById(event.getId()).orElseThrow().getNextAttemptAt();
+        assertThat(firstRetry).isBetween(Instant.now().plusSeconds(8), Instant.now().plusSeconds(10));
+
+        event.setNextAttemptAt(Instant.now().minusSeconds(1));
+        outboxEventRepository.save(event);
+        relay.relay();
+        Instant secondRetry = outboxEventRepository.findById(event.getId()).orElseThrow().getNextAttemptAt();
+        assertThat(secondRetry).isBetween(Instant.now().plusSeconds(18), Instant.now().plusSeconds(20));
+    }
+
+    @Test
+    void failedMessageHoldsBackItsOrderUntilRemoved() {
+        OutboxEvent failed = enqueue(1L);
+        OutboxEvent next = enqueue(1L);
+        OutboxEvent other = enqueue(2L);
+        sink.failingOrders.add(1L);
+        OutboxRelay relay = relay(10, 1, Duration.ZERO);
+
+        relay.relay();
+        sink.failingOrders.clear();
+        relay.relay();
+
+        assertThat(outboxEventRepository.findById(failed.getId()).orElseThrow().getStatus())
+                .isEqualTo(OutboxEvent.Status.FAILED);
+        assertThat(sink.delivered).containsExactly(other.getId());
+
+        outboxEventRepository.deleteById(failed.getId());
+        relay.relay();
+
+        assertThat(sink.delivered).containsExactly(other.getId(), next.getId());
+    }
+
+    private OutboxRelay relay(int batchSize, int maxAttempts, Duration retryBackoff) {
+        return new OutboxRelay(outboxEventRepository, List.of(sink), new SimpleMeterRegistry(), batchSize,
+                maxAttempts, retryBackoff);
+    }
+
+    private OutboxEvent enqueue(Long orderId) {
+        return outboxEventRepository.save(new OutboxEvent(orderId, "UPDATED", "{}", Instant.now()));
+    }
+
+    private static final class RecordingSink implements OutboxSink {
+
+        private final Set<Long> failingOrders = new HashSet<>();
+        private final List<Long> delivered = new ArrayList<>();
+
+        @Override
+        public String name() {
+            return "recording";
+        }
+
+        @Override
+        public void deliver(OrderEventMessage message) {
+            if (failingOrders.contains(message.orderId())) {
+                throw new IllegalStateException("consumer unavailable");
+            }
+            delivered.add(message.eventId());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.ordertrackingsystem.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * Token bucket arithmetic and the limiter's per-client, per-rule bookkeeping.
+ */
+class RateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private static final RateLimitProperties.Rule LOGIN =
+            new RateLimitProperties.Rule("login", "POST", "/login", 2, Duration.ofHours(1));
+    private static final RateLimitProperties.Rule API =
+            new RateLimitProperties.Rule("api", null, "/api/**", 3, Duration.ofHours(1));
+
+    @Test
+    void bucketAdmitsBurstThenRefillsOneTokenPerInterval() {
+        TokenBucket bucket = new TokenBucket();
+        long now = 1_000 * SECOND;
+
+        assertThat(bucket.tryAcquire(now, SECOND, 3)).isZero();
+        assertThat(bucket.tryAcquire(now, SECOND, 3)).isZero();
+        assertThat(bucket.tryAcquire(now, SECOND, 3)).isZero();
+        assertThat(bucket.tryAcquire(now, SECOND, 3)).isEqualTo(SECOND);
+        assertThat(bucket.isFull(now)).isFalse();
+
+        assertThat(bucket.tryAcquire(now + SECOND, SECOND, 3)).isZero();
+        assertThat(bucket.tryAcquire(now + SECOND, SECOND, 3)).isEqualTo(SECOND);
+        assertThat(bucket.isFull(now + 4 * SECOND)).isTrue();
+    }
+
+    @Test
+    void limitsEachClientSeparately() {
+        RateLimiter limiter = limiter(100_000, 16);
+        MockHttpServletRequest request = request("GET", "/api/orders");
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.acquire(request, "user:alice")).isZero();
+        }
+        assertThat(limiter.acquire(request, "user:alice")).isPositive();
+        assertThat(limiter.acquire(request, "user:bob")).isZero();
+        assertThat(limiter.acquire(request("GET", "/track/1"), "user:alice")).isZero();
+    }
+
+    @Test
+    void credentialChecksAreChargedOnlyThroughTheCredentialsRule() {
+        RateLimiter limiter = limiter(100_000, 16);
+        MockHttpServletRequest login = request("POST", "/login");
+
+        assertThat(limiter.isCredentialCheck(login)).isTrue();
+        assertThat(limiter.isCredentialCheck(request("GET", "/login"))).isFalse();
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.acquire(login, "ip:10.0.0.1")).isZero();
+        }
+
+        assertThat(limiter.acquireCredentialCheck("ip:10.0.0.1")).isZero();
+        assertThat(limiter.acquireCredentialCheck("ip:10.0.0.1")).isZero();
+        assertThat(limiter.acquireCredentialCheck("ip:10.0.0.1")).isPositive();
+        assertThat(limiter.acquireCredentialCheck("ip:10.0.0.2")).isZero();
+    }
+
+    @Test
+    void newClientsSpreadOverOverflowBucketsOnceFull() {
+        RateLimiter limiter = limiter(1, 1024);
+        MockHttpServletRequest request = request("GET", "/api/orders");
+        assertThat(limiter.acquire(request, "user:first")).isZero();
+
+        int admitted = 0;
+        for (int i = 0; i < 100; i++) {
+            if (limiter.acquire(request, "user:client-" + i) == 0) {
+                admitted++;
+            }
+        }
+        assertThat(admitted).isEqualTo(100);
+    }
+
+    @Test
+    void disabledLimiterAdmitsEverything() {
+        RateLimiter limiter = new RateLimiter(
+                new RateLimitProperties(false, 100_000, 16, "login", List.of(LOGIN, API)), new SimpleMeterRegistry());
+        MockHttpServletRequest request = request("GET", "/api/orders");
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.acquire(request, "user:alice")).isZero();
+            assertThat(limiter.acquireCredentialCheck("ip:10.0.0.1")).isZero();
+        }
+    }
+
+    private static RateLimiter limiter(int maxBuckets, int overflowBuckets) {
+        return new RateLimiter(new RateLimitProperties(true, maxBuckets, overflowBuckets, "login", List.of(LOGIN, API)),
+                new SimpleMeterRegistry());
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        return new MockHttpServletRequest(method, uri);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.ordertrackingsystem.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Matching, ranking and maintenance of the in-memory inverted index.
+ */
+class TextIndexTest {
+
+    private static final int LIMIT = 10;
+
+    private final TextIndex index = new TextIndex();
+
+    @Test
+    void matchesExactPrefixAndOneTypo() {
+        index.put(1, "Blue Widget");
+        index.put(2, "Red Gadget");
+
+        assertThat(index.search("widget", LIMIT, id -> true)).containsExactly(1L);
+        assertThat(index.search("wid", LIMIT, id -> true)).containsExactly(1L);
+        assertThat(index.search("widgt", LIMIT, id -> true)).containsExactly(1L);
+        assertThat(index.search("wigdet", LIMIT, id -> true)).containsExactly(1L);
+        assertThat(index.search("wxdget", LIMIT, id -> true)).containsExactly(1L);
+        assertThat(index.search("wxdgxt", LIMIT, id -> true)).isEmpty();
+    }
+
+    @Test
+    void shortTermsAreNotTypoMatched() {
+        index.put(1, "box");
+
+        assertThat(index.search("bax", LIMIT, id -> true)).isEmpty();
+        assertThat(index.search("b", LIMIT, id -> true)).isEmpty();
+    }
+
+    @Test
+    void foldsCaseAndAccentsAndSplitsOnPunctuation() {
+        index.put(1, "Café-Crème", "JOSÉ@example.com");
+
+        assertThat(index.search("cafe creme", LIMIT, id -> true)).containsExactly(1L);
+        assertThat(index.search("jose", LIMIT, id -> true)).containsExactly(1L);
+    }
+
+    @Test
+    void requiresEveryQueryTerm() {
+        index.put(1, "blue widget");
+        index.put(2, "red widget");
+
+        assertThat(index.search("blue widget", LIMIT, id -> true)).containsExactly(1L);
+        assertThat(index.search("green widget", LIMIT, id -> true)).isEmpty();
+    }
+
+    @Test
+    void ranksExactOverPrefixOverTypoAndNewerFirstOnTies() {
+        index.put(1, "widget");
+        index.put(2, "widgets");
+        index.put(3, "widgit");
+        index.put(4, "widget");
+
+        assertThat(index.search("widget", LIMIT, id -> true)).containsExactly(4L, 1L, 2L, 3L);
+    }
+
+    @Test
+    void olderBetterMatchBeatsNewerWeakerOneWithinTheLimit() {
+        index.put(1, "widget");
+        for (long id = 2; id <= 50; id++) {
+            index.put(id, "widgets");
+        }
+
+        assertThat(index.search("widget", 1, id -> true)).containsExactly(1L);
+    }
+
+    @Test
+    void honoursLimitAndFilter() {
+        for (long id = 1; id <= 20; id++) {
+            index.put(id, "widget");
+        }
+
+        assertThat(index.search("widget", 3, id -> true)).containsExactly(20L, 19L, 18L);
+        assertThat(index.search("widget", 3, id -> id % 2 == 1)).containsExactly(19L, 17L, 15L);
+    }
+
+    @Test
+    void reindexingAndRemovalDropOldTerms() {
+        index.put(1, "blue widget");
+        index.put(1, "red gadget");
+
+        assertThat(index.search("blue", LIMIT, id -> true)).isEmpty();
+        assertThat(index.search("gadget", LIMIT, id -> true)).containsExactly(1L);
+
+        index.remove(1);
+
+        assertThat(index.search("gadget", LIMIT, id -> true)).isEmpty();
+        assertThat(index.search("gadgt", LIMIT, id -> true)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+}
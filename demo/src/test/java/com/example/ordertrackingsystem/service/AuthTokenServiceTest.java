@@ -0,0 +1,153 @@
+package com.example.ordertrackingsystem.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.example.ordertrackingsystem.cluster.InvalidationChannel;
+import com.example.ordertrackingsystem.repository.UserAccountRepository;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Signature, payload, expiry and revocation checks of access tokens.
+ */
+class AuthTokenServiceTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private UserAccountRepository userAccountRepository;
+    private AuthTokenService tokenService;
+
+    @BeforeEach
+    void setUp() {
+        userAccountRepository = mock(UserAccountRepository.class);
+        tokenService = service(Duration.ofHours(8));
+    }
+
+    @Test
+    void acceptsTheTokensItIssued() {
+        String token = tokenService.issue(user("Alice")).token();
+
+        Optional<Authentication> authentication = tokenService.verify(token);
+
+        assertThat(authentication).isPresent();
+        assertThat(authentication.get().getName()).isEqualTo("alice");
+        assertThat(authentication.get().getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void rejectsTamperedSignaturesAndPayloads() {
+        String token = tokenService.issue(user("alice")).token();
+        String payload = token.substring(0, token.indexOf('.'));
+        String signature = token.substring(token.indexOf('.') + 1);
+        String otherSignature = (signature.charAt(0) == 'A' ? "B" : "A") + signature.substring(1);
+        String[] claims = decode(payload).split("\n");
+        String escalated = encode(String.join("\n", claims[0], "ROLE_ADMIN", claims[2], claims[3]));
+
+        assertThat(tokenService.verify(payload + "." + otherSignature)).isEmpty();
+        assertThat(tokenService.verify(escalated + "." + signature)).isEmpty();
+        assertThat(tokenService.verify(payload + ".")).isEmpty();
+        assertThat(tokenService.verify(service(Duration.ofHours(8), "another secret of at least 32 chars")
+                .issue(user("alice")).token())).isEmpty();
+    }
+
+    @Test
+    void rejectsMalformedPayloadsEvenWhenSigned() {
+        long now = System.currentTimeMillis();
+        long later = now + 60_000;
+
+        assertThat(tokenService.verify("no-separator")).isEmpty();
+        assertThat(tokenService.verify(".signature")).isEmpty();
+        assertThat(tokenService.verify("not base64!." + ENCODER.encodeToString(new byte[32]))).isEmpty();
+        assertThat(tokenService.verify(signed("alice\nROLE_USER\n" + now))).isEmpty();
+        assertThat(tokenService.verify(signed("alice\nROLE_USER\n" + now + "\n" + later + "\nextra"))).isEmpty();
+        assertThat(tokenService.verify(signed("alice\nROLE_USER\nyesterday\n" + later))).isEmpty();
+        assertThat(tokenService.verify(signed("alice\nROLE_USER\n" + now + "\n" + later))).isPresent();
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        AuthTokenService expiring = service(Duration.ZERO);
+        long now = System.currentTimeMillis();
+
+        assertThat(expiring.verify(expiring.issue(user("alice")).token())).isEmpty();
+        assertThat(tokenService.verify(signed("alice\nROLE_USER\n" + (now - 120_000) + "\n" + (now - 60_000))))
+                .isEmpty();
+    }
+
+    @Test
+    void rejectsTokensIssuedBeforeTheAccountsRevocationEpoch() {
+        long now = System.currentTimeMillis();
+        String before = signed("alice\nROLE_USER\n" + (now - 60_000) + "\n" + (now + 60_000));
+        String after = signed("alice\nROLE_USER\n" + (now + 1_000) + "\n" + (now + 60_000));
+        when(userAccountRepository.findTokensNotBefore("alice")).thenReturn(Optional.of(Instant.ofEpochMilli(now)));
+
+        assertThat(tokenService.verify(before)).isEmpty();
+        assertThat(tokenService.verify(after)).isPresent();
+        assertThat(tokenService.verify(signed("bob\nROLE_USER\n" + (now - 60_000) + "\n" + (now + 60_000))))
+                .isPresent();
+    }
+
+    @Test
+    void revokingRejectsTokensIssuedBeforeIt() throws InterruptedException {
+        String token = tokenService.issue(user("alice")).token();
+        Thread.sleep(2);
+
+        tokenService.revoke("Alice");
+
+        assertThat(tokenService.verify(token)).isEmpty();
+        Thread.sleep(2);
+        assertThat(tokenService.verify(tokenService.issue(user("alice")).token())).isPresent();
+    }
+
+    private AuthTokenService service(Duration ttl) {
+        return service(ttl, SECRET);
+    }
+
+    private AuthTokenService service(Duration ttl, String secret) {
+        return new AuthTokenService(userAccountRepository, mock(InvalidationChannel.class), secret, ttl, "token",
+                Duration.ofSeconds(10), 1000);
+    }
+
+    private static Authentication user(String username) {
+        return UsernamePasswordAuthenticationToken.authenticated(username, null,
+                List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    /**
+     * A token with the given claims, signed with the service's secret.
+     */
+    private static String signed(String claims) {
+        String payload = encode(claims);
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return payload + "." + ENCODER.encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII)));
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static String encode(String claims) {
+        return ENCODER.encodeToString(claims.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String payload) {
+        return new String(Base64.getUrlDecoder().decode(payload), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.ordertrackingsystem.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Round trips and malformed input for the keyset cursor of order listings.
+ */
+class OrderCursorTest {
+
+    @Test
+    void decodesWhatItEncodes() {
+        OrderCursor cursor = new OrderCursor(LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_456_000), 42L);
+
+        assertThat(OrderCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    void tokenIsUrlSafe() {
+        String token = new OrderCursor(LocalDateTime.of(2024, 12, 31, 23, 59), Long.MAX_VALUE).encode();
+
+        assertThat(token).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void rejectsTokensThatAreNotBase64() {
+        assertThatThrownBy(() -> OrderCursor.decode("not a cursor!"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Malformed cursor.");
+    }
+
+    @Test
+    void rejectsTokensWithoutSeparator() {
+        assertThatThrownBy(() -> OrderCursor.decode(encode("2024-05-01T12:00")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsTokensWithBadDateOrId() {
+        assertThatThrownBy(() -> OrderCursor.decode(encode("yesterday|42")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> OrderCursor.decode(encode("2024-05-01T12:00|x")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.ordertrackingsystem.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.example.ordertrackingsystem.cluster.CacheInvalidation;
+import com.example.ordertrackingsystem.journal.OrderJournal;
+import com.example.ordertrackingsystem.model.Order;
+import com.example.ordertrackingsystem.model.OrderLine;
+import com.example.ordertrackingsystem.model.OrderStatus;
+import com.example.ordertrackingsystem.repository.OrderRepository;
+import com.example.ordertrackingsystem.repository.OrderRepository.OrderVersion;
+import com.example.ordertrackingsystem.service.OrderChangedEvent.ChangeType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Invalidations, the periodic resync and keyset listing pages of the in-memory projection.
+ */
+class OrderProjectionTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 5, 1, 12, 0);
+    private static final OrderFilter NO_FILTER = new OrderFilter(null, null, null, null);
+
+    private OrderRepository orderRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private OrderProjection projection;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        projection = new OrderProjection(true, orderRepository, mock(ObjectProvider.class),
+                mock(PlatformTransactionManager.class), meterRegistry);
+    }
+
+    @Test
+    void remoteInvalidationReloadsOrDropsTheOrder() {
+        load(order(1L, "alice", OrderStatus.PENDING, 0L, 0), order(2L, "alice", OrderStatus.PENDING, 0L, 1));
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order(1L, "alice", OrderStatus.SHIPPED, 1L, 0)));
+        when(orderRepository.findById(2L)).thenReturn(Optional.empty());
+
+        projection.onRemoteInvalidation(new CacheInvalidation(CacheInvalidation.Region.ORDER, "1"));
+        projection.onRemoteInvalidation(new CacheInvalidation(CacheInvalidation.Region.ORDER, "2"));
+
+        assertThat(projection.find(1L).getStatus()).isEqualTo(OrderStatus.SHIPPED);
+        assertThat(projection.find(2L)).isNull();
+        assertThat(projection.findByCreatedBy("alice")).extracting(Order::getId).containsExactly(1L);
+    }
+
+    @Test
+    void localChangesMoveOrdersBetweenOwnersAndListingPositions() {
+        load(order(1L, "alice", OrderStatus.PENDING, 0L, 0), order(2L, "alice", OrderStatus.PENDING, 0L, 1));
+
+        projection.onOrderChanged(new OrderChangedEvent(ChangeType.UPDATED, 1L,
+                order(1L, "bob", OrderStatus.PENDING, 1L, 5), null));
+        projection.onOrderChanged(new OrderChangedEvent(ChangeType.STATUS_CHANGED, 2L,
+                order(2L, "alice", OrderStatus.SHIPPED, 1L, 1), null));
+
+        assertThat(projection.findByCreatedBy("alice")).extracting(Order::getId).containsExactly(2L);
+        assertThat(projection.findByCreatedBy("bob")).extracting(Order::getId).containsExactly(1L);
+        assertThat(projection.findAll()).extracting(Order::getId).containsExactly(2L, 1L);
+        assertThat(projection.find(2L).getStatus()).isEqualTo(OrderStatus.SHIPPED);
+    }
+
+    @Test
+    void resyncRepairsChangesWhoseInvalidationWasLost() {
+        load(order(1L, "alice", OrderStatus.PENDING, 0L, 0), order(2L, "alice", OrderStatus.PENDING, 0L, 1),
+                order(3L, "bob", OrderStatus.PENDING, 0L, 2));
+        // Elsewhere: order 1 shipped, order 2 deleted, order 4 created; none of it was announced here.
+        Order shipped = order(1L, "alice", OrderStatus.SHIPPED, 1L, 0);
+        Order created = order(4L, "bob", OrderStatus.PENDING, 0L, 3);
+        when(orderRepository.findVersionsAfter(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(version(1L, 1L), version(3L, 0L), version(4L, 0L)));
+        when(orderRepository.findAllById(any())).thenReturn(List.of(shipped, created));
+
+        projection.resync();
+
+        assertThat(projection.find(1L).getStatus()).isEqualTo(OrderStatus.SHIPPED);
+        assertThat(projection.find(2L)).isNull();
+        assertThat(projection.find(4L)).isNotNull();
+        assertThat(projection.findAll()).extracting(Order::getId).containsExactly(1L, 3L, 4L);
+        assertThat(meterRegistry.counter("orders.projection.resync.corrections").count()).isEqualTo(3);
+    }
+
+    @Test
+    void resyncKeepsNewerChangesAppliedWhileItRan() {
+        load(order(1L, "alice", OrderStatus.PENDING, 0L, 0));
+        Order staleRead = order(1L, "alice", OrderStatus.SHIPPED, 1L, 0);
+        when(orderRepository.findVersionsAfter(anyLong(), any(Pageable.class))).thenReturn(List.of(version(1L, 1L)));
+        when(orderRepository.findAllById(any())).thenAnswer(invocation -> {
+            projection.onOrderChanged(new OrderChangedEvent(ChangeType.STATUS_CHANGED, 1L,
+                    order(1L, "alice", OrderStatus.DELIVERED, 2L, 0), null));
+            return List.of(staleRead);
+        });
+
+        projection.resync();
+
+        assertThat(projection.find(1L).getStatus()).isEqualTo(OrderStatus.DELIVERED);
+    }
+
+    @Test
+    void changesAppliedOutOfCommitOrderKeepTheNewestVersion() {
+        load(order(1L, "alice", OrderStatus.PENDING, 0L, 0));
+
+        projection.onOrderChanged(new OrderChangedEvent(ChangeType.STATUS_CHANGED, 1L,
+                order(1L, "alice", OrderStatus.DELIVERED, 2L, 0), null));
+        projection.onOrderChanged(new OrderChangedEvent(ChangeType.UPDATED, 1L,
+                order(1L, "bob", OrderStatus.SHIPPED, 1L, 3), null));
+
+        assertThat(projection.find(1L).getStatus()).isEqualTo(OrderStatus.DELIVERED);
+        assertThat(projection.findByCreatedBy("alice")).extracting(Order::getId).containsExactly(1L);
+        assertThat(projection.findByCreatedBy("bob")).isEmpty();
+    }
+
+    @Test
+    void lateChangesDoNotBringBackDeletedOrders() {
+        load(order(1L, "alice", OrderStatus.PENDING, 0L, 0), order(2L, "alice", OrderStatus.PENDING, 0L, 1));
+
+        // Order 1 was shipped and then deleted; order 3 was created and deleted. Each deletion is applied first.
+        Order shipped = order(1L, "alice", OrderStatus.SHIPPED, 1L, 0);
+        projection.onOrderChanged(new OrderChangedEvent(ChangeType.DELETED, 1L, null, shipped));
+        projection.onOrderChanged(new OrderChangedEvent(ChangeType.STATUS_CHANGED, 1L, shipped, null));
+        Order created = order(3L, "bob", OrderStatus.PENDING, 0L, 2);
+        projection.onOrderChanged(new OrderChangedEvent(ChangeType.DELETED, 3L, null, created));
+        projection.onOrderChanged(new OrderChangedEvent(ChangeType.CREATED, 3L, created, null));
+
+        assertThat(projection.find(1L)).isNull();
+        assertThat(projection.find(3L)).isNull();
+        assertThat(projection.findAll()).extracting(Order::getId).containsExactly(2L);
+        assertThat(projection.findByCreatedBy("bob")).isEmpty();
+    }
+
+    @Test
+    void concurrentChangesSettleOnTheNewestVersion() throws InterruptedException {
+        load(order(1L, "alice", OrderStatus.PENDING, 0L, 0));
+        int writers = 4;
+        long versions = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int writer = 0; writer < writers; writer++) {
+            long first = writer + 1;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (long version = first; version <= versions; version += writers) {
+                    projection.onOrderChanged(new OrderChangedEvent(ChangeType.UPDATED, 1L,
+                            order(1L, version % 2 == 0 ? "alice" : "bob", OrderStatus.PENDING, version, 0), null));
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(projection.find(1L).getVersion()).isEqualTo(versions);
+        assertThat(projection.findByCreatedBy("alice")).extracting(Order::getId).containsExactly(1L);
+        assertThat(projection.findByCreatedBy("bob")).isEmpty();
+        assertThat(projection.findAll()).hasSize(1);
+    }
+
+    @Test
+    void pagesFollowTheCursorNewestFirstAndApplyTheFilter() {
+        load(order(1L, "alice", OrderStatus.PENDING, 0L, 0), order(2L, "bob", OrderStatus.SHIPPED, 0L, 1),
+                order(3L, "alice", OrderStatus.SHIPPED, 0L, 1), order(4L, "alice", OrderStatus.PENDING, 0L, 2));
+
+        List<Order> first = projection.findPage(NO_FILTER, null, 2);
+        Order last = first.get(1);
+        List<Order> second = projection.findPage(NO_FILTER, new OrderCursor(last.getOrderDate(), last.getId()), 2);
+
+        assertThat(first).extracting(Order::getId).containsExactly(4L, 3L);
+        assertThat(second).extracting(Order::getId).containsExactly(2L, 1L);
+        assertThat(projection.findPage(new OrderFilter(OrderStatus.SHIPPED, "alice", null, null), null, 10))
+                .extracting(Order::getId).containsExactly(3L);
+        assertThat(projection.findPage(new OrderFilter(null, null, DAY.plusDays(1), DAY.plusDays(2)), null, 10))
+                .extracting(Order::getId).containsExactly(3L, 2L);
+        assertThat(projection.findPage(new OrderFilter(null, "carol", null, null), null, 10)).isEmpty();
+    }
+
+    @Test
+    void answersNothingUntilLoaded() {
+        assertThat(projection.find(1L)).isNull();
+        assertThat(projection.findAll()).isNull();
+        assertThat(projection.findPage(NO_FILTER, null, 10)).isNull();
+    }
+
+    private void load(Order... orders) {
+        when(orderRepository.findPageByIdAfter(anyLong(), any(Pageable.class))).thenReturn(List.of(orders));
+        projection.rebuild();
+    }
+
+    private static Order order(Long id, String owner, OrderStatus status, Long version, int day) {
+        Order order = new Order(id, "customer", "widget", 2, 10.0, status, DAY.plusDays(day), owner);
+        order.setVersion(version);
+        order.addLine(new OrderLine(null, "widget", 2, new BigDecimal("10.00")));
+        order.setTotalAmount(new BigDecimal("20.00"));
+        return order;
+    }
+
+    private static OrderVersion version(Long id, Long version) {
+        return new OrderVersion() {
+            public Long getId() {
+                return id;
+            }
+
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.ordertrackingsystem.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.example.ordertrackingsystem.archive.OrderArchive;
+import com.example.ordertrackingsystem.model.Order;
+import com.example.ordertrackingsystem.model.OrderStatus;
+import com.example.ordertrackingsystem.repository.OrderRepository;
+import com.example.ordertrackingsystem.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Keyset pages and exports that merge live and archived orders.
+ */
+class OrderServiceTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 5, 1, 12, 0);
+    private static final OrderFilter NO_FILTER = new OrderFilter(null, null, null, null);
+
+    // Live and archived orders interleave by date, and two of them share one.
+    private static final List<Order> LIVE = List.of(order(1L, 0), order(3L, 2), order(5L, 4), order(6L, 4));
+    private static final List<Order> ARCHIVED = List.of(order(2L, 1), order(4L, 3), order(7L, 4));
+
+    private OrderRepository orderRepository;
+    private OrderArchive orderArchive;
+    private OrderProjection orderProjection;
+    private OrderService orderService;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        orderArchive = mock(OrderArchive.class);
+        orderProjection = mock(OrderProjection.class);
+        orderService = new OrderService(orderRepository, mock(ProductRepository.class),
+                mock(ApplicationEventPublisher.class), mock(EntityManager.class),
+                mock(PlatformTransactionManager.class), orderArchive, orderProjection);
+        when(orderProjection.findPage(any(), any(), anyInt())).thenAnswer(invocation ->
+                keysetPage(LIVE, invocation.getArgument(1), invocation.getArgument(2)));
+        when(orderArchive.findPage(any(), any(), anyInt())).thenAnswer(invocation ->
+                keysetPage(ARCHIVED, invocation.getArgument(1), invocation.getArgument(2)));
+    }
+
+    @Test
+    void cursorContinuesAcrossLiveAndArchivedOrders() {
+        List<Long> seen = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            OrderPage page = orderService.getOrderPage("admin", true, NO_FILTER, true, cursor, 2);
+            page.items().forEach(order -> seen.add(order.getId()));
+            pageSizes.add(page.items().size());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).containsExactly(7L, 6L, 5L, 4L, 3L, 2L, 1L);
+        assertThat(pageSizes).containsExactly(2, 2, 2, 1);
+    }
+
+    @Test
+    void liveListingSkipsArchivedOrders() {
+        OrderPage first = orderService.getOrderPage("admin", true, NO_FILTER, false, null, 3);
+        OrderPage second = orderService.getOrderPage("admin", true, NO_FILTER, false, first.nextCursor(), 3);
+
+        assertThat(first.items()).extracting(Order::getId).containsExactly(6L, 5L, 3L);
+        assertThat(second.items()).extracting(Order::getId).containsExactly(1L);
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    void exportMergesLiveAndArchivedOrdersOldestFirst() {
+        when(orderRepository.streamAll(any(), any(), any(), any())).thenAnswer(invocation -> LIVE.stream());
+        when(orderArchive.stream(any())).thenAnswer(invocation -> ARCHIVED.stream());
+        List<Long> exported = new ArrayList<>();
+
+        long count = orderService.exportOrders("admin", true, NO_FILTER, true, order -> exported.add(order.getId()));
+
+        assertThat(count).isEqualTo(7);
+        assertThat(exported).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+    }
+
+    /**
+     * The orders that follow {@code after} in (orderDate, id) descending order, like the repositories return them.
+     */
+    private static List<Order> keysetPage(List<Order> orders, OrderCursor after, int limit) {
+        Comparator<Order> newestFirst = Comparator.comparing(Order::getOrderDate).thenComparing(Order::getId)
+                .reversed();
+        return orders.stream()
+                .filter(order -> after == null || order.getOrderDate().isBefore(after.orderDate())
+                        || (order.getOrderDate().equals(after.orderDate()) && order.getId() < after.id()))
+                .sorted(newestFirst)
+                .limit(limit)
+                .toList();
+    }
+
+    private static Order order(Long id, int day) {
+        Order order = new Order(id, "customer", "widget", 1, 10.0, OrderStatus.DELIVERED, DAY.plusDays(day), "alice");
+        order.setVersion(0L);
+        return order;
+    }
+}
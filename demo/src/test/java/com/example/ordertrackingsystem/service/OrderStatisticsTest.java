@@ -0,0 +1,189 @@
+package com.example.ordertrackingsystem.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.example.ordertrackingsystem.model.Order;
+import com.example.ordertrackingsystem.model.OrderLine;
+import com.example.ordertrackingsystem.model.OrderStatus;
+import com.example.ordertrackingsystem.repository.ArchivedOrderRepository;
+import com.example.ordertrackingsystem.repository.OrderRepository;
+import com.example.ordertrackingsystem.repository.OrderRepository.HourlyTotal;
+import com.example.ordertrackingsystem.repository.OrderRepository.OrderVersion;
+import com.example.ordertrackingsystem.service.OrderChangedEvent.ChangeType;
+import com.example.ordertrackingsystem.service.OrderStats.Bucket;
+import com.example.ordertrackingsystem.service.OrderStats.Granularity;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Rebuilds of the statistics rollup racing with order changes, and exact revenue sums.
+ */
+class OrderStatisticsTest {
+
+    private static final LocalDateTime HOUR = LocalDateTime.of(2024, 5, 1, 12, 0);
+
+    private OrderRepository orderRepository;
+    private ArchivedOrderRepository archivedOrderRepository;
+    private OrderStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        archivedOrderRepository = mock(ArchivedOrderRepository.class);
+        when(archivedOrderRepository.findIdsIn(anyCollection())).thenReturn(List.of());
+        statistics = new OrderStatistics(orderRepository, archivedOrderRepository, mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void changeSeenByTheScanIsNotCountedTwice() {
+        Order created = order(1L, OrderStatus.PENDING, 0L);
+        when(orderRepository.aggregateByHour()).thenAnswer(invocation -> {
+            statistics.onOrderChanged(new OrderChangedEvent(ChangeType.CREATED, 1L, created, null));
+            return List.of(total(OrderStatus.PENDING, 1, "20.00"));
+        });
+        when(orderRepository.findVersions(anyCollection())).thenReturn(List.of(version(1L, 0L)));
+
+        statistics.rebuild();
+
+        OrderStats stats = summarize();
+        assertThat(stats.totalOrders()).isEqualTo(1);
+        assertThat(stats.totalRevenue()).isEqualByComparingTo("20.00");
+    }
+
+    @Test
+    void changeMissedByTheScanIsReplayed() {
+        Order created = order(1L, OrderStatus.PENDING, 0L);
+        when(orderRepository.aggregateByHour()).thenAnswer(invocation -> {
+            statistics.onOrderChanged(new OrderChangedEvent(ChangeType.CREATED, 1L, created, null));
+            return List.of();
+        });
+        when(orderRepository.findVersions(anyCollection())).thenReturn(List.of());
+
+        statistics.rebuild();
+
+        assertThat(summarize().totalOrders()).isEqualTo(1);
+    }
+
+    @Test
+    void onlyChangesAfterTheScannedVersionAreReplayed() {
+        Order pending = order(1L, OrderStatus.PENDING, 0L);
+        Order shipped = order(1L, OrderStatus.SHIPPED, 1L);
+        Order delivered = order(1L, OrderStatus.DELIVERED, 2L);
+        when(orderRepository.aggregateByHour()).thenAnswer(invocation -> {
+            statistics.onOrderChanged(new OrderChangedEvent(ChangeType.STATUS_CHANGED, 1L, shipped, pending));
+            statistics.onOrderChanged(new OrderChangedEvent(ChangeType.STATUS_CHANGED, 1L, delivered, shipped));
+            return List.of(total(OrderStatus.SHIPPED, 1, "20.00"));
+        });
+        when(orderRepository.findVersions(anyCollection())).thenReturn(List.of(version(1L, 1L)));
+
+        statistics.rebuild();
+
+        assertThat(summarize().byStatus()).extracting(Bucket::key, Bucket::orders)
+                .containsExactly(Tuple.tuple(OrderStatus.DELIVERED.label(), 1L));
+    }
+
+    @Test
+    void revenueIsSummedInExactCents() {
+        when(orderRepository.aggregateByHour()).thenReturn(List.of());
+        statistics.rebuild();
+
+        for (long id = 1; id <= 10; id++) {
+            Order created = new Order(id, "customer", "widget", 1, 0.1, OrderStatus.PENDING, HOUR);
+            created.setVersion(0L);
+            created.addLine(new OrderLine(null, "widget", 1, new BigDecimal("0.10")));
+            created.setTotalAmount(new BigDecimal("0.10"));
+            statistics.onOrderChanged(new OrderChangedEvent(ChangeType.CREATED, id, created, null));
+        }
+
+        assertThat(summarize().totalRevenue()).isEqualTo(new BigDecimal("1.00"));
+    }
+
+    @Test
+    void productRevenueComesFromEachLine() {
+        when(orderRepository.aggregateByHour()).thenReturn(List.of());
+        statistics.rebuild();
+
+        Order created = new Order(1L, "customer", "widget", 3, 5.0, OrderStatus.PENDING, HOUR);
+        created.setVersion(0L);
+        created.addLine(new OrderLine(null, "widget", 1, new BigDecimal("12.00")));
+        created.addLine(new OrderLine(null, "gadget", 2, new BigDecimal("1.50")));
+        created.setTotalAmount(new BigDecimal("15.00"));
+        statistics.onOrderChanged(new OrderChangedEvent(ChangeType.CREATED, 1L, created, null));
+
+        OrderStats stats = summarize();
+        assertThat(stats.totalOrders()).isEqualTo(1);
+        assertThat(stats.totalRevenue()).isEqualTo(new BigDecimal("15.00"));
+        assertThat(stats.byProduct()).extracting(Bucket::key, Bucket::orders, Bucket::revenue).containsExactly(
+                Tuple.tuple("widget", 1L, new BigDecimal("12.00")),
+                Tuple.tuple("gadget", 1L, new BigDecimal("3.00")));
+
+        Order deleted = created.copy();
+        statistics.onOrderChanged(new OrderChangedEvent(ChangeType.DELETED, 1L, null, deleted));
+
+        assertThat(summarize().byProduct()).isEmpty();
+    }
+
+    private OrderStats summarize() {
+        return statistics.summarize(null, null, Granularity.DAY, 10);
+    }
+
+    private static Order order(Long id, OrderStatus status, Long version) {
+        Order order = new Order(id, "customer", "widget", 2, 10.0, status, HOUR);
+        order.setVersion(version);
+        order.addLine(new OrderLine(null, "widget", 2, new BigDecimal("10.00")));
+        order.setTotalAmount(new BigDecimal("20.00"));
+        return order;
+    }
+
+    private static HourlyTotal total(OrderStatus status, long orders, String revenue) {
+        return new HourlyTotal() {
+            public int getOrderYear() {
+                return HOUR.getYear();
+            }
+
+            public int getOrderMonth() {
+                return HOUR.getMonthValue();
+            }
+
+            public int getOrderDay() {
+                return HOUR.getDayOfMonth();
+            }
+
+            public int getOrderHour() {
+                return HOUR.getHour();
+            }
+
+            public OrderStatus getStatus() {
+                return status;
+            }
+
+            public long getOrders() {
+                return orders;
+            }
+
+            public BigDecimal getRevenue() {
+                return new BigDecimal(revenue);
+            }
+        };
+    }
+
+    private static OrderVersion version(Long id, Long version) {
+        return new OrderVersion() {
+            public Long getId() {
+                return id;
+            }
+
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+}